@@ -0,0 +1,74 @@
+package projetitecommerce.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON des listes renvoyées par {@code /api/products} et {@code /api/categories},
+ * avec un {@link ObjectMapper} configuré comme celui de Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private List<Category> categories;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        categories = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Category category = new Category();
+            category.setId((long) i);
+            category.setName("Catégorie " + i);
+            categories.add(category);
+        }
+        products = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setName("T-shirt Homme Basique " + i);
+            product.setBrandName("Marque " + (i % 50));
+            product.setPrice(5 + (i % 9500) / 100.0);
+            product.setImageUrl("https://picsum.photos/id/" + (i % 1000) + "/600/400");
+            // Au plus 100 catégories distinctes référencées par les produits
+            product.setCategory(categories.get(i % Math.min(100, size)));
+            products.add(product);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] serializeCategories() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(categories);
+    }
+}
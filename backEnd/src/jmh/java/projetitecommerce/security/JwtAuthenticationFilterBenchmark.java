@@ -0,0 +1,78 @@
+package projetitecommerce.security;
+
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import projetitecommerce.model.User;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coût complet du filtre JWT pour une requête authentifiée (objets servlet simulés).
+ * Le chargement de l'utilisateur simule un aller-retour en base de {@code userLoadNanos}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    /** Configuration "avant" (aucun cache) et "après" (cache des tokens + cache des utilisateurs). */
+    @Param({"false", "true"})
+    boolean cached;
+
+    /** Latence simulée de {@code UserRepository.findByUsername}. */
+    @Param({"0", "200000"})
+    long userLoadNanos;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtService jwtService = JwtServiceBenchmark.newJwtService(cached ? 10_000 : 0);
+        User user = JwtServiceBenchmark.benchmarkUser();
+        UserDetailsService userDetailsService = username -> {
+            if (userLoadNanos > 0) {
+                LockSupport.parkNanos(userLoadNanos);
+            }
+            return user;
+        };
+        UserPrincipalCache principalCache = new UserPrincipalCache(cached ? Duration.ofSeconds(60) : Duration.ZERO, 10_000);
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, principalCache);
+        authorization = "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public void authenticatedRequest(Blackhole blackhole) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package projetitecommerce.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modification d'un panier ({@code POST /api/cart/items}) : coût en mémoire, journal compris, pour
+ * 10 000 paniers actifs déjà chargés. L'écriture différée est désactivée pendant la mesure (intervalle
+ * d'une heure) ; {@link #flush()} mesure à part la réécriture en base (H2) de 1 000 paniers modifiés.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartStoreBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int PRODUCTS = 50;
+
+    private Path journal;
+    private CartStore store;
+
+    @Setup
+    public void setup() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:cart-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(new ClassPathResource("db/migration/V3__cart_items.sql")
+                .getContentAsString(StandardCharsets.UTF_8));
+        journal = Files.createTempDirectory("cart-journal");
+        store = new CartStore(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                new SimpleMeterRegistry(), 64, journal, DataSize.ofMegabytes(4), Duration.ofHours(1), 500,
+                Duration.ofHours(1));
+        store.afterPropertiesSet();
+        for (long userId = 1; userId <= USERS; userId++) {
+            store.update(userId, 1 + userId % PRODUCTS, (lines, current) -> 1);
+        }
+        store.flush();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        store.destroy();
+        FileSystemUtils.deleteRecursively(journal);
+    }
+
+    @Benchmark
+    public CartStore.Lines update() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return store.update(1 + random.nextInt(USERS), 1 + random.nextInt(PRODUCTS),
+                (lines, current) -> (current + 1) % 10);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public CartStore.Lines update4Threads() {
+        return update();
+    }
+
+    @Benchmark
+    public CartStore.Lines get() {
+        return store.get(1 + ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    /** Réécriture de 1 000 paniers modifiés (une modification par panier avant chaque passage). */
+    @State(Scope.Thread)
+    public static class Dirty {
+        @Setup(Level.Invocation)
+        public void touch(CartStoreBenchmark benchmark) {
+            for (long userId = 1; userId <= 1_000; userId++) {
+                benchmark.store.update(userId, 1 + ThreadLocalRandom.current().nextInt(PRODUCTS),
+                        (lines, current) -> (current + 1) % 10);
+            }
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void flush(Dirty dirty) throws Exception {
+        store.flush();
+    }
+}
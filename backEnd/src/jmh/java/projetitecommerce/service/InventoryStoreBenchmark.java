@@ -0,0 +1,100 @@
+package projetitecommerce.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Réservation puis annulation sur un seul produit très demandé : compteur en mémoire
+ * ({@link #reserve()}) contre une mise à jour conditionnelle de la ligne de stock par réservation,
+ * dans sa transaction ({@link #reserveInDatabase()}, base H2). L'écriture différée est désactivée
+ * pendant la mesure (intervalle d'une heure) et faite entre deux itérations de 200 ms, soit l'intervalle
+ * d'écriture par défaut : les réservations gardées en mémoire entre deux passages sont celles de la
+ * production. Tas dimensionné pour ne pas mesurer la copie de ces réservations par un tas minimal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 25, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmn1g"})
+public class InventoryStoreBenchmark {
+
+    private static final long PRODUCT_ID = 1L;
+    private static final String DECREMENT_SQL =
+            "UPDATE product_stock SET quantity = quantity - ? WHERE product_id = ? AND quantity >= ?";
+    private static final String INCREMENT_SQL =
+            "UPDATE product_stock SET quantity = quantity + ? WHERE product_id = ?";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private InventoryStore store;
+
+    @Setup
+    public void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:inventory-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Schéma de V4__inventory.sql sans la clé étrangère vers products
+        jdbcTemplate.execute("CREATE TABLE product_stock (product_id BIGINT PRIMARY KEY, quantity INT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE stock_reservations (id VARCHAR(36) PRIMARY KEY, product_id BIGINT NOT NULL, "
+                + "user_id BIGINT NOT NULL, quantity INT NOT NULL, expires_at DATETIME(6) NOT NULL)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        store = new InventoryStore(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry(),
+                Duration.ofHours(1), Duration.ofHours(1), 1000);
+        store.afterPropertiesSet();
+        store.setStock(PRODUCT_ID, 1_000_000_000);
+    }
+
+    @TearDown(Level.Iteration)
+    public void flush() {
+        store.flush();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        store.destroy();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Benchmark
+    public boolean reserve() {
+        return store.release(store.reserve(PRODUCT_ID, 1, 42L));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean reserve4Threads() {
+        return reserve();
+    }
+
+    @Benchmark
+    public int reserveInDatabase() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(DECREMENT_SQL, 1, PRODUCT_ID, 1));
+        return transactionTemplate.execute(status -> jdbcTemplate.update(INCREMENT_SQL, 1, PRODUCT_ID));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int reserveInDatabase4Threads() {
+        return reserveInDatabase();
+    }
+}
@@ -0,0 +1,86 @@
+package projetitecommerce.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import projetitecommerce.dto.Suggestion;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplétion ({@code /api/products/suggest}) : recherche d'un préfixe à chaque frappe, et coût
+ * d'une écriture du catalogue (modification d'un produit, recopie des chemins de l'arbre).
+ * Lancer avec {@code -prof gc} pour vérifier l'absence d'allocation à la recherche.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSuggestIndexBenchmark {
+
+    private static final String[] TYPES = {"T-shirt", "Chemise", "Pantalon", "Jean", "Pull", "Veste", "Short", "Robe"};
+    private static final String[] ADJECTIVES = {"Basique", "Imprimé", "Rayé", "Coton", "Lin", "Éco", "Slim", "Oversize"};
+    private static final String[] QUERIES = {"t", "pu", "ray", "imprim", "chemise c", "Éco", "lev", "pantalon slim 12"};
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private ProductSuggestIndex index;
+    private List<Product> products;
+    private Random random;
+    private int next;
+
+    @Setup
+    public void setup() {
+        random = new Random(42);
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < TYPES.length; i++) {
+            Category category = new Category();
+            category.setId((long) i + 1);
+            category.setName(TYPES[i] + "s");
+            categories.add(category);
+        }
+        products = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            int type = random.nextInt(TYPES.length);
+            Product product = new Product();
+            product.setId((long) i);
+            product.setName(TYPES[type] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + i);
+            product.setBrandName("Marque " + (i % 50));
+            product.setPrice(5 + (i % 9500) / 100.0);
+            product.setImageUrl("https://picsum.photos/id/" + (i % 1000) + "/600/400");
+            product.setCategory(categories.get(type));
+            products.add(product);
+        }
+        index = new ProductSuggestIndex();
+        index.onCatalogLoaded(categories, products);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggest() {
+        return index.suggest(QUERIES[next++ & (QUERIES.length - 1)], ProductSuggestIndex.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public void productSaved() {
+        Product product = products.get(random.nextInt(size));
+        product.setName(TYPES[random.nextInt(TYPES.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)]
+                + " " + product.getId());
+        index.onProductSaved(product);
+    }
+}
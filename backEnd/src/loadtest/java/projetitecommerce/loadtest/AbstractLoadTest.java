@@ -0,0 +1,174 @@
+package projetitecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import projetitecommerce.repo.CategoryRepository;
+import projetitecommerce.service.CatalogReadModel;
+import projetitecommerce.service.ProductImportService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Socle des tests de charge : application complète sur H2 (mode MySQL), catalogue synthétique,
+ * tokens utilisateur et admin, construction des requêtes et rapport par endpoint.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@Import(PoolWaitRecorder.Config.class)
+abstract class AbstractLoadTest {
+
+    static final int PRODUCTS = Integer.getInteger("loadtest.products", 50_000);
+    static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private CatalogReadModel catalogReadModel;
+
+    @Autowired
+    protected PoolWaitRecorder poolWaitRecorder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    protected SyntheticCatalog catalog;
+    protected String userToken;
+    protected String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        catalog = SyntheticCatalog.populate(categoryRepository, productImportService, catalogReadModel, PRODUCTS);
+        userToken = login("user", "user123");
+        adminToken = login("admin", "admin123");
+    }
+
+    /**
+     * Chauffe (non mesurée) puis mesure du scénario.
+     *
+     * @return les échantillons par endpoint ; les attentes Hikari sont dans {@link #poolWaitRecorder}.
+     */
+    protected Map<String, LoadDriver.EndpointSamples> measure(LoadDriver driver, int users, Duration duration)
+            throws InterruptedException {
+        driver.run(users, WARMUP);
+        poolWaitRecorder.start();
+        try {
+            return driver.run(users, duration);
+        } finally {
+            poolWaitRecorder.stop();
+        }
+    }
+
+    protected String productJson(Random random) {
+        return String.format(Locale.ROOT,
+                "{\"name\":\"%s %s\",\"brandName\":\"%s\",\"price\":%.2f,\"imageUrl\":\"https://picsum.photos/id/%d/600/400\",\"category\":{\"id\":%d}}",
+                SyntheticCatalog.pick(random, SyntheticCatalog.TYPES), SyntheticCatalog.pick(random, SyntheticCatalog.ADJECTIVES),
+                SyntheticCatalog.pick(random, SyntheticCatalog.BRANDS), 4.99 + random.nextInt(14_500) / 100.0,
+                random.nextInt(1000), catalog.randomCategoryId(random));
+    }
+
+    // --- Requêtes HTTP ---
+
+    protected HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    protected HttpRequest post(String path, String json, String token) {
+        return request(path, token).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    protected HttpRequest put(String path, String json, String token) {
+        return request(path, token).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    protected HttpRequest loginRequest() {
+        return post("/api/auth/login", "{\"username\":\"user\",\"password\":\"user123\"}", null);
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private String login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                post("/api/auth/login", "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}", null),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("connexion de " + username).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    protected static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // --- Rapport ---
+
+    /**
+     * Tableau par endpoint : débit, percentiles de latence, réponses 503 (charge refusée) et attente Hikari.
+     */
+    protected String report(String title, Map<String, LoadDriver.EndpointSamples> results, Duration duration) {
+        Map<String, PoolWaitRecorder.Stats> poolWaits = poolWaitRecorder.snapshot();
+        double seconds = duration.toMillis() / 1000.0;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%n%s%n", title));
+        out.append(String.format(Locale.ROOT, "%-34s %9s %7s %5s %9s %8s %8s %8s %9s %11s %11s%n",
+                "Endpoint", "Requêtes", "Erreurs", "503", "Req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "Hikari moy", "Hikari max"));
+
+        long total = 0;
+        for (Map.Entry<String, LoadDriver.EndpointSamples> entry : new TreeMap<>(results).entrySet()) {
+            LoadDriver.EndpointSamples s = entry.getValue();
+            PoolWaitRecorder.Stats wait = poolWaits.get(entry.getKey());
+            total += s.count();
+            out.append(String.format(Locale.ROOT, "%-34s %9d %7d %5d %9.1f %8.2f %8.2f %8.2f %9.2f %11s %11s%n",
+                    entry.getKey(), s.count(), s.errors, s.unavailable, s.count() / seconds,
+                    s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99), s.percentileMillis(100),
+                    wait == null ? "-" : String.format(Locale.ROOT, "%.3f ms", wait.totalNanos.sum() / 1e6 / Math.max(1, wait.acquisitions.sum())),
+                    wait == null ? "-" : String.format(Locale.ROOT, "%.3f ms", wait.maxNanos.get() / 1e6)));
+        }
+        out.append(String.format(Locale.ROOT, "Total : %d requêtes, %.1f req/s%n", total, total / seconds));
+
+        out.append(String.format(Locale.ROOT, "%nAcquisitions de connexion Hikari par endpoint :%n"));
+        poolWaits.forEach((endpoint, wait) -> out.append(String.format(Locale.ROOT,
+                "  %-34s %8d acquisitions, attente totale %.1f ms, %d timeouts%n",
+                endpoint, wait.acquisitions.sum(), wait.totalNanos.sum() / 1e6, wait.timeouts.sum())));
+        return out.toString();
+    }
+
+    protected static void writeReport(String fileName, String report) throws IOException {
+        System.out.println(report);
+        Files.writeString(Path.of("target", fileName), report);
+    }
+}
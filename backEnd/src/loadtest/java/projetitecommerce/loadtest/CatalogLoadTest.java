@@ -0,0 +1,99 @@
+package projetitecommerce.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import projetitecommerce.service.InventoryStore;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test de charge de bout en bout : mélange de lectures anonymes, recherches, pages Thymeleaf,
+ * connexions et écritures admin.
+ *
+ * Rapporte par endpoint le débit, les percentiles de latence et l'attente de connexion Hikari.
+ * Paramètres (propriétés système) : loadtest.products, loadtest.users, loadtest.duration, loadtest.warmup (s).
+ */
+class CatalogLoadTest extends AbstractLoadTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 32);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+
+    @Autowired
+    private InventoryStore inventoryStore;
+
+    /** Produit en vente : stock suivi, réservé par tous les utilisateurs virtuels. */
+    private long hotProductId;
+
+    @Test
+    void mixedCatalogTraffic() throws Exception {
+        hotProductId = catalog.randomProductId(new Random(0));
+        inventoryStore.setStock(hotProductId, 1_000_000_000);
+        Map<String, LoadDriver.EndpointSamples> results = measure(new LoadDriver(scenario()), USERS, DURATION);
+
+        writeReport("loadtest-report.txt", report(String.format(Locale.ROOT,
+                "Test de charge : %d produits, %d utilisateurs virtuels, %ds de mesure (%ds de chauffe)",
+                catalog.size(), USERS, DURATION.toSeconds(), WARMUP.toSeconds()), results, DURATION));
+
+        long errors = results.values().stream().mapToLong(s -> s.errors).sum();
+        assertThat(errors).as("réponses en erreur (4xx, 5xx ou réseau)").isZero();
+    }
+
+    /**
+     * Mélange de trafic (poids relatifs) : majorité de lectures anonymes, quelques connexions et écritures.
+     */
+    private List<LoadDriver.Operation> scenario() {
+        String[] sorts = {"id", "price", "name"};
+        return List.of(
+                new LoadDriver.Operation("GET /api/products", 250, r ->
+                        get("/api/products?limit=50&sort=" + sorts[r.nextInt(sorts.length)], null)),
+                new LoadDriver.Operation("GET /api/products/{id}", 200, r ->
+                        get("/api/products/" + catalog.randomProductId(r), null)),
+                new LoadDriver.Operation("GET /api/categories", 100, r ->
+                        get("/api/categories", null)),
+                new LoadDriver.Operation("GET /api/products/search", 150, r ->
+                        get("/api/products/search?q=" + encode(catalog.randomSearchTerm(r)), null)),
+                new LoadDriver.Operation("GET /api/products?ids", 50, r -> {
+                    // Panier ou liste d'envies : une vingtaine de produits précis en un appel
+                    StringBuilder ids = new StringBuilder().append(catalog.randomProductId(r));
+                    for (int i = 1; i < 20; i++) {
+                        ids.append(',').append(catalog.randomProductId(r));
+                    }
+                    return get("/api/products?ids=" + ids, null);
+                }),
+                new LoadDriver.Operation("GET /api/products/by-price", 50, r -> r.nextBoolean()
+                        ? get("/api/products/by-price?maxPrice=" + (10 + r.nextInt(40)), null)
+                        : get("/api/products/by-price?order=desc&limit=20&categoryId=" + catalog.randomCategoryId(r), null)),
+                new LoadDriver.Operation("GET /api/products/suggest", 100, r -> {
+                    // Frappe en cours : début (1 à 4 caractères) d'un terme recherché
+                    String term = catalog.randomSearchTerm(r);
+                    return get("/api/products/suggest?q=" + encode(term.substring(0, Math.min(term.length(), 1 + r.nextInt(4)))), null);
+                }),
+                new LoadDriver.Operation("GET /catalog", 150, r -> r.nextBoolean()
+                        ? get("/catalog?categoryId=" + catalog.randomCategoryId(r), userToken)
+                        : get("/catalog?search=" + encode(catalog.randomSearchTerm(r)), userToken)),
+                new LoadDriver.Operation("PUT /api/cart/items/{id}", 60, r -> {
+                    // Panier de l'utilisateur de test : 50 produits possibles (au plus 100 lignes par panier)
+                    long productId = catalog.randomProductId(new Random(r.nextInt(50)));
+                    return put("/api/cart/items/" + productId, "{\"quantity\":" + r.nextInt(4) + "}", userToken);
+                }),
+                new LoadDriver.Operation("GET /api/cart", 40, r -> get("/api/cart", userToken)),
+                new LoadDriver.Operation("POST /api/inventory/reservations", 30, r ->
+                        post("/api/inventory/reservations", "{\"productId\":" + hotProductId + "}", userToken)),
+                new LoadDriver.Operation("GET /api/inventory/{id}", 20, r ->
+                        get("/api/inventory/" + hotProductId, null)),
+                new LoadDriver.Operation("POST /api/orders", 20, r ->
+                        post("/api/orders", "{\"items\":[{\"productId\":" + hotProductId + "},{\"productId\":"
+                                + catalog.randomProductId(r) + ",\"quantity\":2}]}", userToken)),
+                new LoadDriver.Operation("POST /api/auth/login", 40, r -> loginRequest()),
+                new LoadDriver.Operation("PUT /api/products/{id}", 15, r ->
+                        put("/api/products/" + catalog.randomProductId(r), productJson(r), adminToken)),
+                new LoadDriver.Operation("POST /api/products", 5, r ->
+                        post("/api/products", productJson(r), adminToken)));
+    }
+}
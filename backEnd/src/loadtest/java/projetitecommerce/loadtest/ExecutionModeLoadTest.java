@@ -0,0 +1,66 @@
+package projetitecommerce.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comparaison des modes d'exécution sous rafale : beaucoup plus d'utilisateurs simultanés que de
+ * threads Tomcat et de connexions Hikari. Chaque sous-classe fixe un mode ; les rapports
+ * {@code target/loadtest-mode-<mode>.txt} se comparent directement.
+ *
+ * Deux scénarios : lectures du catalogue en base (photographie en mémoire désactivée) et connexions
+ * (requête utilisateur + BCrypt). Les réponses 503 sont la charge refusée par la porte d'accès à la base.
+ * Paramètres : loadtest.burst-users (défaut 400), loadtest.burst-duration (s, défaut 20).
+ */
+@TestPropertySource(properties = "catalog.read-model.enabled=false")
+abstract class ExecutionModeLoadTest extends AbstractLoadTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.burst-users", 400);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.burst-duration", 20));
+
+    /** Nom du mode, repris dans le titre et le nom du rapport. */
+    protected abstract String mode();
+
+    @Test
+    void catalogAndLoginBursts() throws Exception {
+        Map<String, LoadDriver.EndpointSamples> catalogResults = measure(new LoadDriver(catalogScenario()), USERS, DURATION);
+        String catalogReport = report(title("lectures du catalogue"), catalogResults, DURATION);
+
+        Map<String, LoadDriver.EndpointSamples> loginResults = measure(new LoadDriver(loginScenario()), USERS, DURATION);
+        String loginReport = report(title("connexions"), loginResults, DURATION);
+
+        writeReport("loadtest-mode-" + mode() + ".txt", catalogReport + loginReport);
+
+        assertThat(serverErrorsOtherThan503(catalogResults) + serverErrorsOtherThan503(loginResults))
+                .as("erreurs serveur ou réseau (hors 503)").isZero();
+    }
+
+    private String title(String scenario) {
+        return String.format(Locale.ROOT, "Mode %s, %s : %d produits, %d utilisateurs simultanés, %ds de mesure",
+                mode(), scenario, catalog.size(), USERS, DURATION.toSeconds());
+    }
+
+    private List<LoadDriver.Operation> catalogScenario() {
+        return List.of(
+                new LoadDriver.Operation("GET /api/products", 40, r -> get("/api/products?limit=50&sort=price", null)),
+                new LoadDriver.Operation("GET /api/products/{id}", 40, r ->
+                        get("/api/products/" + catalog.randomProductId(r), null)),
+                new LoadDriver.Operation("GET /catalog", 20, r ->
+                        get("/catalog?categoryId=" + catalog.randomCategoryId(r), userToken)));
+    }
+
+    private List<LoadDriver.Operation> loginScenario() {
+        return List.of(new LoadDriver.Operation("POST /api/auth/login", 1, r -> loginRequest()));
+    }
+
+    private static long serverErrorsOtherThan503(Map<String, LoadDriver.EndpointSamples> results) {
+        return results.values().stream().mapToLong(s -> s.serverErrors - s.unavailable).sum();
+    }
+}
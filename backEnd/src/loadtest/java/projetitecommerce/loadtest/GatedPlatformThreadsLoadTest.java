@@ -0,0 +1,15 @@
+package projetitecommerce.loadtest;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Pool de threads Tomcat avec la porte d'accès à la base (isole l'effet de la porte).
+ */
+@TestPropertySource(properties = {"spring.threads.virtual.enabled=false", "db.gate.enabled=true"})
+class GatedPlatformThreadsLoadTest extends ExecutionModeLoadTest {
+
+    @Override
+    protected String mode() {
+        return "plateforme-porte";
+    }
+}
@@ -0,0 +1,139 @@
+package projetitecommerce.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Générateur de charge en boucle fermée : chaque utilisateur virtuel enchaîne des requêtes tirées
+ * au sort selon un mélange pondéré, sans temps de réflexion.
+ */
+final class LoadDriver {
+
+    /** Requête du scénario : clé d'endpoint (pour le rapport), poids relatif et construction de la requête. */
+    record Operation(String endpoint, int weight, Function<Random, HttpRequest> request) {}
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<Operation> operations;
+    private final int totalWeight;
+
+    LoadDriver(List<Operation> operations) {
+        this.operations = List.copyOf(operations);
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+    }
+
+    /**
+     * Exécute le mélange avec {@code users} utilisateurs virtuels pendant {@code duration}.
+     *
+     * @return les échantillons de latence agrégés par endpoint.
+     */
+    Map<String, EndpointSamples> run(int users, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Map<String, EndpointSamples>> perUser = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            Map<String, EndpointSamples> samples = new HashMap<>();
+            perUser.add(samples);
+            Random random = new Random(1000L + u);
+            Thread thread = new Thread(() -> loop(random, samples, deadline), "load-user-" + u);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Map<String, EndpointSamples> merged = new HashMap<>();
+        for (Map<String, EndpointSamples> samples : perUser) {
+            samples.forEach((endpoint, s) -> merged.computeIfAbsent(endpoint, k -> new EndpointSamples()).merge(s));
+        }
+        return merged;
+    }
+
+    private void loop(Random random, Map<String, EndpointSamples> samples, long deadline) {
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(random);
+            HttpRequest request = operation.request().apply(random);
+            EndpointSamples s = samples.computeIfAbsent(operation.endpoint(), k -> new EndpointSamples());
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = -1;
+            }
+            s.record(System.nanoTime() - start, status);
+        }
+    }
+
+    private Operation pick(Random random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    /** Latences (ns) et statuts d'un endpoint. Non thread-safe : un exemplaire par utilisateur virtuel. */
+    static final class EndpointSamples {
+        private long[] latencies = new long[1024];
+        private int count;
+        long errors;
+        long serverErrors;
+        /** Réponses 503 : charge refusée par le serveur (porte d'accès à la base saturée). */
+        long unavailable;
+
+        void record(long nanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (status < 200 || status >= 400) {
+                errors++;
+            }
+            if (status < 0 || status >= 500) {
+                serverErrors++;
+            }
+            if (status == 503) {
+                unavailable++;
+            }
+        }
+
+        void merge(EndpointSamples other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], 200);
+            }
+            errors += other.errors;
+            serverErrors += other.serverErrors;
+            unavailable += other.unavailable;
+        }
+
+        int count() {
+            return count;
+        }
+
+        /** Percentile (0-100) en millisecondes. Trie les échantillons au premier appel. */
+        double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            Arrays.sort(latencies, 0, count);
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return latencies[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package projetitecommerce.loadtest;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Mode par défaut : pool de threads Tomcat, sans porte d'accès à la base.
+ */
+@TestPropertySource(properties = {"spring.threads.virtual.enabled=false", "db.gate.enabled=false"})
+class PlatformThreadsLoadTest extends ExecutionModeLoadTest {
+
+    @Override
+    protected String mode() {
+        return "plateforme";
+    }
+}
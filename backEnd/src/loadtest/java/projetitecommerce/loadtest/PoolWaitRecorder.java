@@ -0,0 +1,121 @@
+package projetitecommerce.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesure côté serveur du temps d'attente d'une connexion Hikari, ventilé par endpoint.
+ *
+ * Un filtre servlet mémorise l'endpoint de la requête en cours dans un {@code ThreadLocal} ; le
+ * tracker de métriques Hikari y rattache chaque acquisition de connexion.
+ */
+final class PoolWaitRecorder implements IMetricsTracker {
+
+    static final String OUTSIDE_REQUEST = "(hors requête)";
+
+    private static final ThreadLocal<String> CURRENT_ENDPOINT = new ThreadLocal<>();
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    static final class Stats {
+        final LongAdder acquisitions = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder timeouts = new LongAdder();
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        if (!recording) {
+            return;
+        }
+        Stats s = stats.computeIfAbsent(currentEndpoint(), k -> new Stats());
+        s.acquisitions.increment();
+        s.totalNanos.add(elapsedAcquiredNanos);
+        s.maxNanos.accumulate(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        if (recording) {
+            stats.computeIfAbsent(currentEndpoint(), k -> new Stats()).timeouts.increment();
+        }
+    }
+
+    void start() {
+        stats.clear();
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+    }
+
+    Map<String, Stats> snapshot() {
+        return new TreeMap<>(stats);
+    }
+
+    private static String currentEndpoint() {
+        String endpoint = CURRENT_ENDPOINT.get();
+        return endpoint != null ? endpoint : OUTSIDE_REQUEST;
+    }
+
+    /**
+     * Clé d'endpoint commune au client et au serveur : méthode + chemin, identifiants numériques remplacés.
+     */
+    static String endpointKey(String method, String path) {
+        return method + " " + path.replaceAll("/\\d+", "/{id}");
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        PoolWaitRecorder poolWaitRecorder() {
+            return new PoolWaitRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor hikariMetricsInstaller(org.springframework.beans.factory.ObjectProvider<PoolWaitRecorder> recorder) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    if (bean instanceof HikariDataSource dataSource) {
+                        dataSource.setMetricsTrackerFactory((poolName, poolStats) -> recorder.getObject());
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        @Bean
+        FilterRegistrationBean<Filter> endpointTaggingFilter() {
+            Filter filter = (request, response, chain) -> {
+                HttpServletRequest http = (HttpServletRequest) request;
+                CURRENT_ENDPOINT.set(endpointKey(http.getMethod(), http.getRequestURI()));
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    CURRENT_ENDPOINT.remove();
+                }
+            };
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+}
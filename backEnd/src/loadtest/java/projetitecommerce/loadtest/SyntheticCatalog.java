@@ -0,0 +1,107 @@
+package projetitecommerce.loadtest;
+
+import projetitecommerce.dto.ImportReport;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+import projetitecommerce.repo.CategoryRepository;
+import projetitecommerce.service.CatalogFileFormat;
+import projetitecommerce.service.CatalogReadModel;
+import projetitecommerce.service.ProductImportService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Générateur de catalogue synthétique (noms français accentués, marques, prix), chargé via
+ * l'import en masse. La graine est fixe : deux exécutions produisent le même catalogue.
+ */
+final class SyntheticCatalog {
+
+    static final List<String> CATEGORIES = List.of(
+            "T-shirts Homme", "T-shirts Femme", "T-shirts Enfant", "Sweats", "Chemises", "Polos",
+            "Débardeurs", "Pulls", "Vestes", "Pantalons", "Shorts", "Accessoires");
+    static final List<String> TYPES = List.of(
+            "T-shirt", "Sweat", "Chemise", "Polo", "Débardeur", "Pull", "Veste", "Pantalon", "Short", "Casquette");
+    static final List<String> ADJECTIVES = List.of(
+            "Basique", "Imprimé", "Rayé", "Oversize", "Légère", "Brodé", "Délavé", "Côtelé", "Sport", "Écologique",
+            "Manche Longue", "Col V", "Crop Top", "Vintage", "Premium");
+    static final List<String> BRANDS = List.of(
+            "Nike", "Adidas", "Puma", "H&M", "Zara", "Pull&Bear", "Kiabi", "Disney", "Levi's", "Lacoste",
+            "Le Coq Sportif", "Celio", "Jules", "Promod", "Etam", "Okaïdi", "Petit Bateau", "Aigle", "Décathlon", "Uniqlo");
+
+    private final List<Category> categories;
+    private final long[] productIds;
+
+    private SyntheticCatalog(List<Category> categories, long[] productIds) {
+        this.categories = categories;
+        this.productIds = productIds;
+    }
+
+    /**
+     * Crée les catégories manquantes puis importe {@code count} produits générés.
+     */
+    static SyntheticCatalog populate(CategoryRepository categoryRepository,
+                                     ProductImportService importService,
+                                     CatalogReadModel readModel,
+                                     int count) throws IOException {
+        for (String name : CATEGORIES) {
+            if (categoryRepository.findByName(name).isEmpty()) {
+                Category category = new Category();
+                category.setName(name);
+                readModel.categorySaved(categoryRepository.save(category));
+            }
+        }
+
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder(count * 120).append("name,brandName,price,imageUrl,category\n");
+        for (int i = 0; i < count; i++) {
+            csv.append(pick(random, TYPES)).append(' ').append(pick(random, ADJECTIVES)).append(' ').append(i).append(',')
+                    .append(pick(random, BRANDS)).append(',')
+                    .append(String.format(Locale.ROOT, "%.2f", 4.99 + random.nextInt(14_500) / 100.0)).append(',')
+                    .append("https://picsum.photos/id/").append(random.nextInt(1000)).append("/600/400,")
+                    .append(pick(random, CATEGORIES)).append('\n');
+        }
+        ImportReport report = importService.importProducts(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), CatalogFileFormat.CSV);
+        if (report.getRejected() > 0) {
+            throw new IllegalStateException("Import du catalogue synthétique incomplet : " + report.getErrors());
+        }
+
+        List<Category> loadedCategories = readModel.findAllCategories();
+        long[] ids = readModel.findAllProducts().stream().mapToLong(Product::getId).toArray();
+        return new SyntheticCatalog(loadedCategories, ids);
+    }
+
+    long randomProductId(Random random) {
+        return productIds[random.nextInt(productIds.length)];
+    }
+
+    long randomCategoryId(Random random) {
+        return categories.get(random.nextInt(categories.size())).getId();
+    }
+
+    /** Terme de recherche réaliste : type, adjectif, marque ou préfixe (saisie en cours). */
+    String randomSearchTerm(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> pick(random, TYPES);
+            case 1 -> pick(random, ADJECTIVES);
+            case 2 -> pick(random, BRANDS);
+            default -> {
+                String word = pick(random, TYPES);
+                yield word.substring(0, Math.min(word.length(), 3 + random.nextInt(2)));
+            }
+        };
+    }
+
+    int size() {
+        return productIds.length;
+    }
+
+    static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
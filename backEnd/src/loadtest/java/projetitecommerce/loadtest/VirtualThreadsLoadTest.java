@@ -0,0 +1,19 @@
+package projetitecommerce.loadtest;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Threads virtuels avec la porte d'accès à la base (activée par défaut avec ce mode).
+ * Ignoré sous JRE 17 : Spring Boot n'active les threads virtuels qu'à partir de Java 21.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadsLoadTest extends ExecutionModeLoadTest {
+
+    @Override
+    protected String mode() {
+        return "virtuels";
+    }
+}
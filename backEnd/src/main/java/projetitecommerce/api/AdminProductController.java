@@ -0,0 +1,92 @@
+package projetitecommerce.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import projetitecommerce.dto.ImportReport;
+import projetitecommerce.dto.StockLevel;
+import projetitecommerce.dto.StockRequest;
+import projetitecommerce.service.CatalogFileFormat;
+import projetitecommerce.service.InventoryService;
+import projetitecommerce.service.ProductExportService;
+import projetitecommerce.service.ProductImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Opérations d'administration en masse sur le catalogue (rôle ADMIN, voir {@code /api/admin/**}).
+ */
+@RestController
+@RequestMapping("/api/admin/products")
+@RequiredArgsConstructor
+@Tag(name = "Administration du catalogue", description = "Import et export en masse des produits, stock")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AdminProductController {
+
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final InventoryService inventoryService;
+
+    /**
+     * Importe des produits depuis un corps CSV (avec en-tête) ou NDJSON (un objet JSON par ligne),
+     * lu en flux. Colonnes : name, brandName, price, imageUrl, category (nom de la catégorie).
+     *
+     * @return le rapport d'import, avec les erreurs ligne par ligne.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Import en masse de produits (CSV ou NDJSON)")
+    public ResponseEntity<ImportReport> importProducts(
+            @RequestHeader("Content-Type") String contentType,
+            InputStream body) throws IOException {
+        CatalogFileFormat format = MediaType.parseMediaType(contentType)
+                .isCompatibleWith(MediaType.parseMediaType(CatalogFileFormat.NDJSON.mediaType()))
+                ? CatalogFileFormat.NDJSON
+                : CatalogFileFormat.CSV;
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
+    /**
+     * Exporte tout le catalogue en flux, sans le charger en mémoire.
+     *
+     * @param format ndjson (défaut) ou csv ; le CSV est réimportable tel quel.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export complet du catalogue (NDJSON ou CSV)")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        CatalogFileFormat fileFormat = CatalogFileFormat.from(format);
+        String filename = "products." + (fileFormat == CatalogFileFormat.CSV ? "csv" : "ndjson");
+        StreamingResponseBody body = out -> productExportService.export(out, fileFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fileFormat.mediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    /**
+     * Fixe le stock d'un produit ; un produit sans stock fixé n'est pas suivi (stock illimité).
+     *
+     * @param request nouvelle quantité en stock, réservations en attente comprises.
+     * @return le stock disponible (réservations en attente déduites), ou 400 si le produit est inconnu
+     *         ou la quantité inférieure aux réservations en attente.
+     */
+    @PutMapping("/{productId}/stock")
+    @Operation(summary = "Fixe le stock d'un produit")
+    public StockLevel setStock(@PathVariable Long productId, @RequestBody StockRequest request) {
+        return inventoryService.setStock(productId, request.getQuantity());
+    }
+}
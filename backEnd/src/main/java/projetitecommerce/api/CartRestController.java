@@ -0,0 +1,79 @@
+package projetitecommerce.api;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import projetitecommerce.dto.CartItemRequest;
+import projetitecommerce.dto.CartView;
+import projetitecommerce.model.User;
+import projetitecommerce.service.CartService;
+
+/**
+ * Contrôleur REST du panier de l'utilisateur connecté.
+ * Chaque appel renvoie le panier complet après modification.
+ */
+@RestController
+@RequestMapping("/api/cart")
+@CrossOrigin(origins = "http://localhost:4200")
+public class CartRestController {
+
+    private final CartService cartService;
+
+    public CartRestController(CartService cartService) {
+        this.cartService = cartService;
+    }
+
+    /**
+     * Récupère le panier.
+     *
+     * @return lignes, nombre d'articles et total.
+     */
+    @GetMapping
+    public CartView getCart(@AuthenticationPrincipal User user) {
+        return cartService.getCart(user.getId());
+    }
+
+    /**
+     * Ajoute un produit au panier (ou augmente sa quantité).
+     *
+     * @param request produit et quantité ajoutée (1 par défaut).
+     * @return le panier, ou 400 si le produit est inconnu ou la quantité invalide.
+     */
+    @PostMapping("/items")
+    public CartView addItem(@AuthenticationPrincipal User user, @RequestBody CartItemRequest request) {
+        return cartService.addItem(user.getId(), request.getProductId(), request.getQuantity());
+    }
+
+    /**
+     * Fixe la quantité d'un produit du panier (0 le retire).
+     *
+     * @param productId identifiant du produit.
+     * @param request   nouvelle quantité.
+     * @return le panier, ou 400 si le produit est inconnu ou la quantité invalide.
+     */
+    @PutMapping("/items/{productId}")
+    public CartView setQuantity(@AuthenticationPrincipal User user, @PathVariable Long productId,
+                                @RequestBody CartItemRequest request) {
+        return cartService.setQuantity(user.getId(), productId, request.getQuantity());
+    }
+
+    /**
+     * Retire un produit du panier.
+     *
+     * @param productId identifiant du produit.
+     * @return le panier.
+     */
+    @DeleteMapping("/items/{productId}")
+    public CartView removeItem(@AuthenticationPrincipal User user, @PathVariable Long productId) {
+        return cartService.removeItem(user.getId(), productId);
+    }
+
+    /**
+     * Vide le panier.
+     *
+     * @return le panier vide.
+     */
+    @DeleteMapping
+    public CartView clear(@AuthenticationPrincipal User user) {
+        return cartService.clear(user.getId());
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import projetitecommerce.model.Category;
 import projetitecommerce.repo.CategoryRepository;
+import projetitecommerce.service.CatalogReadModel;
 
 import java.util.List;
 
@@ -17,14 +18,17 @@ import java.util.List;
 public class CategoryRestController {
 
     private final CategoryRepository categoryRepository;
+    private final CatalogReadModel catalogReadModel;
 
     /**
      * Injection du repository de catégorie.
      *
      * @param categoryRepository repository de la table Category.
+     * @param catalogReadModel   modèle de lecture en mémoire du catalogue.
      */
-    public CategoryRestController(CategoryRepository categoryRepository) {
+    public CategoryRestController(CategoryRepository categoryRepository, CatalogReadModel catalogReadModel) {
         this.categoryRepository = categoryRepository;
+        this.catalogReadModel = catalogReadModel;
     }
 
     /**
@@ -34,7 +38,7 @@ public class CategoryRestController {
      */
     @GetMapping
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return catalogReadModel.findAllCategories();
     }
 
     /**
@@ -45,7 +49,7 @@ public class CategoryRestController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
-        return categoryRepository.findById(id)
+        return catalogReadModel.findCategory(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -62,6 +66,7 @@ public class CategoryRestController {
             return ResponseEntity.badRequest().build();
         }
         Category saved = categoryRepository.save(category);
+        catalogReadModel.categorySaved(saved);
         return ResponseEntity.ok(saved);
     }
 
@@ -77,7 +82,9 @@ public class CategoryRestController {
         return categoryRepository.findById(id)
                 .map(category -> {
                     category.setName(updatedCategory.getName());
-                    return ResponseEntity.ok(categoryRepository.save(category));
+                    Category saved = categoryRepository.save(category);
+                    catalogReadModel.categorySaved(saved);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -94,6 +101,7 @@ public class CategoryRestController {
             return ResponseEntity.notFound().build();
         }
         categoryRepository.deleteById(id);
+        catalogReadModel.categoryDeleted(id);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package projetitecommerce.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import projetitecommerce.dto.ReservationView;
+import projetitecommerce.dto.StockLevel;
+import projetitecommerce.dto.StockRequest;
+import projetitecommerce.model.User;
+import projetitecommerce.service.InventoryService;
+
+/**
+ * Contrôleur REST du stock : consultation publique, réservations de l'utilisateur connecté.
+ * Une réservation non confirmée avant son échéance expire et son stock est rendu.
+ */
+@RestController
+@RequestMapping("/api/inventory")
+@CrossOrigin(origins = "http://localhost:4200")
+public class InventoryRestController {
+
+    private final InventoryService inventoryService;
+
+    public InventoryRestController(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    /**
+     * Stock disponible d'un produit.
+     *
+     * @param productId identifiant du produit.
+     * @return le stock, ou 400 si le produit est inconnu.
+     */
+    @GetMapping("/{productId}")
+    public StockLevel getStock(@PathVariable Long productId) {
+        return inventoryService.getStock(productId);
+    }
+
+    /**
+     * Réserve du stock pour l'utilisateur connecté.
+     *
+     * @param request produit et quantité (1 par défaut).
+     * @return la réservation (201), 409 si le stock est insuffisant, 400 si le produit est inconnu.
+     */
+    @PostMapping("/reservations")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ReservationView reserve(@AuthenticationPrincipal User user, @RequestBody StockRequest request) {
+        return inventoryService.reserve(user.getId(), request.getProductId(), request.getQuantity());
+    }
+
+    /**
+     * Confirme une réservation : le stock ne sera pas rendu.
+     *
+     * @param id identifiant de la réservation.
+     * @return la réservation, ou 400 si elle est inconnue ou expirée.
+     */
+    @PostMapping("/reservations/{id}/confirm")
+    public ReservationView confirm(@AuthenticationPrincipal User user, @PathVariable String id) {
+        return inventoryService.confirm(user.getId(), id);
+    }
+
+    /**
+     * Annule une réservation et rend son stock.
+     *
+     * @param id identifiant de la réservation.
+     * @return la réservation, ou 400 si elle est inconnue ou déjà confirmée.
+     */
+    @DeleteMapping("/reservations/{id}")
+    public ReservationView release(@AuthenticationPrincipal User user, @PathVariable String id) {
+        return inventoryService.release(user.getId(), id);
+    }
+}
@@ -0,0 +1,68 @@
+package projetitecommerce.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import projetitecommerce.dto.OrderRequest;
+import projetitecommerce.dto.OrderView;
+import projetitecommerce.model.User;
+import projetitecommerce.service.OrderService;
+import projetitecommerce.service.OrderWriter;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Contrôleur REST des commandes de l'utilisateur connecté.
+ * Une commande est validée et son stock réservé dans la requête ; son écriture en base est groupée
+ * avec les commandes simultanées. Le client attend cette écriture ({@code wait=true}, par défaut) ou
+ * reçoit tout de suite la commande en attente et suit son état par {@code GET /api/orders/{id}}.
+ */
+@RestController
+@RequestMapping("/api/orders")
+@CrossOrigin(origins = "http://localhost:4200")
+public class OrderRestController {
+
+    private final OrderService orderService;
+
+    public OrderRestController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    /**
+     * Passe une commande.
+     *
+     * @param request produits, quantités (1 par défaut) et prix affichés au client (vérifiés s'ils sont fournis).
+     * @param wait    attendre l'écriture en base avant de répondre.
+     * @return la commande écrite (201) ou en attente (202, {@code wait=false}) ; 500 avec la commande en échec
+     *         si elle n'a pas pu être écrite ; 409 si le stock est insuffisant ; 400 si un produit est inconnu
+     *         ou si son prix a changé ; 503 si trop de commandes attendent leur écriture.
+     */
+    @PostMapping
+    public CompletableFuture<ResponseEntity<OrderView>> placeOrder(@AuthenticationPrincipal User user,
+                                                                   @RequestBody OrderRequest request,
+                                                                   @RequestParam(defaultValue = "true") boolean wait) {
+        OrderWriter.PendingOrder order = orderService.place(user.getId(), request);
+        URI location = URI.create("/api/orders/" + order.id());
+        if (!wait) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.accepted().location(location).body(OrderService.view(order)));
+        }
+        return order.written().handle((written, failure) -> ResponseEntity
+                .status(failure == null ? HttpStatus.CREATED : HttpStatus.INTERNAL_SERVER_ERROR)
+                .location(location)
+                .body(OrderService.view(order)));
+    }
+
+    /**
+     * État d'une commande : PENDING (en cours d'écriture), CONFIRMED ou FAILED.
+     *
+     * @param id identifiant de la commande.
+     * @return la commande, ou 400 si elle est inconnue.
+     */
+    @GetMapping("/{id}")
+    public OrderView getOrder(@AuthenticationPrincipal User user, @PathVariable String id) {
+        return orderService.getOrder(user.getId(), id);
+    }
+}
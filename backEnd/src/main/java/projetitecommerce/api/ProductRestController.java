@@ -4,10 +4,23 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import projetitecommerce.dto.FacetCounts;
+import projetitecommerce.dto.PriceBucket;
+import projetitecommerce.dto.PriceOrder;
+import projetitecommerce.dto.ProductPage;
+import projetitecommerce.dto.Suggestion;
 import projetitecommerce.model.Product;
 import projetitecommerce.repo.ProductRepository;
 import projetitecommerce.repo.CategoryRepository;
+import projetitecommerce.service.CatalogReadModel;
+import projetitecommerce.service.ProductFacetIndex;
+import projetitecommerce.service.ProductListingService;
+import projetitecommerce.service.ProductPriceIndex;
+import projetitecommerce.service.ProductSearchIndex;
+import projetitecommerce.service.ProductSuggestIndex;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -19,25 +32,170 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "http://localhost:4200")
 public class ProductRestController {
 
+    /** En-tête portant le curseur de la page suivante (absent sur la dernière page). */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** En-tête portant le nombre total de produits de la fourchette de prix. */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    /** En-tête listant les IDs demandés introuvables (absent si tous ont été trouvés). */
+    public static final String MISSING_IDS_HEADER = "X-Missing-Ids";
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductListingService productListingService;
+    private final CatalogReadModel catalogReadModel;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductPriceIndex productPriceIndex;
+    private final ProductSuggestIndex productSuggestIndex;
 
     /**
      * Injection des repositories via constructeur.
      */
-    public ProductRestController(ProductRepository productRepository, CategoryRepository categoryRepository) {
+    public ProductRestController(ProductRepository productRepository, CategoryRepository categoryRepository,
+                                 ProductListingService productListingService, CatalogReadModel catalogReadModel,
+                                 ProductSearchIndex productSearchIndex, ProductFacetIndex productFacetIndex,
+                                 ProductPriceIndex productPriceIndex, ProductSuggestIndex productSuggestIndex) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.productListingService = productListingService;
+        this.catalogReadModel = catalogReadModel;
+        this.productSearchIndex = productSearchIndex;
+        this.productFacetIndex = productFacetIndex;
+        this.productPriceIndex = productPriceIndex;
+        this.productSuggestIndex = productSuggestIndex;
     }
 
     /**
-     * Récupère la liste de tous les produits.
+     * Récupère une page de produits (pagination par curseur).
+     * Le curseur de la page suivante est renvoyé dans l'en-tête {@value #NEXT_CURSOR_HEADER}.
      *
-     * @return liste complète des produits.
+     * @param sort  critère de tri : id (défaut), price ou name.
+     * @param after curseur de la page précédente.
+     * @param limit taille de page (50 par défaut, 200 maximum).
+     * @return la page de produits.
      */
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public ResponseEntity<List<Product>> getAllProducts(
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        ProductPage page = productListingService.findPage(sort, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Récupère plusieurs produits par ID en un seul appel (panier, liste d'envies).
+     * Les produits sont renvoyés dans l'ordre demandé, chacun une fois ; les IDs introuvables
+     * sont listés dans l'en-tête {@value #MISSING_IDS_HEADER}.
+     *
+     * @param ids IDs séparés par des virgules (ex : ?ids=12,5,40), 200 maximum.
+     * @return les produits trouvés, ou 400 si la liste est vide ou trop longue.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Product>> getProductsByIds(@RequestParam List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("Au moins un ID de produit est requis");
+        }
+        if (requested.size() > ProductListingService.MAX_LIMIT) {
+            throw new IllegalArgumentException("Au plus " + ProductListingService.MAX_LIMIT + " produits par requête");
+        }
+
+        List<Product> products = catalogReadModel.findProducts(requested);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (products.size() < requested.size()) {
+            Set<Long> found = products.stream().map(Product::getId).collect(Collectors.toSet());
+            response.header(MISSING_IDS_HEADER, requested.stream()
+                    .filter(id -> !found.contains(id))
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+        }
+        return response.body(products);
+    }
+
+    /**
+     * Recherche plein texte sur le nom et la marque (insensible aux accents, par préfixe).
+     *
+     * @param query texte recherché.
+     * @param limit nombre maximal de résultats (50 par défaut).
+     * @return produits classés par pertinence.
+     */
+    @GetMapping("/search")
+    public List<Product> searchProducts(@RequestParam("q") String query,
+                                        @RequestParam(required = false) Integer limit) {
+        int size = limit == null ? ProductSearchIndex.DEFAULT_LIMIT : Math.min(limit, ProductListingService.MAX_LIMIT);
+        return productSearchIndex.search(query, size);
+    }
+
+    /**
+     * Autocomplétion de la barre de recherche : noms de produits, marques et catégories commençant
+     * par le texte saisi (début de n'importe quel mot), les plus fréquents d'abord.
+     *
+     * @param query début de saisie.
+     * @param limit nombre maximal de complétions (10 par défaut et au maximum).
+     * @return les complétions, vide si rien ne correspond.
+     */
+    @GetMapping("/suggest")
+    public List<Suggestion> suggest(@RequestParam(name = "q", defaultValue = "") String query,
+                                    @RequestParam(required = false) Integer limit) {
+        int size = limit == null ? ProductSuggestIndex.DEFAULT_LIMIT : Math.min(limit, ProductSuggestIndex.MAX_LIMIT);
+        return productSuggestIndex.suggest(query, size);
+    }
+
+    /**
+     * Nombre de produits par catégorie, marque et tranche de prix pour les filtres donnés.
+     * Les comptes d'une facette ignorent son propre filtre : ils montrent ce que donnerait chaque autre choix.
+     *
+     * @param query      recherche plein texte, optionnelle.
+     * @param categoryId catégorie, optionnelle.
+     * @param brand      marque, optionnelle.
+     * @param price      tranche de prix (ex : "50-100"), optionnelle.
+     * @param minPrice   prix minimum inclus, optionnel.
+     * @param maxPrice   prix maximum inclus, optionnel.
+     * @return le total et les comptes de chaque facette.
+     */
+    @GetMapping("/facets")
+    public FacetCounts getFacets(@RequestParam(name = "q", required = false) String query,
+                                 @RequestParam(required = false) Long categoryId,
+                                 @RequestParam(required = false) String brand,
+                                 @RequestParam(required = false) String price,
+                                 @RequestParam(required = false) Double minPrice,
+                                 @RequestParam(required = false) Double maxPrice) {
+        return productFacetIndex.query(query, categoryId, brand, PriceBucket.from(price), minPrice, maxPrice, null)
+                .facets();
+    }
+
+    /**
+     * Produits d'une fourchette de prix, triés par prix ("moins de 20 €", "les moins chers d'abord").
+     * Le nombre total de produits de la fourchette est renvoyé dans l'en-tête {@value #TOTAL_COUNT_HEADER}.
+     *
+     * @param categoryId catégorie, optionnelle.
+     * @param minPrice   prix minimum inclus, optionnel.
+     * @param maxPrice   prix maximum inclus, optionnel.
+     * @param order      asc (défaut) ou desc.
+     * @param limit      nombre maximal de produits (50 par défaut, 200 maximum).
+     * @return les produits, ou 400 si la fourchette ou le tri sont invalides.
+     */
+    @GetMapping("/by-price")
+    public ResponseEntity<List<Product>> getProductsByPrice(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) Integer limit) {
+        PriceOrder priceOrder = PriceOrder.from(order);
+        List<Product> products = productPriceIndex.find(categoryId, minPrice, maxPrice,
+                priceOrder == null ? PriceOrder.ASC : priceOrder, ProductListingService.normalizeLimit(limit));
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(productPriceIndex.count(categoryId, minPrice, maxPrice)))
+                .body(products);
     }
 
     /**
@@ -48,7 +206,7 @@ public class ProductRestController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return productRepository.findById(id)
+        return catalogReadModel.findProduct(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -73,7 +231,9 @@ public class ProductRestController {
             return ResponseEntity.badRequest().body(List.of("La catégorie est obligatoire"));
         }
         
-        return ResponseEntity.ok(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        catalogReadModel.productSaved(saved);
+        return ResponseEntity.ok(saved);
     }
 
     /**
@@ -100,7 +260,9 @@ public class ProductRestController {
                     product.setPrice(updatedProduct.getPrice());
                     product.setImageUrl(updatedProduct.getImageUrl());
                     product.setCategory(updatedProduct.getCategory());
-                    return ResponseEntity.ok(productRepository.save(product));
+                    Product saved = productRepository.save(product);
+                    catalogReadModel.productSaved(saved);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -117,6 +279,7 @@ public class ProductRestController {
             return ResponseEntity.notFound().build();
         }
         productRepository.deleteById(id);
+        catalogReadModel.productDeleted(id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,70 @@
+package projetitecommerce.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import projetitecommerce.repo.ProductRepository;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Mode d'exécution des requêtes.
+ *
+ * Les threads virtuels ({@code spring.threads.virtual.enabled=true}, JRE 21 ou plus) sont pris en
+ * charge par Spring Boot : Tomcat exécute alors chaque requête (chaîne de filtres Spring Security et
+ * contrôleurs MVC) sur un thread virtuel. Cette configuration ajoute la porte d'accès à la base
+ * ({@link DatabaseConcurrencyGate}), activée par défaut avec les threads virtuels, le regroupement
+ * des lectures identiques simultanées du catalogue ({@link QueryCoalescer}) et le pool borné des
+ * lectures parallèles des pages ({@link ParallelFetcher}).
+ */
+@Configuration
+public class ConcurrencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "db.gate.enabled", havingValue = "true")
+    static BeanPostProcessor databaseConcurrencyGatePostProcessor(Environment environment,
+                                                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                DatabaseConcurrencyGate gate = new DatabaseConcurrencyGate(
+                        environment.getRequiredProperty("db.gate.permits", Integer.class),
+                        environment.getRequiredProperty("db.gate.max-waiters", Integer.class),
+                        environment.getRequiredProperty("db.gate.acquire-timeout", Duration.class),
+                        meterRegistry.getObject());
+                return gate.wrap(dataSource);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "repository.coalescing.enabled", havingValue = "true")
+    static BeanPostProcessor queryCoalescerPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof ProductRepository productRepository) || !"productRepository".equals(beanName)) {
+                    return bean;
+                }
+                return new QueryCoalescer(meterRegistry.getObject()).wrap(productRepository, ProductRepository.class);
+            }
+        };
+    }
+
+    @Bean
+    ParallelFetcher parallelFetcher(@Value("${page.fetch.threads}") int threads,
+                                    @Value("${page.fetch.queue-capacity}") int queueCapacity,
+                                    @Value("${page.fetch.timeout}") Duration timeout,
+                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ParallelFetcher(threads, queueCapacity, timeout, meterRegistry.getObject());
+    }
+}
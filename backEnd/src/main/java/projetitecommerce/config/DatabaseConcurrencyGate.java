@@ -0,0 +1,156 @@
+package projetitecommerce.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Porte d'accès à la base : au plus {@code permits} connexions empruntées en même temps, une file
+ * d'attente FIFO bornée à {@code maxWaiters} et une attente limitée à {@code acquireTimeout}.
+ *
+ * Avec des threads virtuels, le nombre de requêtes simultanées n'est plus borné par le pool Tomcat :
+ * sans cette porte, des milliers de threads attendraient une des 5 connexions Hikari pendant
+ * {@code connection-timeout} (30 s). Ici l'excédent est refusé tout de suite, ou au bout de
+ * {@code acquireTimeout}, avec une {@link SQLTransientConnectionException} (réponse 503).
+ */
+@Slf4j
+public class DatabaseConcurrencyGate {
+
+    private final Semaphore permits;
+    private final int maxWaiters;
+    private final long acquireTimeoutNanos;
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public DatabaseConcurrencyGate(int maxPermits, int maxWaiters, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        if (maxPermits <= 0) {
+            throw new IllegalArgumentException("db.gate.permits doit être positif");
+        }
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxWaiters = maxWaiters;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+
+        this.waitTimer = Timer.builder("db.gate.wait")
+                .description("Attente d'un accès à la base")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("db.gate.rejected")
+                .description("Demandes de connexion refusées (file pleine ou attente trop longue)")
+                .register(meterRegistry);
+        Gauge.builder("db.gate.waiting", waiters, AtomicInteger::get)
+                .description("Threads en attente d'un accès à la base")
+                .register(meterRegistry);
+        Gauge.builder("db.gate.in.use", permits, p -> maxPermits - p.availablePermits())
+                .description("Connexions empruntées via la porte")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enveloppe une source de données : chaque connexion obtenue occupe une place jusqu'à sa fermeture.
+     */
+    public DataSource wrap(DataSource dataSource) {
+        return new GatedDataSource(dataSource);
+    }
+
+    void enter() throws SQLException {
+        if (permits.tryAcquire()) {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+        if (waiters.incrementAndGet() > maxWaiters) {
+            waiters.decrementAndGet();
+            rejectedCounter.increment();
+            throw new SQLTransientConnectionException("Base de données saturée : " + maxWaiters + " requêtes déjà en attente");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejectedCounter.increment();
+                throw new SQLTransientConnectionException("Base de données saturée : aucune connexion libérée en "
+                        + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Attente d'une connexion interrompue", e);
+        } finally {
+            waiters.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void leave() {
+        permits.release();
+    }
+
+    /**
+     * Source de données filtrée par la porte. Reste une {@link DelegatingDataSource} pour que les
+     * métriques Hikari et {@code unwrap} retrouvent le pool sous-jacent.
+     */
+    private final class GatedDataSource extends DelegatingDataSource {
+
+        GatedDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            enter();
+            return gated(() -> obtainTargetDataSource().getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            enter();
+            return gated(() -> obtainTargetDataSource().getConnection(username, password));
+        }
+
+        private Connection gated(ConnectionSupplier supplier) throws SQLException {
+            Connection connection;
+            try {
+                connection = supplier.get();
+            } catch (SQLException | RuntimeException e) {
+                leave();
+                throw e;
+            }
+            // La place est rendue une seule fois, à la fermeture (retour au pool)
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && method.getParameterCount() == 0 && released.compareAndSet(false, true)) {
+                            try {
+                                connection.close();
+                            } finally {
+                                leave();
+                            }
+                            return null;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
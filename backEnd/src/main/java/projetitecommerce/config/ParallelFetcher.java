@@ -0,0 +1,145 @@
+package projetitecommerce.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Lectures indépendantes d'une page exécutées en parallèle sur un pool borné.
+ *
+ * Une page ouvre un {@link Scope}, y lance ses lectures ({@link Scope#fork}) puis les récupère
+ * ({@link Branch#join}) : la latence devient celle de la lecture la plus lente au lieu de leur somme.
+ * Les lectures d'un scope partagent la même échéance. Une lecture en retard ou en échec rend sa
+ * valeur de repli ; sans repli, la page échoue ({@link QueryTimeoutException}, 503, ou l'exception
+ * de la lecture). Pool saturé : la lecture s'exécute sur le thread de la requête (séquentiel, sans rejet).
+ */
+@Slf4j
+public class ParallelFetcher implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+
+    public ParallelFetcher(int threads, int queueCapacity, Duration timeout, MeterRegistry meterRegistry) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("page.fetch.threads doit être positif");
+        }
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("page-fetch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "page.fetch", Tags.empty())
+                .bindTo(meterRegistry);
+    }
+
+    /** Ouvre un scope dont l'échéance court à partir de maintenant. */
+    public Scope open() {
+        return new Scope(System.nanoTime() + timeout.toNanos());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /** Lectures d'une même page, soumises à une échéance commune. */
+    public final class Scope {
+
+        private final long deadline;
+
+        private Scope(long deadline) {
+            this.deadline = deadline;
+        }
+
+        /** Lecture sans repli : son échec fait échouer la page. */
+        public <T> Branch<T> fork(String name, Supplier<T> task) {
+            return fork(name, task, null);
+        }
+
+        /** Lecture avec valeur de repli en cas d'échec ou de dépassement de l'échéance. */
+        public <T> Branch<T> fork(String name, Supplier<T> task, Supplier<T> fallback) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return new Branch<>(name, executor.submit(task::get), fallback, deadline, sample);
+        }
+    }
+
+    /** Lecture lancée dans un scope. */
+    public final class Branch<T> {
+
+        private final String name;
+        private final Future<T> future;
+        private final Supplier<T> fallback;
+        private final long deadline;
+        private final Timer.Sample sample;
+
+        private Branch(String name, Future<T> future, Supplier<T> fallback, long deadline, Timer.Sample sample) {
+            this.name = name;
+            this.future = future;
+            this.fallback = fallback;
+            this.deadline = deadline;
+            this.sample = sample;
+        }
+
+        /** Attend le résultat jusqu'à l'échéance du scope. */
+        public T join() {
+            try {
+                T value = future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                record("success");
+                return value;
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                return recover("timeout", new QueryTimeoutException(
+                        "Lecture '" + name + "' non terminée en " + timeout.toMillis() + " ms", e));
+            } catch (ExecutionException e) {
+                return recover("error", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                return recover("error", e);
+            }
+        }
+
+        private T recover(String outcome, Throwable cause) {
+            if (fallback != null) {
+                record("fallback");
+                log.warn("⚠️ Lecture '{}' ({}) : valeur de repli utilisée - {}", name, outcome, cause.toString());
+                return fallback.get();
+            }
+            record(outcome);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Lecture '" + name + "' interrompue", cause);
+        }
+
+        private void record(String outcome) {
+            sample.stop(Timer.builder("page.fetch")
+                    .description("Lectures parallèles des pages, du lancement au résultat")
+                    .tag("branch", name)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package projetitecommerce.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Entity;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Regroupement des lectures identiques simultanées d'un repository ("single flight").
+ *
+ * Quand une page à la mode est demandée par des centaines de clients en même temps, ils exécutent
+ * tous la même requête au même moment et se disputent les 5 connexions Hikari. Ici, le premier appel
+ * d'une méthode avec des arguments donnés l'exécute ; les appels identiques qui arrivent pendant son
+ * exécution l'attendent et reçoivent le même résultat (ou la même exception). Rien n'est gardé après :
+ * l'appel suivant relance la requête, sauf si elle passe par le cache de requêtes Hibernate.
+ *
+ * Seules les méthodes de lecture ({@code find...}) déclarées par le repository et renvoyant des lignes
+ * à plat (pas d'entité) sont regroupées : une entité partagée entre plusieurs requêtes HTTP pourrait être
+ * modifiée par l'une pendant que l'autre la lit. Les listes partagées sont rendues non modifiables. Un
+ * appel fait dans une transaction en cours n'est jamais regroupé : il doit voir ses propres écritures.
+ */
+@Slf4j
+public class QueryCoalescer {
+
+    /** Méthode regroupée et ses arguments normalisés. */
+    private record Key(Method method, List<Object> args) {}
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public QueryCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("repository.coalesce.in.flight", inFlight, Map::size)
+                .description("Lectures en cours partageables par des appels identiques")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enveloppe un repository : ses méthodes de lecture à plat de {@code repositoryInterface} sont regroupées,
+     * les autres appels passent tels quels.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R wrap(R repository, Class<R> repositoryInterface) {
+        Map<Method, Counter> coalesced = new HashMap<>();
+        for (Method method : repositoryInterface.getDeclaredMethods()) {
+            if (method.getName().startsWith("find") && !returnsEntities(method)) {
+                coalesced.put(method, Counter.builder("repository.coalesced")
+                        .description("Appels servis par l'exécution en cours d'un appel identique")
+                        .tag("repository", repositoryInterface.getSimpleName())
+                        .tag("method", method.getName())
+                        .register(meterRegistry));
+            }
+        }
+        log.info("🔀 Lectures regroupées sur {} : {}", repositoryInterface.getSimpleName(),
+                new TreeSet<>(coalesced.keySet().stream().map(Method::getName).toList()));
+
+        ProxyFactory factory = new ProxyFactory(repositoryInterface, (MethodInterceptor) invocation -> {
+            Counter counter = coalesced.get(invocation.getMethod());
+            if (counter == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+                return invocation.proceed();
+            }
+            return invoke(invocation, counter);
+        });
+        factory.setTarget(repository);
+        return (R) factory.getProxy(repositoryInterface.getClassLoader());
+    }
+
+    private Object invoke(MethodInvocation invocation, Counter counter) throws Throwable {
+        Key key = new Key(invocation.getMethod(), normalize(invocation.getArguments()));
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            counter.increment();
+            return await(running);
+        }
+        try {
+            Object result = shareable(invocation.proceed());
+            inFlight.remove(key, mine);
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> running) throws Throwable {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Arguments comparables par valeur. L'ordre d'une collection (liste d'IDs d'une clause IN) ne change
+     * pas le résultat : elle devient un ensemble trié quand ses éléments sont comparables.
+     */
+    private static List<Object> normalize(Object[] args) {
+        List<Object> normalized = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            if (arg instanceof Limit limit) {
+                normalized.add(limit.isLimited() ? limit.max() : -1);
+            } else if (arg instanceof Collection<?> values && values.stream().allMatch(Comparable.class::isInstance)) {
+                normalized.add(new TreeSet<>(values));
+            } else if (arg instanceof Collection<?> values) {
+                normalized.add(new ArrayList<>(values));
+            } else {
+                normalized.add(arg);
+            }
+        }
+        return normalized;
+    }
+
+    private static Object shareable(Object result) {
+        return result instanceof List<?> list ? Collections.unmodifiableList(list) : result;
+    }
+
+    /** Résultat (ou éléments d'une liste, contenu d'un Optional) annoté {@link Entity}. */
+    private static boolean returnsEntities(Method method) {
+        ResolvableType type = ResolvableType.forMethodReturnType(method);
+        if (Collection.class.isAssignableFrom(type.toClass()) || Optional.class.equals(type.toClass())) {
+            type = type.getGeneric(0);
+        }
+        return type.toClass().isAnnotationPresent(Entity.class);
+    }
+}
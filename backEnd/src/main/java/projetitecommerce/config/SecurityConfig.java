@@ -1,5 +1,6 @@
 package projetitecommerce.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -47,6 +48,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Redispatch des réponses asynchrones (export en flux) : déjà autorisées à l'entrée
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Endpoints publics (sans authentification)
                         .requestMatchers(
                                 "/api/auth/register",
@@ -55,13 +58,18 @@ public class SecurityConfig {
                                 "/api/test/public",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
-                                "/swagger-ui.html"
+                                "/swagger-ui.html",
+                                // Santé et métriques : servies sur le port de gestion, non publié
+                                "/actuator/health",
+                                "/actuator/prometheus"
                         ).permitAll()
                         // Endpoints authentifiés
                         .requestMatchers("/api/auth/me").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/api/auth/me").authenticated()
                         // Lecture publique des produits et catégories (GET)
                         .requestMatchers(HttpMethod.GET, "/api/products/**", "/api/categories/**").permitAll()
+                        // Consultation publique du stock ; les réservations restent authentifiées
+                        .requestMatchers(HttpMethod.GET, "/api/inventory/*").permitAll()
                         // Modification des produits et catégories (POST, PUT, DELETE) - Admin uniquement
                         .requestMatchers(HttpMethod.POST, "/api/products/**", "/api/categories/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/products/**", "/api/categories/**").hasRole("ADMIN")
@@ -90,6 +98,7 @@ public class SecurityConfig {
 
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("X-Next-Cursor", "X-Total-Count", "X-Missing-Ids", "ETag", "Last-Modified"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
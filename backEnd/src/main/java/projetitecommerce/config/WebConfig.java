@@ -0,0 +1,34 @@
+package projetitecommerce.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import projetitecommerce.web.CatalogRenditionInterceptor;
+import projetitecommerce.web.CatalogVersionInterceptor;
+import projetitecommerce.web.ControllerMetricsInterceptor;
+
+/**
+ * Configuration Spring MVC : mesure des contrôleurs et intercepteurs appliqués aux lectures du catalogue.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ControllerMetricsInterceptor controllerMetricsInterceptor;
+    private final CatalogVersionInterceptor catalogVersionInterceptor;
+    private final CatalogRenditionInterceptor catalogRenditionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // En premier : les réponses 304 des intercepteurs suivants sont aussi mesurées
+        registry.addInterceptor(controllerMetricsInterceptor);
+        registry.addInterceptor(catalogVersionInterceptor)
+                .addPathPatterns("/api/products", "/api/products/**",
+                        "/api/categories", "/api/categories/**",
+                        "/catalog");
+        // Après les 304 : corps pré-rendus des lectures les plus fréquentes
+        registry.addInterceptor(catalogRenditionInterceptor)
+                .addPathPatterns("/api/products", "/api/categories", "/catalog");
+    }
+}
@@ -0,0 +1,17 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne de panier reçue du frontend : produit et quantité (ajoutée ou nouvelle selon l'appel).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartItemRequest {
+
+    private Long productId;
+    private Integer quantity;
+}
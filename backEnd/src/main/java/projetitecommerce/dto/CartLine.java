@@ -0,0 +1,23 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne du panier avec les informations du produit au prix actuel du catalogue.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartLine {
+
+    private Long productId;
+    private String name;
+    private String brandName;
+    private double price;
+    private String imageUrl;
+    private int quantity;
+    /** Prix × quantité, arrondi au centime. */
+    private double lineTotal;
+}
@@ -0,0 +1,21 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Panier de l'utilisateur connecté : lignes dans l'ordre d'ajout, nombre d'articles et total.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartView {
+
+    private List<CartLine> items;
+    private int totalQuantity;
+    /** Somme des lignes, arrondie au centime. */
+    private double total;
+}
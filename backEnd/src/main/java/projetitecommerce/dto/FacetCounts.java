@@ -0,0 +1,38 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Nombre de résultats par valeur de facette pour une requête du catalogue.
+ *
+ * Les comptes d'une facette ignorent le filtre de cette même facette (mais appliquent tous les autres) :
+ * ils indiquent combien de produits donnerait chaque choix alternatif.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FacetCounts {
+
+    /** Nombre de produits correspondant à tous les filtres. */
+    private long total;
+    private List<FacetValue> categories;
+    private List<FacetValue> brands;
+    private List<FacetValue> prices;
+
+    /** Valeur d'une facette : valeur du paramètre de requête, libellé, nombre de produits. */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class FacetValue {
+        private String value;
+        private String label;
+        private long count;
+        private boolean selected;
+    }
+}
@@ -0,0 +1,35 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rapport d'un import de produits en masse.
+ * Seules les {@code MAX_ERRORS} premières erreurs sont détaillées ; {@code errorsTruncated} l'indique.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportReport {
+
+    private long received;
+    private long imported;
+    private long rejected;
+    private long durationMs;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    /** Erreur rattachée à une ligne du fichier importé (numérotation à partir de 1). */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
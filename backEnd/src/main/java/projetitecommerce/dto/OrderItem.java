@@ -0,0 +1,22 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne de commande : produit et prix au moment de la commande.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderItem {
+
+    private Long productId;
+    private String name;
+    private String brandName;
+    private double unitPrice;
+    private int quantity;
+    /** Prix unitaire × quantité, arrondi au centime. */
+    private double lineTotal;
+}
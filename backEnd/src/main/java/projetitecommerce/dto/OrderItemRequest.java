@@ -0,0 +1,19 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne de commande reçue du frontend.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderItemRequest {
+
+    private Long productId;
+    private Integer quantity;
+    /** Prix unitaire affiché au client ; la commande est refusée s'il ne correspond plus au catalogue. */
+    private Double price;
+}
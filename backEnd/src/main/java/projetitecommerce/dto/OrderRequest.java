@@ -0,0 +1,18 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Commande reçue du frontend : produits et quantités.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderRequest {
+
+    private List<OrderItemRequest> items;
+}
@@ -0,0 +1,28 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Commande et son état : PENDING (stock réservé, en cours d'écriture), CONFIRMED (écrite)
+ * ou FAILED (écriture impossible, stock rendu).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderView {
+
+    private String id;
+    private String status;
+    private List<OrderItem> items;
+    private int totalQuantity;
+    /** Somme des lignes, arrondie au centime. */
+    private double total;
+    private LocalDateTime createdAt;
+    /** Cause de l'échec (état FAILED). */
+    private String message;
+}
@@ -0,0 +1,66 @@
+package projetitecommerce.dto;
+
+/**
+ * Tranches de prix proposées comme facette du catalogue (borne basse incluse, borne haute exclue).
+ */
+public enum PriceBucket {
+    UNDER_25("0-25", "Moins de 25 €", 0, 25),
+    FROM_25_TO_50("25-50", "25 à 50 €", 25, 50),
+    FROM_50_TO_100("50-100", "50 à 100 €", 50, 100),
+    FROM_100_TO_250("100-250", "100 à 250 €", 100, 250),
+    FROM_250_TO_500("250-500", "250 à 500 €", 250, 500),
+    FROM_500_TO_1000("500-1000", "500 à 1000 €", 500, 1000),
+    OVER_1000("1000+", "1000 € et plus", 1000, Double.POSITIVE_INFINITY);
+
+    private final String key;
+    private final String label;
+    private final double lower;
+    private final double upper;
+
+    PriceBucket(String key, String label, double lower, double upper) {
+        this.key = key;
+        this.label = label;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /** Valeur du paramètre de requête (ex : "50-100"). */
+    public String key() {
+        return key;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Tranche contenant le prix.
+     */
+    public static PriceBucket of(double price) {
+        PriceBucket[] buckets = values();
+        for (int i = buckets.length - 1; i > 0; i--) {
+            if (price >= buckets[i].lower) {
+                return buckets[i];
+            }
+        }
+        return buckets[0];
+    }
+
+    /**
+     * Convertit la valeur reçue en paramètre de requête.
+     *
+     * @param value clé de la tranche (ex : "50-100"), ou vide.
+     * @return la tranche, ou {@code null} si aucune n'est demandée.
+     */
+    public static PriceBucket from(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        for (PriceBucket bucket : values()) {
+            if (bucket.key.equals(value.trim())) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Tranche de prix invalide : " + value);
+    }
+}
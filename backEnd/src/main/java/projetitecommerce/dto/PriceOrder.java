@@ -0,0 +1,41 @@
+package projetitecommerce.dto;
+
+import java.util.Locale;
+
+/**
+ * Tri par prix proposé par le catalogue ("moins cher d'abord" ou l'inverse), à prix égal par identifiant.
+ */
+public enum PriceOrder {
+    ASC("price_asc"),
+    DESC("price_desc");
+
+    private final String key;
+
+    PriceOrder(String key) {
+        this.key = key;
+    }
+
+    /** Valeur du paramètre {@code sort} de la page catalogue (ex : "price_asc"). */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Convertit la valeur reçue en paramètre de requête.
+     *
+     * @param value "asc", "desc", "price_asc" ou "price_desc", ou vide.
+     * @return le tri, ou {@code null} si aucun n'est demandé.
+     */
+    public static PriceOrder from(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (PriceOrder order : values()) {
+            if (order.key.equals(normalized) || order.name().toLowerCase(Locale.ROOT).equals(normalized)) {
+                return order;
+            }
+        }
+        throw new IllegalArgumentException("Tri par prix invalide : " + value + " (valeurs possibles : asc, desc)");
+    }
+}
@@ -0,0 +1,70 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import projetitecommerce.model.Product;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position dans un parcours paginé des produits (keyset pagination).
+ * Le curseur mémorise la clé de tri et l'identifiant du dernier produit renvoyé,
+ * et est transmis au client sous forme de jeton opaque encodé en Base64 URL.
+ */
+@Data
+@AllArgsConstructor
+public class ProductCursor {
+
+    private ProductSort sort;
+    private long lastId;
+    private String lastValue;
+
+    /**
+     * Construit le curseur pointant juste après le produit donné.
+     */
+    public static ProductCursor after(ProductSort sort, Product product) {
+        String value = switch (sort) {
+            case ID -> null;
+            case PRICE -> Double.toString(product.getPrice());
+            case NAME -> product.getName();
+        };
+        return new ProductCursor(sort, product.getId(), value);
+    }
+
+    /**
+     * Décode un jeton reçu dans le paramètre {@code after}.
+     *
+     * @throws IllegalArgumentException si le jeton est mal formé.
+     */
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            ProductSort sort = ProductSort.valueOf(parts[0]);
+            long lastId = Long.parseLong(parts[1]);
+            String value = parts.length > 2 ? parts[2] : null;
+            if (sort == ProductSort.PRICE) {
+                Double.parseDouble(value);
+            } else if (sort == ProductSort.NAME && value == null) {
+                throw new IllegalArgumentException("valeur manquante");
+            }
+            return new ProductCursor(sort, lastId, value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+    }
+
+    /**
+     * Encode le curseur en jeton opaque.
+     */
+    public String encode() {
+        String raw = sort.name() + "|" + lastId + (lastValue != null ? "|" + lastValue : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Valeur de prix du dernier produit (tri {@link ProductSort#PRICE}). */
+    public double lastPrice() {
+        return Double.parseDouble(lastValue);
+    }
+}
@@ -0,0 +1,22 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import projetitecommerce.model.Product;
+
+import java.util.List;
+
+/**
+ * Page de produits renvoyée par la pagination par curseur.
+ * {@code nextCursor} vaut {@code null} lorsque la dernière page est atteinte.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPage {
+    private List<Product> items;
+    private String nextCursor;
+}
@@ -0,0 +1,70 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Produit et nom de sa catégorie lus à plat par les requêtes de lecture ({@code SELECT new ...}).
+ *
+ * Une ligne n'est pas une entité : ni contexte de persistance, ni photographie pour le contrôle des
+ * modifications, ni chargement séparé de la catégorie. La jointure fait partie de la même requête.
+ */
+@Data
+@AllArgsConstructor
+public class ProductRow {
+
+    /** Expression JPQL de construction, alias {@code p} pour le produit et {@code c} pour sa catégorie. */
+    public static final String SELECT = "SELECT new projetitecommerce.dto.ProductRow("
+            + "p.id, p.name, p.brandName, p.price, p.imageUrl, c.id, c.name) ";
+
+    private Long id;
+    private String name;
+    private String brandName;
+    private double price;
+    private String imageUrl;
+    private Long categoryId;
+    private String categoryName;
+
+    /**
+     * Produits détachés correspondant aux lignes, même forme JSON que les entités.
+     * Les produits d'une même catégorie partagent la même instance de {@link Category}.
+     */
+    public static List<Product> toProducts(List<ProductRow> rows) {
+        Map<Long, Category> categories = new HashMap<>();
+        List<Product> products = new ArrayList<>(rows.size());
+        for (ProductRow row : rows) {
+            products.add(row.toProduct(categories));
+        }
+        return products;
+    }
+
+    /** Produit détaché correspondant à la ligne. */
+    public Product toProduct() {
+        return toProduct(new HashMap<>());
+    }
+
+    private Product toProduct(Map<Long, Category> categories) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setBrandName(brandName);
+        product.setPrice(price);
+        product.setImageUrl(imageUrl);
+        if (categoryId != null) {
+            product.setCategory(categories.computeIfAbsent(categoryId, id -> {
+                Category category = new Category();
+                category.setId(id);
+                category.setName(categoryName);
+                return category;
+            }));
+        }
+        return product;
+    }
+}
@@ -0,0 +1,30 @@
+package projetitecommerce.dto;
+
+import java.util.Locale;
+
+/**
+ * Critères de tri disponibles pour la pagination par curseur des produits.
+ * Chaque tri est complété par l'identifiant afin de garantir un ordre total.
+ */
+public enum ProductSort {
+    ID,
+    PRICE,
+    NAME;
+
+    /**
+     * Convertit la valeur reçue en paramètre de requête (ex : "price").
+     *
+     * @param value valeur du paramètre {@code sort}, {@code id} par défaut.
+     * @return le tri correspondant.
+     */
+    public static ProductSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tri invalide : " + value + " (valeurs possibles : id, price, name)");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Réservation de stock : à confirmer avant {@code expiresAt}, sinon le stock est rendu.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationView {
+
+    private String id;
+    private Long productId;
+    private int quantity;
+    /** PENDING, CONFIRMED, RELEASED, EXPIRED ou FAILED. */
+    private String status;
+    private Instant expiresAt;
+}
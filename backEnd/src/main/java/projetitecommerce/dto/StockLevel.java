@@ -0,0 +1,20 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock disponible d'un produit (réservations en cours déduites).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockLevel {
+
+    private Long productId;
+    /** Faux si le stock du produit n'est pas suivi : il est alors illimité. */
+    private boolean tracked;
+    /** Quantité disponible, {@code null} si le stock n'est pas suivi. */
+    private Integer available;
+}
@@ -0,0 +1,17 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Produit et quantité : quantité à réserver, ou nouveau stock pour l'administration.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockRequest {
+
+    private Long productId;
+    private Integer quantity;
+}
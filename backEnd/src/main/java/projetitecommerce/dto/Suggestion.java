@@ -0,0 +1,27 @@
+package projetitecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Complétion proposée pendant la saisie : nom de produit, marque ou catégorie.
+ *
+ * Le poids est le nombre de produits concernés (produits portant ce nom, de cette marque ou de
+ * cette catégorie) : les complétions les plus fréquentes sont proposées en premier.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class Suggestion {
+
+    public static final String PRODUCT = "product";
+    public static final String BRAND = "brand";
+    public static final String CATEGORY = "category";
+
+    /** Texte à afficher et à utiliser comme recherche. */
+    private String text;
+    /** {@value #PRODUCT}, {@value #BRAND} ou {@value #CATEGORY}. */
+    private String type;
+    private long weight;
+}
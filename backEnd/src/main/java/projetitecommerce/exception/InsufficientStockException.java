@@ -0,0 +1,11 @@
+package projetitecommerce.exception;
+
+/**
+ * Stock disponible insuffisant pour la quantité demandée (réponse 409).
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
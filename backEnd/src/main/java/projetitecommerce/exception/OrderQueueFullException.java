@@ -0,0 +1,12 @@
+package projetitecommerce.exception;
+
+/**
+ * Trop de commandes en attente d'écriture, ou écriture arrêtée : commande refusée avant toute
+ * réservation de stock (réponse 503, le client peut réessayer).
+ */
+public class OrderQueueFullException extends RuntimeException {
+
+    public OrderQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -2,14 +2,19 @@ package projetitecommerce.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
 /**
  * Entité représentant une catégorie de produits (ex : Smartphones, Laptops).
  * Une catégorie peut contenir plusieurs produits.
+ * Mise en cache de second niveau : les catégories ne changent presque jamais.
  */
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 public class Category {
 
     /** Identifiant unique de la catégorie. */
@@ -0,0 +1,50 @@
+package projetitecommerce.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Commande confirmée : stock réservé et prix fixés au moment de la commande.
+ * Écrite par lots par {@code OrderWriter} (JDBC) ; l'entité sert à la relecture.
+ */
+@Entity
+@Table(name = "orders")
+public class Order {
+
+    /** Identifiant attribué à la soumission (UUID). */
+    @Id
+    private String id;
+
+    /** Utilisateur qui a passé la commande. */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Somme des lignes, arrondie au centime. */
+    private double total;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Lignes, dans l'ordre de la commande. */
+    @OneToMany(mappedBy = "order")
+    @OrderBy("lineNo")
+    private List<OrderLine> lines = new ArrayList<>();
+
+    /** Constructeur vide requis par JPA. */
+    public Order() {}
+
+    // --- Getters ---
+
+    public String getId() { return id; }
+
+    public Long getUserId() { return userId; }
+
+    public double getTotal() { return total; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public List<OrderLine> getLines() { return lines; }
+}
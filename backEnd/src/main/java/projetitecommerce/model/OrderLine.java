@@ -0,0 +1,82 @@
+package projetitecommerce.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Ligne de commande : produit, avec son nom, sa marque et son prix au moment de la commande.
+ */
+@Entity
+@Table(name = "order_lines")
+@IdClass(OrderLine.Key.class)
+public class OrderLine {
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id")
+    private Order order;
+
+    /** Position de la ligne dans la commande, à partir de 0. */
+    @Id
+    @Column(name = "line_no")
+    private int lineNo;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @Column(name = "brand_name", nullable = false)
+    private String brandName;
+
+    @Column(name = "unit_price", nullable = false)
+    private double unitPrice;
+
+    private int quantity;
+
+    /** Constructeur vide requis par JPA. */
+    public OrderLine() {}
+
+    // --- Getters ---
+
+    public Order getOrder() { return order; }
+
+    public int getLineNo() { return lineNo; }
+
+    public Long getProductId() { return productId; }
+
+    public String getProductName() { return productName; }
+
+    public String getBrandName() { return brandName; }
+
+    public double getUnitPrice() { return unitPrice; }
+
+    public int getQuantity() { return quantity; }
+
+    /** Clé composée (commande, position). */
+    public static class Key implements Serializable {
+
+        private String order;
+        private int lineNo;
+
+        public Key() {}
+
+        public Key(String order, int lineNo) {
+            this.order = order;
+            this.lineNo = lineNo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && lineNo == key.lineNo && Objects.equals(order, key.order);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(order, lineNo);
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package projetitecommerce.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.*;
 
 /**
  * Entité représentant un produit dans le catalogue e-commerce.
  * Chaque produit est associé à une catégorie (ex : Smartphone, Laptop).
+ * Mis en cache de second niveau (région {@code product}, voir hibernate-cache.conf).
  */
 @Entity
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 public class Product {
 
     /** Identifiant unique du produit. */
@@ -1,7 +1,12 @@
 package projetitecommerce.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import projetitecommerce.model.Category;
+
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -10,6 +15,11 @@ import java.util.Optional;
  */
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    /** Toutes les catégories, via le cache de requêtes Hibernate. */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Category> findAll();
+
     /**
      * Recherche une catégorie par son nom.
      *
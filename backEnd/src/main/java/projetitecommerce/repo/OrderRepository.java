@@ -0,0 +1,24 @@
+package projetitecommerce.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import projetitecommerce.model.Order;
+
+import java.util.Optional;
+
+/**
+ * Relecture des commandes ; l'écriture passe par {@code OrderWriter} (lots JDBC).
+ */
+@Transactional(readOnly = true)
+public interface OrderRepository extends JpaRepository<Order, String> {
+
+    /**
+     * Commande d'un utilisateur avec ses lignes, en une requête.
+     *
+     * @return vide si la commande n'existe pas ou appartient à un autre utilisateur.
+     */
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.lines WHERE o.id = :id AND o.userId = :userId")
+    Optional<Order> findByIdAndUserIdWithLines(@Param("id") String id, @Param("userId") Long userId);
+}
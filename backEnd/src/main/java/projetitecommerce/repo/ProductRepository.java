@@ -1,34 +1,84 @@
 package projetitecommerce.repo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import projetitecommerce.dto.ProductRow;
 import projetitecommerce.model.Product;
 
 import java.util.List;
+import java.util.Collection;
 import java.util.Optional;
 
 /**
  * Repository pour la gestion des produits.
  * Fournit des méthodes CRUD et des requêtes personnalisées.
+ *
+ * Les requêtes de lecture renvoient des {@link ProductRow} construites en SQL (produit et catégorie
+ * en une seule requête, jointure comprise) : pas d'entité gérée, donc ni photographie pour le contrôle
+ * des modifications ni chargement séparé de la catégorie. Transactions en lecture seule par défaut ;
+ * les méthodes d'écriture héritées de {@link JpaRepository} gardent leur propre transaction.
+ *
+ * Les requêtes marquées cacheable passent par le cache de requêtes Hibernate, invalidé
+ * automatiquement à chaque écriture JPA sur les tables concernées.
  */
+@Transactional(readOnly = true)
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     /** Récupère tous les produits avec leur catégorie. */
-    @Query("SELECT p FROM Product p JOIN FETCH p.category")
-    List<Product> findAllWithCategory();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(ProductRow.SELECT + "FROM Product p JOIN p.category c")
+    List<ProductRow> findAllWithCategory();
 
     /** Récupère un produit par ID avec sa catégorie. */
-    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.id = :id")
-    Optional<Product> findByIdWithCategory(@Param("id") Long id);
+    @Query(ProductRow.SELECT + "FROM Product p JOIN p.category c WHERE p.id = :id")
+    Optional<ProductRow> findByIdWithCategory(@Param("id") Long id);
+
+    /** Récupère plusieurs produits par ID avec leur catégorie, en une seule requête (IN). */
+    @Query(ProductRow.SELECT + "FROM Product p JOIN p.category c WHERE p.id IN :ids")
+    List<ProductRow> findAllByIdWithCategory(@Param("ids") Collection<Long> ids);
 
     /** Récupère les produits d’une catégorie spécifique. */
-    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.category.id = :categoryId")
-    List<Product> findByCategoryId(@Param("categoryId") Long categoryId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(ProductRow.SELECT + "FROM Product p JOIN p.category c WHERE c.id = :categoryId")
+    List<ProductRow> findByCategoryId(@Param("categoryId") Long categoryId);
 
     /** Recherche de produits par nom ou marque. */
     @Query("SELECT p FROM Product p JOIN FETCH p.category " +
             "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "OR LOWER(p.brandName) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Product> findByNameContainingIgnoreCaseOrBrandNameContainingIgnoreCase(@Param("keyword") String keyword);
-}
\ No newline at end of file
+
+    // --- Pagination par curseur (keyset) : aucune requête OFFSET, coût constant par page ---
+    // La borne "valeur >= curseur" en tête du WHERE donne un range scan sur idx_products_price / idx_products_name ;
+    // la forme "valeur > x OR (valeur = x AND id > y)" seule fait parcourir l'index depuis le début (voir QueryPlanTest).
+
+    /** Page suivante triée par identifiant, après l'ID donné (0 pour la première page). */
+    @Query(ProductRow.SELECT + "FROM Product p LEFT JOIN p.category c WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductRow> findPageOrderById(@Param("afterId") long afterId, Limit limit);
+
+    /** Première page triée par prix croissant. */
+    @Query(ProductRow.SELECT + "FROM Product p LEFT JOIN p.category c ORDER BY p.price, p.id")
+    List<ProductRow> findFirstPageOrderByPrice(Limit limit);
+
+    /** Page suivante triée par prix croissant, après le couple (prix, ID) donné. */
+    @Query(ProductRow.SELECT + "FROM Product p LEFT JOIN p.category c " +
+            "WHERE p.price >= :price AND (p.price > :price OR p.id > :afterId) " +
+            "ORDER BY p.price, p.id")
+    List<ProductRow> findPageOrderByPrice(@Param("price") double price, @Param("afterId") long afterId, Limit limit);
+
+    /** Première page triée par nom. */
+    @Query(ProductRow.SELECT + "FROM Product p LEFT JOIN p.category c ORDER BY p.name, p.id")
+    List<ProductRow> findFirstPageOrderByName(Limit limit);
+
+    /** Page suivante triée par nom, après le couple (nom, ID) donné. */
+    @Query(ProductRow.SELECT + "FROM Product p LEFT JOIN p.category c " +
+            "WHERE p.name >= :name AND (p.name > :name OR p.id > :afterId) " +
+            "ORDER BY p.name, p.id")
+    List<ProductRow> findPageOrderByName(@Param("name") String name, @Param("afterId") long afterId, Limit limit);
+}
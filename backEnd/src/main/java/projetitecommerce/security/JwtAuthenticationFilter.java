@@ -1,5 +1,6 @@
 package projetitecommerce.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -24,6 +26,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     protected void doFilterInternal(
@@ -45,14 +48,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        // Une seule vérification (signature + expiration) par requête, servie depuis le cache si possible
+        Optional<Claims> claims = jwtService.verify(jwt);
+        if (claims.isEmpty()) {
+            log.warn("❌ Token is invalid");
+            filterChain.doFilter(request, response);
+            return;
+        }
+        username = claims.get().getSubject();
         log.debug("✅ Token extracted - Username: {}", username);
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // Utilisateur servi depuis le cache local : pas de requête en base dans le cas courant
+            UserDetails userDetails = userPrincipalCache.get(username, userDetailsService::loadUserByUsername);
             log.debug("👤 User loaded - Username: {}, Authorities: {}", userDetails.getUsername(), userDetails.getAuthorities());
             
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims.get(), userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -1,21 +1,38 @@
 package projetitecommerce.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
+@Slf4j
 public class JwtService {
 
     @Value("${jwt.secret}")
@@ -24,6 +41,76 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    /** Nombre maximal de tokens vérifiés gardés en cache (0 désactive le cache). */
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    /** Registre des métriques (registre global Micrometer hors contexte Spring, par exemple en benchmark). */
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    /** Clé et parser construits une seule fois au démarrage. */
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /** Durée de {@link #verify(String)} selon l'issue : servi par le cache, vérifié, refusé. */
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
+
+    /** Cache des tokens déjà vérifiés, indexé par empreinte SHA-256 du token. */
+    private final Map<ByteBuffer, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    private record VerifiedToken(Claims claims, long expiresAt) {}
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+        cachedTimer = verifyTimer(registry, "cached");
+        verifiedTimer = verifyTimer(registry, "verified");
+        rejectedTimer = verifyTimer(registry, "rejected");
+    }
+
+    /**
+     * Vérifie la signature et l'expiration du token, en une seule analyse.
+     * Les tokens déjà vérifiés sont servis depuis le cache jusqu'à leur expiration.
+     *
+     * @param token token JWT compact.
+     * @return les claims du token, ou vide si le token est invalide ou expiré.
+     */
+    public Optional<Claims> verify(String token) {
+        long start = System.nanoTime();
+        ByteBuffer key = cacheMaxSize > 0 ? fingerprint(token) : null;
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = key != null ? verifiedTokens.get(key) : null;
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return recorded(cachedTimer, start, Optional.of(cached.claims()));
+            }
+            verifiedTokens.remove(key);
+            return recorded(rejectedTimer, start, Optional.empty());
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token JWT refusé : {}", e.getMessage());
+            return recorded(rejectedTimer, start, Optional.empty());
+        }
+        if (cacheMaxSize > 0) {
+            long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+            if (verifiedTokens.size() >= cacheMaxSize) {
+                evict(now);
+            }
+            verifiedTokens.put(key, new VerifiedToken(claims, expiresAt));
+        }
+        return recorded(verifiedTimer, start, Optional.of(claims));
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -52,34 +139,63 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return verify(token)
+                .map(claims -> isTokenValid(claims, userDetails))
+                .orElse(false);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Valide des claims déjà vérifiés par {@link #verify(String)}, sans nouvelle analyse du token.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verify(token).orElseThrow(() -> new JwtException("Token JWT invalide ou expiré"));
+    }
+
+    /**
+     * Libère de la place dans le cache : d'abord les tokens expirés, puis des entrées arbitraires
+     * si le cache reste plein (le cache n'est qu'une optimisation).
+     */
+    private void evict(long now) {
+        verifiedTokens.values().removeIf(entry -> entry.expiresAt() <= now);
+        Iterator<ByteBuffer> keys = verifiedTokens.keySet().iterator();
+        int excess = verifiedTokens.size() - cacheMaxSize / 2;
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static Optional<Claims> recorded(Timer timer, long start, Optional<Claims> result) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String result) {
+        return Timer.builder("security.jwt.verify")
+                .description("Vérification des tokens JWT")
+                .tag("result", result)
+                .register(registry);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static ByteBuffer fingerprint(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
     }
 }
@@ -0,0 +1,114 @@
+package projetitecommerce.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import projetitecommerce.model.User;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache local à durée de vie courte des utilisateurs authentifiés par JWT.
+ *
+ * Évite une requête {@code UserRepository.findByUsername} à chaque requête authentifiée : le
+ * {@link JwtAuthenticationFilter} ne charge l'utilisateur qu'une fois par période {@code ttl}.
+ * {@code UserService} évince explicitement l'entrée lors d'une modification ou d'une suppression,
+ * de sorte qu'un rôle ou un statut modifié est pris en compte immédiatement.
+ *
+ * Chaque éviction incrémente une génération : un chargement commencé avant une éviction n'est pas
+ * mis en cache, l'utilisateur qu'il a lu pouvant être antérieur à la modification.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    /** Nombre d'évictions, incrémenté avant chaque retrait du cache. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private record CachedPrincipal(UserDetails user, long expiresAt) {}
+
+    public UserPrincipalCache(@Value("${security.principal-cache.ttl:60s}") Duration ttl,
+                              @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Renvoie l'utilisateur en cache, ou le charge via {@code loader} s'il est absent ou expiré.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        if (ttlMillis <= 0) {
+            return loader.apply(username);
+        }
+        long now = System.currentTimeMillis();
+        long loadedGeneration = generation.get();
+        CachedPrincipal cached = principals.get(username);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.user();
+        }
+        UserDetails loaded = loader.apply(username);
+        if (principals.size() >= maxSize) {
+            evictExpired(now);
+        }
+        CachedPrincipal entry = new CachedPrincipal(loaded, now + ttlMillis);
+        // Vérifié sous le verrou de l'entrée : une éviction qui l'a précédée est vue ici, une éviction qui
+        // la suit retire l'entrée écrite
+        principals.compute(username, (key, current) -> generation.get() == loadedGeneration ? entry : current);
+        return loaded;
+    }
+
+    /**
+     * Évince un utilisateur par son nom, après le commit de la transaction en cours s'il y en a une.
+     */
+    public void evict(String username) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            principals.remove(username);
+        });
+    }
+
+    /**
+     * Évince un utilisateur par son identifiant, après le commit de la transaction en cours s'il y en a une.
+     */
+    public void evict(Long userId) {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            principals.values().removeIf(entry -> entry.user() instanceof User user && userId.equals(user.getId()));
+        });
+    }
+
+    private void evictExpired(long now) {
+        principals.values().removeIf(entry -> entry.expiresAt() <= now);
+        Iterator<String> keys = principals.keySet().iterator();
+        int excess = principals.size() - maxSize / 2;
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * L'éviction est faite immédiatement et répétée après le commit, pour qu'une requête concurrente
+     * ne remette pas en cache l'ancienne version pendant la transaction.
+     */
+    private void afterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package projetitecommerce.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Journal des modifications de paniers pas encore écrites en base, utilisé par {@link CartStore}.
+ *
+ * Chaque modification est un enregistrement binaire de taille fixe (utilisateur, produit, quantité)
+ * ajouté au segment courant. La quantité est absolue : rejouer un enregistrement déjà écrit en base
+ * ne change rien. Le segment courant est scellé avant chaque écriture en base et supprimé une fois
+ * celle-ci validée ; les segments présents au démarrage contiennent donc les modifications perdues
+ * lors d'un arrêt brutal.
+ *
+ * Les segments sont projetés en mémoire : un ajout est une simple copie, sans appel système. Les pages
+ * appartiennent au cache disque du système, le journal survit donc à l'arrêt brutal du processus
+ * (pas à une coupure de la machine, faute de fsync).
+ */
+final class CartJournal implements Closeable {
+
+    /** Produit des enregistrements "panier vidé". */
+    static final long CLEAR = 0L;
+
+    private static final int RECORD_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final String PREFIX = "cart-";
+    private static final String SUFFIX = ".journal";
+
+    /** Modification relue depuis un segment. */
+    record Entry(long userId, long productId, int quantity) {}
+
+    private final Path directory;
+    private final int segmentRecords;
+    private MappedByteBuffer current;
+    private Path currentPath;
+    private long sequence;
+
+    /**
+     * @param segmentBytes taille d'un segment ; un segment plein est scellé et le suivant ouvert.
+     */
+    CartJournal(Path directory, int segmentBytes) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentRecords = Math.max(1, segmentBytes / RECORD_BYTES);
+        try (Stream<Path> files = Files.list(directory)) {
+            this.sequence = files.mapToLong(CartJournal::sequenceOf).max().orElse(0);
+        }
+        open();
+    }
+
+    /**
+     * Ajoute une modification au segment courant.
+     *
+     * @throws IOException segment plein et suivant impossible à créer ; la modification reste en mémoire
+     *                     et sera écrite en base.
+     */
+    synchronized void append(long userId, long productId, int quantity) throws IOException {
+        if (!current.hasRemaining()) {
+            open();
+        }
+        // Utilisateur écrit en dernier : un enregistrement interrompu se lit comme la fin du segment
+        int at = current.position();
+        current.putLong(at + Long.BYTES, productId);
+        current.putInt(at + 2 * Long.BYTES, quantity);
+        current.putLong(at, userId);
+        current.position(at + RECORD_BYTES);
+    }
+
+    /** Scelle le segment courant et en ouvre un nouveau : les modifications suivantes y seront ajoutées. */
+    synchronized void rotate() throws IOException {
+        open();
+    }
+
+    /** Segments scellés, du plus ancien au plus récent. */
+    synchronized List<Path> sealedSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> sequenceOf(file) > 0 && !file.equals(currentPath))
+                    .sorted(Comparator.comparingLong(CartJournal::sequenceOf))
+                    .toList();
+        }
+    }
+
+    /** Modifications des segments, dans l'ordre d'écriture ; un segment s'arrête au premier enregistrement vide. */
+    static List<Entry> read(List<Path> segments) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (Path segment : segments) {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(segment));
+            while (content.remaining() >= RECORD_BYTES) {
+                Entry entry = new Entry(content.getLong(), content.getLong(), content.getInt());
+                if (entry.userId() == 0) {
+                    break;
+                }
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /** Supprime des segments scellés dont les modifications sont en base. */
+    static void delete(List<Path> segments) throws IOException {
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        current = null;
+    }
+
+    /** Crée le segment suivant (fichier à zéro de la taille du segment) et le projette en mémoire. */
+    private void open() throws IOException {
+        Path path = directory.resolve(PREFIX + String.format("%019d", sequence + 1) + SUFFIX);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            current = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_BYTES);
+        }
+        currentPath = path;
+        sequence++;
+    }
+
+    /** Numéro d'un segment, 0 pour un fichier étranger au journal. */
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package projetitecommerce.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import projetitecommerce.dto.CartLine;
+import projetitecommerce.dto.CartView;
+import projetitecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Panier de l'utilisateur connecté.
+ *
+ * Le contenu est tenu par {@link CartStore} (en mémoire, écrit en base en différé) et les produits
+ * sont lus dans le {@link CatalogReadModel} : une modification de panier ne fait aucun accès à la
+ * base, hormis le chargement du panier à sa première utilisation. Les prix affichés sont ceux du
+ * catalogue au moment de la lecture. Les lignes d'un produit supprimé sont retirées du panier dès
+ * qu'elles sont rencontrées : à la lecture, ou avant de refuser un ajout à un panier plein.
+ */
+@Service
+@RequiredArgsConstructor
+public class CartService {
+
+    /** Quantité maximale par ligne. */
+    public static final int MAX_QUANTITY = 99;
+    /** Nombre maximal de produits différents dans un panier. */
+    public static final int MAX_LINES = 100;
+
+    private final CartStore cartStore;
+    private final CatalogReadModel catalogReadModel;
+
+    public CartView getCart(Long userId) {
+        return view(userId, cartStore.get(userId));
+    }
+
+    /**
+     * Ajoute un produit au panier, ou augmente sa quantité s'il y est déjà.
+     *
+     * @param quantity quantité ajoutée, 1 par défaut.
+     * @throws IllegalArgumentException produit inconnu, quantité invalide ou panier plein.
+     */
+    public CartView addItem(Long userId, Long productId, Integer quantity) {
+        int added = quantity == null ? 1 : quantity;
+        if (added < 1) {
+            throw new IllegalArgumentException("La quantité ajoutée doit être supérieure à 0");
+        }
+        checkProduct(productId);
+        purgeIfFull(userId);
+        return view(userId, cartStore.update(userId, productId, (lines, current) -> {
+            checkLines(lines, current);
+            return checkQuantity(current + added);
+        }));
+    }
+
+    /**
+     * Fixe la quantité d'un produit du panier ; 0 le retire.
+     *
+     * @throws IllegalArgumentException produit inconnu, quantité invalide ou panier plein.
+     */
+    public CartView setQuantity(Long userId, Long productId, Integer quantity) {
+        if (quantity == null || quantity < 0) {
+            throw new IllegalArgumentException("La quantité doit être positive ou nulle");
+        }
+        if (quantity == 0) {
+            return removeItem(userId, productId);
+        }
+        checkProduct(productId);
+        purgeIfFull(userId);
+        return view(userId, cartStore.update(userId, productId, (lines, current) -> {
+            checkLines(lines, current);
+            return checkQuantity(quantity);
+        }));
+    }
+
+    public CartView removeItem(Long userId, Long productId) {
+        return view(userId, cartStore.update(userId, productId, (lines, current) -> 0));
+    }
+
+    public CartView clear(Long userId) {
+        return view(userId, cartStore.clear(userId));
+    }
+
+    private void checkProduct(Long productId) {
+        if (productId == null || catalogReadModel.findProduct(productId).isEmpty()) {
+            throw new IllegalArgumentException("Produit introuvable : " + productId);
+        }
+    }
+
+    /**
+     * Panier plein : retire d'abord les lignes des produits supprimés, qui ne sont pas affichées et ne
+     * doivent pas compter dans la limite. Fait hors du verrou du panier (lecture du catalogue).
+     */
+    private void purgeIfFull(Long userId) {
+        CartStore.Lines lines = cartStore.get(userId);
+        if (lines.size() >= MAX_LINES) {
+            purgeDeleted(userId, lines, catalogReadModel.findProducts(lines.productIds()));
+        }
+    }
+
+    /** Retire du panier les lignes de {@code lines} dont le produit est absent du catalogue. */
+    private void purgeDeleted(Long userId, CartStore.Lines lines, List<Product> products) {
+        if (products.size() < lines.size()) {
+            Set<Long> deleted = new HashSet<>(lines.productIds());
+            products.forEach(product -> deleted.remove(product.getId()));
+            cartStore.removeAll(userId, deleted);
+        }
+    }
+
+    private static void checkLines(CartStore.Lines lines, int current) {
+        if (current == 0 && lines.size() >= MAX_LINES) {
+            throw new IllegalArgumentException("Le panier ne peut pas contenir plus de " + MAX_LINES + " produits");
+        }
+    }
+
+    private static int checkQuantity(int quantity) {
+        if (quantity > MAX_QUANTITY) {
+            throw new IllegalArgumentException("La quantité par produit ne peut pas dépasser " + MAX_QUANTITY);
+        }
+        return quantity;
+    }
+
+    private CartView view(Long userId, CartStore.Lines lines) {
+        List<Product> products = catalogReadModel.findProducts(lines.productIds());
+        purgeDeleted(userId, lines, products);
+        List<CartLine> items = new ArrayList<>(lines.size());
+        int totalQuantity = 0;
+        double total = 0;
+        for (Product product : products) {
+            int quantity = lines.quantityOf(product.getId());
+            double lineTotal = cents(product.getPrice() * quantity);
+            items.add(new CartLine(product.getId(), product.getName(), product.getBrandName(), product.getPrice(),
+                    product.getImageUrl(), quantity, lineTotal));
+            totalQuantity += quantity;
+            total += lineTotal;
+        }
+        return new CartView(items, totalQuantity, cents(total));
+    }
+
+    private static double cents(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
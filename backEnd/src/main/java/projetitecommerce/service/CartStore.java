@@ -0,0 +1,461 @@
+package projetitecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Paniers actifs en mémoire, écrits en base en différé.
+ *
+ * Les paniers sont répartis sur {@code cart.stripes} segments, chacun protégé par son propre verrou :
+ * deux utilisateurs ne se bloquent que s'ils tombent sur le même segment, et le verrou n'est jamais
+ * tenu pendant un accès à la base. Un panier absent de la mémoire est chargé une fois (une requête),
+ * puis toutes les modifications sont faites en mémoire et inscrites au {@link CartJournal}.
+ *
+ * Toutes les {@code cart.flush.interval}, un thread dédié réécrit en base les paniers modifiés, par lots
+ * JDBC d'au plus {@code cart.flush.batch-size} paniers par transaction : plusieurs modifications d'un même
+ * panier entre deux passages ne coûtent qu'une écriture. Après un arrêt brutal, les modifications qui
+ * n'avaient pas encore été écrites sont relues dans le journal et rejouées au démarrage, avant la
+ * première requête. Les paniers inactifs depuis {@code cart.idle-timeout} et déjà écrits sont retirés
+ * de la mémoire.
+ */
+@Slf4j
+@Component
+public class CartStore implements InitializingBean, DisposableBean {
+
+    private static final String SELECT_SQL =
+            "SELECT product_id, quantity FROM cart_items WHERE user_id = ? ORDER BY sort_order";
+    private static final String DELETE_SQL = "DELETE FROM cart_items WHERE user_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO cart_items (user_id, product_id, quantity, sort_order, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Nouvelle quantité d'une ligne, calculée sous le verrou du panier.
+     * Une exception laisse le panier inchangé.
+     */
+    @FunctionalInterface
+    public interface LineUpdate {
+        /**
+         * @param lines   contenu actuel du panier.
+         * @param current quantité actuelle de la ligne, 0 si absente.
+         * @return la nouvelle quantité, 0 pour retirer la ligne.
+         */
+        int apply(Lines lines, int current);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Stripe[] stripes;
+    private final Path journalDirectory;
+    private final DataSize journalSegmentSize;
+    private final int batchSize;
+    private final long idleTimeoutMillis;
+    private final Counter flushedCarts;
+    private final WriteBehind writeBehind;
+    private CartJournal journal;
+
+    public CartStore(JdbcTemplate jdbcTemplate,
+                     TransactionTemplate transactionTemplate,
+                     MeterRegistry meterRegistry,
+                     @Value("${cart.stripes:64}") int stripes,
+                     @Value("${cart.journal.dir:data/cart-journal}") Path journalDirectory,
+                     @Value("${cart.journal.segment-size:4MB}") DataSize journalSegmentSize,
+                     @Value("${cart.flush.interval:1s}") Duration flushInterval,
+                     @Value("${cart.flush.batch-size:500}") int batchSize,
+                     @Value("${cart.idle-timeout:30m}") Duration idleTimeout) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("cart.stripes doit être une puissance de 2");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.journalDirectory = journalDirectory;
+        this.journalSegmentSize = journalSegmentSize;
+        this.batchSize = batchSize;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+
+        this.writeBehind = new WriteBehind("cart", "paniers", "Écriture différée des paniers modifiés",
+                flushInterval, meterRegistry);
+        this.flushedCarts = Counter.builder("cart.flush.carts")
+                .description("Paniers écrits en base")
+                .register(meterRegistry);
+    }
+
+    // --- Lectures et modifications ---
+
+    /** Lignes du panier, dans l'ordre d'ajout. */
+    public Lines get(long userId) {
+        return withCart(userId, (stripe, cart) -> cart.lines);
+    }
+
+    /**
+     * Modifie une ligne du panier et renvoie son nouveau contenu.
+     *
+     * @param update nouvelle quantité en fonction du panier et de la quantité actuelle.
+     */
+    public Lines update(long userId, long productId, LineUpdate update) {
+        return withCart(userId, (stripe, cart) -> {
+            int current = cart.lines.quantityOf(productId);
+            int quantity = update.apply(cart.lines, current);
+            if (quantity != current) {
+                apply(cart, productId, quantity);
+                stripe.dirty.add(userId);
+                journal(userId, productId, quantity);
+            }
+            return cart.lines;
+        });
+    }
+
+    /** Retire du panier les produits donnés (produits supprimés du catalogue). */
+    public Lines removeAll(long userId, Collection<Long> productIds) {
+        return withCart(userId, (stripe, cart) -> {
+            for (Long productId : productIds) {
+                if (cart.lines.quantityOf(productId) > 0) {
+                    apply(cart, productId, 0);
+                    stripe.dirty.add(userId);
+                    journal(userId, productId, 0);
+                }
+            }
+            return cart.lines;
+        });
+    }
+
+    /** Vide le panier. */
+    public Lines clear(long userId) {
+        return withCart(userId, (stripe, cart) -> {
+            if (cart.lines.size() > 0) {
+                cart.lines = Lines.EMPTY;
+                stripe.dirty.add(userId);
+                journal(userId, CartJournal.CLEAR, 0);
+            }
+            return cart.lines;
+        });
+    }
+
+    private static void apply(Cart cart, long productId, int quantity) {
+        cart.lines = productId == CartJournal.CLEAR ? Lines.EMPTY : cart.lines.with(productId, quantity);
+    }
+
+    private void journal(long userId, long productId, int quantity) {
+        try {
+            journal.append(userId, productId, quantity);
+        } catch (IOException e) {
+            // La modification est en mémoire et sera écrite en base ; seule la reprise après un arrêt brutal est perdue
+            log.error("Journal des paniers indisponible ({}) : modification non journalisée", journalDirectory, e);
+        }
+    }
+
+    /**
+     * Exécute l'action sous le verrou du segment de l'utilisateur, après avoir chargé son panier
+     * depuis la base s'il n'est pas en mémoire (chargement fait hors verrou).
+     */
+    private <T> T withCart(long userId, CartAction<T> action) {
+        Stripe stripe = stripeOf(userId);
+        stripe.lock.lock();
+        try {
+            Cart cart = stripe.carts.get(userId);
+            if (cart != null) {
+                cart.lastAccess = System.currentTimeMillis();
+                return action.apply(stripe, cart);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        Lines loaded = load(userId);
+        stripe.lock.lock();
+        try {
+            // Un appel concurrent a pu charger le panier entre-temps : le sien est gardé
+            Cart cart = stripe.carts.computeIfAbsent(userId, id -> new Cart(loaded));
+            cart.lastAccess = System.currentTimeMillis();
+            return action.apply(stripe, cart);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeOf(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+    }
+
+    private Lines load(long userId) {
+        Lines[] lines = {Lines.EMPTY};
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            lines[0] = lines[0].with(rs.getLong(1), rs.getInt(2));
+        }, userId);
+        return lines[0];
+    }
+
+    // --- Écriture différée ---
+
+    /**
+     * Reprend les modifications journalisées mais pas encore écrites en base, puis lance l'écriture différée.
+     */
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        journal = new CartJournal(journalDirectory, (int) journalSegmentSize.toBytes());
+        List<Path> segments = journal.sealedSegments();
+        if (!segments.isEmpty()) {
+            List<CartJournal.Entry> entries = CartJournal.read(segments);
+            Set<Long> users = new HashSet<>();
+            for (CartJournal.Entry entry : entries) {
+                users.add(entry.userId());
+                withCart(entry.userId(), (stripe, cart) -> {
+                    apply(cart, entry.productId(), entry.quantity());
+                    return stripe.dirty.add(entry.userId());
+                });
+            }
+            log.info("🛒 Paniers repris depuis le journal : {} modifications, {} paniers", entries.size(), users.size());
+            if (hasDirty()) {
+                flush();
+            } else {
+                CartJournal.delete(segments);
+            }
+        }
+        writeBehind.start(this::flush);
+    }
+
+    /**
+     * Écrit en base les paniers modifiés depuis le passage précédent.
+     *
+     * Le journal est scellé avant de relever les paniers modifiés : une modification inscrite dans un
+     * segment scellé a été marquée avant, elle fait donc partie de ce passage. Les segments scellés ne
+     * sont supprimés que si tous les lots ont été validés ; sinon les paniers restent à écrire.
+     */
+    synchronized void flush() throws IOException {
+        if (hasDirty()) {
+            long start = System.nanoTime();
+            journal.rotate();
+            List<Path> sealed = journal.sealedSegments();
+            Map<Long, Lines> pending = drain();
+            boolean written = true;
+            List<Long> users = new ArrayList<>(pending.keySet());
+            for (int from = 0; from < users.size(); from += batchSize) {
+                written &= write(users.subList(from, Math.min(from + batchSize, users.size())), pending);
+            }
+            if (written) {
+                CartJournal.delete(sealed);
+            }
+            writeBehind.recordPass(start);
+        }
+        evictIdle(System.currentTimeMillis() - idleTimeoutMillis);
+    }
+
+    private boolean hasDirty() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                if (!stripe.dirty.isEmpty()) {
+                    return true;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    /** Contenu des paniers modifiés, qui redeviennent propres. */
+    private Map<Long, Lines> drain() {
+        Map<Long, Lines> pending = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (Long userId : stripe.dirty) {
+                    pending.put(userId, stripe.carts.get(userId).lines);
+                }
+                stripe.dirty.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return pending;
+    }
+
+    /** Réécrit les paniers d'un lot en une transaction ; en cas d'échec, ils restent à écrire. */
+    private boolean write(List<Long> users, Map<Long, Lines> pending) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> deletes = new ArrayList<>(users.size());
+        List<Object[]> inserts = new ArrayList<>();
+        for (Long userId : users) {
+            deletes.add(new Object[]{userId});
+            Lines lines = pending.get(userId);
+            for (int i = 0; i < lines.size(); i++) {
+                inserts.add(new Object[]{userId, lines.productId(i), lines.quantity(i), i, now});
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            });
+            flushedCarts.increment(users.size());
+            return true;
+        } catch (RuntimeException e) {
+            writeBehind.batchFailed();
+            log.warn("Écriture de {} paniers reportée : {}", users.size(), e.getMessage());
+            for (Long userId : users) {
+                Stripe stripe = stripeOf(userId);
+                stripe.lock.lock();
+                try {
+                    stripe.dirty.add(userId);
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+            return false;
+        }
+    }
+
+    /** Retire de la mémoire les paniers écrits en base et inactifs depuis la date donnée. */
+    private void evictIdle(long idleBefore) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.carts.entrySet().removeIf(entry ->
+                        entry.getValue().lastAccess < idleBefore && !stripe.dirty.contains(entry.getKey()));
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /** Dernière écriture avant l'arrêt ; en cas d'échec, le journal sera repris au prochain démarrage. */
+    @Override
+    public void destroy() throws Exception {
+        writeBehind.stop();
+        try {
+            flush();
+        } finally {
+            journal.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface CartAction<T> {
+        T apply(Stripe stripe, Cart cart);
+    }
+
+    /** Segment : paniers de ses utilisateurs et ceux modifiés depuis la dernière écriture. */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, Cart> carts = new HashMap<>();
+        final Set<Long> dirty = new HashSet<>();
+    }
+
+    private static final class Cart {
+        Lines lines;
+        long lastAccess;
+
+        Cart(Lines lines) {
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * Contenu d'un panier à un instant donné : produits dans l'ordre d'ajout et quantités.
+     * Immuable : une modification produit un nouveau contenu, qui peut être renvoyé et écrit en base
+     * sans copie ni verrou.
+     */
+    public static final class Lines {
+
+        static final Lines EMPTY = new Lines(new long[0], new int[0]);
+
+        private final long[] productIds;
+        private final int[] quantities;
+
+        private Lines(long[] productIds, int[] quantities) {
+            this.productIds = productIds;
+            this.quantities = quantities;
+        }
+
+        /** Nombre de lignes. */
+        public int size() {
+            return productIds.length;
+        }
+
+        public long productId(int index) {
+            return productIds[index];
+        }
+
+        public int quantity(int index) {
+            return quantities[index];
+        }
+
+        /** Quantité du produit, 0 s'il n'est pas dans le panier. */
+        public int quantityOf(long productId) {
+            int index = indexOf(productId);
+            return index < 0 ? 0 : quantities[index];
+        }
+
+        /** Produits, dans l'ordre d'ajout. */
+        public List<Long> productIds() {
+            List<Long> ids = new ArrayList<>(productIds.length);
+            for (long productId : productIds) {
+                ids.add(productId);
+            }
+            return ids;
+        }
+
+        /** Contenu avec la quantité donnée pour le produit (ajouté en fin de panier, retiré si 0). */
+        Lines with(long productId, int quantity) {
+            int index = indexOf(productId);
+            int n = productIds.length;
+            if (index >= 0 && quantity > 0) {
+                int[] newQuantities = quantities.clone();
+                newQuantities[index] = quantity;
+                return new Lines(productIds, newQuantities);
+            }
+            if (index >= 0) {
+                long[] newProductIds = new long[n - 1];
+                int[] newQuantities = new int[n - 1];
+                System.arraycopy(productIds, 0, newProductIds, 0, index);
+                System.arraycopy(quantities, 0, newQuantities, 0, index);
+                System.arraycopy(productIds, index + 1, newProductIds, index, n - index - 1);
+                System.arraycopy(quantities, index + 1, newQuantities, index, n - index - 1);
+                return new Lines(newProductIds, newQuantities);
+            }
+            if (quantity > 0) {
+                long[] newProductIds = Arrays.copyOf(productIds, n + 1);
+                int[] newQuantities = Arrays.copyOf(quantities, n + 1);
+                newProductIds[n] = productId;
+                newQuantities[n] = quantity;
+                return new Lines(newProductIds, newQuantities);
+            }
+            return this;
+        }
+
+        private int indexOf(long productId) {
+            for (int i = 0; i < productIds.length; i++) {
+                if (productIds[i] == productId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
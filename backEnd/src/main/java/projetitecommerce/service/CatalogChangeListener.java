@@ -0,0 +1,31 @@
+package projetitecommerce.service;
+
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.List;
+
+/**
+ * Composant notifié par le {@link CatalogReadModel} des changements du catalogue, une fois les
+ * transactions validées. Permet de maintenir incrémentalement des structures dérivées
+ * (index de recherche, agrégats…) sans relire la base.
+ *
+ * Les produits reçus sont des copies détachées qui ne doivent pas être modifiées.
+ */
+public interface CatalogChangeListener {
+
+    /** Catalogue complet chargé (démarrage ou rechargement). */
+    default void onCatalogLoaded(List<Category> categories, List<Product> products) {}
+
+    /** Produit créé ou modifié. */
+    default void onProductSaved(Product product) {}
+
+    /** Produit supprimé. */
+    default void onProductDeleted(Long id) {}
+
+    /** Catégorie créée ou renommée. */
+    default void onCategorySaved(Category category) {}
+
+    /** Catégorie supprimée, avec ses produits (suppression en cascade). */
+    default void onCategoryDeleted(Long id) {}
+}
@@ -0,0 +1,32 @@
+package projetitecommerce.service;
+
+import java.util.Locale;
+
+/**
+ * Formats de fichier acceptés pour l'import et l'export en masse du catalogue.
+ */
+public enum CatalogFileFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    CatalogFileFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Convertit le paramètre {@code format} (ex : "csv").
+     */
+    public static CatalogFileFormat from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Format invalide : " + value + " (valeurs possibles : csv, ndjson)");
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package projetitecommerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import projetitecommerce.dto.ProductCursor;
+import projetitecommerce.dto.ProductRow;
+import projetitecommerce.dto.ProductSort;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+import projetitecommerce.repo.CategoryRepository;
+import projetitecommerce.repo.ProductRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Modèle de lecture du catalogue en mémoire.
+ *
+ * Toutes les lectures publiques (API REST, catalogue Thymeleaf) sont servies depuis une
+ * {@link CatalogSnapshot} immuable, publiée via un champ {@code volatile} : aucune lecture ne
+ * prend de connexion dans le pool Hikari. Les contrôleurs d'écriture notifient ce service après
+ * chaque sauvegarde ou suppression ; la photographie est alors recopiée et remplacée atomiquement
+ * une fois la transaction validée.
+ *
+ * Avec {@code catalog.read-model.enabled=false}, les lectures sont déléguées aux repositories.
+ * Dans les deux cas, les {@link CatalogChangeListener} sont notifiés de chaque changement validé.
+ */
+@Service
+@Slf4j
+public class CatalogReadModel {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ObjectProvider<CatalogChangeListener> listeners;
+    private final boolean enabled;
+
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogReadModel(ProductRepository productRepository,
+                            CategoryRepository categoryRepository,
+                            ObjectProvider<CatalogChangeListener> listeners,
+                            @Value("${catalog.read-model.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.listeners = listeners;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Charge le catalogue complet une fois l'application démarrée (après les seeders).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Recharge entièrement la photographie depuis la base et notifie les listeners.
+     */
+    @Transactional(readOnly = true)
+    public synchronized void reload() {
+        List<Category> categories = categoryRepository.findAll();
+        List<Product> products = ProductRow.toProducts(productRepository.findAllWithCategory());
+        if (enabled) {
+            CatalogSnapshot loaded = CatalogSnapshot.load(categories, products);
+            snapshot = loaded;
+            categories = loaded.categories();
+            products = loaded.products();
+            log.info("Catalogue chargé en mémoire : {} catégories, {} produits", categories.size(), products.size());
+        }
+        List<Category> loadedCategories = categories;
+        List<Product> loadedProducts = products;
+        fire(l -> l.onCatalogLoaded(loadedCategories, loadedProducts));
+    }
+
+    // --- Lectures ---
+
+    public List<Product> findAllProducts() {
+        return enabled ? snapshot().products() : ProductRow.toProducts(productRepository.findAllWithCategory());
+    }
+
+    public Optional<Product> findProduct(Long id) {
+        return enabled
+                ? Optional.ofNullable(snapshot().product(id))
+                : productRepository.findByIdWithCategory(id).map(ProductRow::toProduct);
+    }
+
+    /**
+     * Produits demandés, dans l'ordre des IDs reçus ; les IDs inconnus sont ignorés.
+     * Sans modèle de lecture : une seule requête IN, catégories comprises.
+     */
+    public List<Product> findProducts(Collection<Long> ids) {
+        List<Product> products = new ArrayList<>(ids.size());
+        if (enabled) {
+            CatalogSnapshot current = snapshot();
+            for (Long id : ids) {
+                Product product = current.product(id);
+                if (product != null) {
+                    products.add(product);
+                }
+            }
+            return products;
+        }
+        Map<Long, Product> found = new HashMap<>();
+        for (Product product : ProductRow.toProducts(productRepository.findAllByIdWithCategory(ids))) {
+            found.put(product.getId(), product);
+        }
+        for (Long id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    public List<Product> findProductsByCategory(Long categoryId) {
+        return enabled
+                ? snapshot().productsOfCategory(categoryId)
+                : ProductRow.toProducts(productRepository.findByCategoryId(categoryId));
+    }
+
+    public List<Category> findAllCategories() {
+        return enabled ? snapshot().categories() : categoryRepository.findAll();
+    }
+
+    public Optional<Category> findCategory(Long id) {
+        return enabled ? Optional.ofNullable(snapshot().category(id)) : categoryRepository.findById(id);
+    }
+
+    /**
+     * Page de produits située après le curseur donné, servie depuis les index triés en mémoire.
+     * N'est appelée que lorsque le modèle de lecture est actif.
+     */
+    List<Product> findPage(ProductSort sort, ProductCursor cursor, int count) {
+        Product probe = null;
+        if (cursor != null) {
+            probe = new Product();
+            probe.setId(cursor.getLastId());
+            if (sort == ProductSort.PRICE) {
+                probe.setPrice(cursor.lastPrice());
+            } else if (sort == ProductSort.NAME) {
+                probe.setName(cursor.getLastValue());
+            }
+        }
+        return snapshot().page(sort, probe, count);
+    }
+
+    // --- Notifications d'écriture ---
+
+    public void productSaved(Product product) {
+        afterCommit(() -> {
+            Product published = product;
+            if (enabled) {
+                snapshot = snapshot().withProduct(product);
+                published = snapshot.product(product.getId());
+            }
+            Product saved = published;
+            fire(l -> l.onProductSaved(saved));
+        });
+    }
+
+    public void productDeleted(Long id) {
+        afterCommit(() -> {
+            if (enabled) {
+                snapshot = snapshot().withoutProduct(id);
+            }
+            fire(l -> l.onProductDeleted(id));
+        });
+    }
+
+    public void categorySaved(Category category) {
+        afterCommit(() -> {
+            Category published = category;
+            if (enabled) {
+                snapshot = snapshot().withCategory(category);
+                published = snapshot.category(category.getId());
+            }
+            Category saved = published;
+            fire(l -> l.onCategorySaved(saved));
+        });
+    }
+
+    public void categoryDeleted(Long id) {
+        afterCommit(() -> {
+            if (enabled) {
+                snapshot = snapshot().withoutCategory(id);
+            }
+            fire(l -> l.onCategoryDeleted(id));
+        });
+    }
+
+    private CatalogSnapshot snapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Applique la modification (et notifie les listeners) après le commit de la transaction en cours, ou immédiatement
+     * lorsque l'appelant n'est pas transactionnel (le repository a déjà validé sa propre transaction).
+     * Les écritures sont sérialisées pour ne perdre aucune modification concurrente.
+     */
+    private void afterCommit(Runnable update) {
+        Runnable apply = () -> {
+            synchronized (this) {
+                update.run();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private void fire(Consumer<CatalogChangeListener> event) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                log.error("Erreur dans le listener de catalogue {}", listener.getClass().getSimpleName(), e);
+            }
+        });
+    }
+}
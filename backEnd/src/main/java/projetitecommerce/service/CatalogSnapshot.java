@@ -0,0 +1,326 @@
+package projetitecommerce.service;
+
+import projetitecommerce.dto.ProductSort;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Photographie immuable du catalogue (catégories + produits), indexée par ID et par catégorie.
+ * Les entités conservées sont des copies détachées : elles ne sont jamais modifiées après
+ * construction et peuvent être lues sans synchronisation par tous les threads.
+ */
+final class CatalogSnapshot {
+
+    static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+    static final Comparator<Product> BY_PRICE = Comparator.comparingDouble(Product::getPrice).thenComparing(Product::getId);
+    static final Comparator<Product> BY_NAME = Comparator.comparing(Product::getName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Product::getId);
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(List.of(), List.of());
+
+    private final List<Category> categories;
+    private final Map<Long, Category> categoriesById;
+    private final Map<Long, List<Product>> productsByCategory;
+    private final Product[] byId;
+    private final Product[] byPrice;
+    private final Product[] byName;
+    private final List<Product> allProducts;
+
+    private CatalogSnapshot(Collection<Category> categories, Collection<Product> products) {
+        this(indexCategories(categories), sorted(products, BY_ID));
+    }
+
+    private CatalogSnapshot(Map<Long, Category> categoriesById, Product[] byId) {
+        this(categoriesById, byId, sorted(Arrays.asList(byId), BY_PRICE), sorted(Arrays.asList(byId), BY_NAME),
+                groupByCategory(byId));
+    }
+
+    /**
+     * Assemble une photographie à partir de tableaux déjà triés (aucune copie ni tri supplémentaire).
+     */
+    private CatalogSnapshot(Map<Long, Category> categoriesById, Product[] byId, Product[] byPrice, Product[] byName,
+                            Map<Long, List<Product>> productsByCategory) {
+        this.categoriesById = categoriesById;
+        this.categories = List.copyOf(categoriesById.values());
+        this.byId = byId;
+        this.byPrice = byPrice;
+        this.byName = byName;
+        this.allProducts = Collections.unmodifiableList(Arrays.asList(byId));
+        this.productsByCategory = productsByCategory;
+    }
+
+    private static Map<Long, Category> indexCategories(Collection<Category> categories) {
+        Map<Long, Category> cats = new LinkedHashMap<>();
+        categories.stream()
+                .sorted(Comparator.comparing(Category::getId))
+                .forEach(c -> cats.put(c.getId(), c));
+        return Collections.unmodifiableMap(cats);
+    }
+
+    private static Product[] sorted(Collection<Product> products, Comparator<Product> comparator) {
+        Product[] array = products.toArray(new Product[0]);
+        Arrays.sort(array, comparator);
+        return array;
+    }
+
+    private static Map<Long, List<Product>> groupByCategory(Product[] byId) {
+        Map<Long, List<Product>> perCategory = new HashMap<>();
+        for (Product p : byId) {
+            if (p.getCategory() != null) {
+                perCategory.computeIfAbsent(p.getCategory().getId(), k -> new ArrayList<>()).add(p);
+            }
+        }
+        perCategory.replaceAll((k, v) -> List.copyOf(v));
+        return Collections.unmodifiableMap(perCategory);
+    }
+
+    /**
+     * Construit une photographie à partir d'entités chargées en base (copiées au passage).
+     */
+    static CatalogSnapshot load(Collection<Category> categories, Collection<Product> products) {
+        Map<Long, Category> cats = new HashMap<>();
+        for (Category c : categories) {
+            cats.put(c.getId(), copyOf(c));
+        }
+        List<Product> copies = new ArrayList<>(products.size());
+        for (Product p : products) {
+            copies.add(copyOf(p, p.getCategory() == null ? null : cats.get(p.getCategory().getId())));
+        }
+        return new CatalogSnapshot(cats.values(), copies);
+    }
+
+    // --- Lecture ---
+
+    List<Category> categories() { return categories; }
+
+    Category category(Long id) { return categoriesById.get(id); }
+
+    List<Product> products() { return allProducts; }
+
+    Product product(Long id) {
+        int index = indexOf(byId, BY_ID, probe(id));
+        return index < 0 ? null : byId[index];
+    }
+
+    List<Product> productsOfCategory(Long categoryId) {
+        return productsByCategory.getOrDefault(categoryId, List.of());
+    }
+
+    int size() { return byId.length; }
+
+    /**
+     * Renvoie au plus {@code count} produits situés strictement après {@code probe} dans l'ordre du tri
+     * (recherche dichotomique, coût O(log n + count)).
+     *
+     * @param probe produit fictif portant la position du curseur, ou {@code null} pour la première page.
+     */
+    List<Product> page(ProductSort sort, Product probe, int count) {
+        Product[] sorted = switch (sort) {
+            case ID -> byId;
+            case PRICE -> byPrice;
+            case NAME -> byName;
+        };
+        Comparator<Product> comparator = switch (sort) {
+            case ID -> BY_ID;
+            case PRICE -> BY_PRICE;
+            case NAME -> BY_NAME;
+        };
+        int from = probe == null ? 0 : upperBound(sorted, comparator, probe);
+        int to = Math.min(sorted.length, from + count);
+        return from >= to ? List.of() : List.of(Arrays.copyOfRange(sorted, from, to));
+    }
+
+    private static int upperBound(Product[] sorted, Comparator<Product> comparator, Product probe) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(sorted[mid], probe) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int indexOf(Product[] sorted, Comparator<Product> comparator, Product product) {
+        return Arrays.binarySearch(sorted, product, comparator);
+    }
+
+    /** Copie de {@code sorted} avec {@code product} inséré à sa place (absent du tableau). */
+    private static Product[] insert(Product[] sorted, Comparator<Product> comparator, Product product) {
+        int at = upperBound(sorted, comparator, product);
+        Product[] copy = new Product[sorted.length + 1];
+        System.arraycopy(sorted, 0, copy, 0, at);
+        copy[at] = product;
+        System.arraycopy(sorted, at, copy, at + 1, sorted.length - at);
+        return copy;
+    }
+
+    /** Copie de {@code sorted} sans {@code product} (présent dans le tableau). */
+    private static Product[] remove(Product[] sorted, Comparator<Product> comparator, Product product) {
+        int at = indexOf(sorted, comparator, product);
+        Product[] copy = new Product[sorted.length - 1];
+        System.arraycopy(sorted, 0, copy, 0, at);
+        System.arraycopy(sorted, at + 1, copy, at, sorted.length - at - 1);
+        return copy;
+    }
+
+    /** Copie de {@code sorted} où {@code previous} est remplacé par {@code product}, replacé selon le tri. */
+    private static Product[] replace(Product[] sorted, Comparator<Product> comparator, Product previous, Product product) {
+        int from = indexOf(sorted, comparator, previous);
+        Product[] copy = sorted.clone();
+        if (comparator.compare(previous, product) == 0) {
+            copy[from] = product;
+            return copy;
+        }
+        // Décale les éléments compris entre l'ancienne et la nouvelle position, sans tableau intermédiaire
+        int to = upperBound(sorted, comparator, product);
+        if (to > from) {
+            System.arraycopy(sorted, from + 1, copy, from, to - from - 1);
+            copy[to - 1] = product;
+        } else {
+            System.arraycopy(sorted, to, copy, to + 1, from - to);
+            copy[to] = product;
+        }
+        return copy;
+    }
+
+    private static Product probe(Long id) {
+        Product probe = new Product();
+        probe.setId(id);
+        return probe;
+    }
+
+    // --- Modifications (copy-on-write : chaque opération renvoie une nouvelle photographie) ---
+
+    /**
+     * Ajoute ou remplace un produit : insertion dichotomique dans chaque tableau trié (copie par
+     * {@link System#arraycopy}, sans retri) et mise à jour des seules listes des catégories concernées.
+     */
+    CatalogSnapshot withProduct(Product product) {
+        Category category = product.getCategory() == null ? null : categoriesById.get(product.getCategory().getId());
+        Product copy = copyOf(product, category);
+        Product previous = product(copy.getId());
+        Map<Long, List<Product>> perCategory = new HashMap<>(productsByCategory);
+        if (previous == null) {
+            addToCategory(perCategory, copy);
+            return new CatalogSnapshot(categoriesById, insert(byId, BY_ID, copy), insert(byPrice, BY_PRICE, copy),
+                    insert(byName, BY_NAME, copy), Collections.unmodifiableMap(perCategory));
+        }
+        removeFromCategory(perCategory, previous);
+        addToCategory(perCategory, copy);
+        return new CatalogSnapshot(categoriesById, replace(byId, BY_ID, previous, copy),
+                replace(byPrice, BY_PRICE, previous, copy), replace(byName, BY_NAME, previous, copy),
+                Collections.unmodifiableMap(perCategory));
+    }
+
+    CatalogSnapshot withoutProduct(Long id) {
+        Product previous = product(id);
+        if (previous == null) {
+            return this;
+        }
+        Map<Long, List<Product>> perCategory = new HashMap<>(productsByCategory);
+        removeFromCategory(perCategory, previous);
+        return new CatalogSnapshot(categoriesById, remove(byId, BY_ID, previous), remove(byPrice, BY_PRICE, previous),
+                remove(byName, BY_NAME, previous), Collections.unmodifiableMap(perCategory));
+    }
+
+    private static void addToCategory(Map<Long, List<Product>> perCategory, Product product) {
+        if (product.getCategory() != null) {
+            Long categoryId = product.getCategory().getId();
+            Product[] current = perCategory.getOrDefault(categoryId, List.of()).toArray(new Product[0]);
+            perCategory.put(categoryId, List.of(insert(current, BY_ID, product)));
+        }
+    }
+
+    private static void removeFromCategory(Map<Long, List<Product>> perCategory, Product product) {
+        if (product.getCategory() != null) {
+            Long categoryId = product.getCategory().getId();
+            Product[] remaining = remove(perCategory.get(categoryId).toArray(new Product[0]), BY_ID, product);
+            if (remaining.length == 0) {
+                perCategory.remove(categoryId);
+            } else {
+                perCategory.put(categoryId, List.of(remaining));
+            }
+        }
+    }
+
+    CatalogSnapshot withCategory(Category category) {
+        Category copy = copyOf(category);
+        Map<Long, Category> cats = new HashMap<>(categoriesById);
+        cats.put(copy.getId(), copy);
+        // Les produits de la catégorie référencent la nouvelle copie (nom éventuellement modifié) ; la
+        // catégorie n'entre dans aucun tri, chaque tableau garde son ordre
+        Map<Long, Product> refreshed = new HashMap<>();
+        for (Product p : productsOfCategory(copy.getId())) {
+            refreshed.put(p.getId(), copyOf(p, copy));
+        }
+        Map<Long, List<Product>> perCategory = new HashMap<>(productsByCategory);
+        if (!refreshed.isEmpty()) {
+            perCategory.put(copy.getId(), productsOfCategory(copy.getId()).stream()
+                    .map(p -> refreshed.get(p.getId()))
+                    .toList());
+        }
+        return new CatalogSnapshot(indexCategories(cats.values()), refresh(byId, refreshed), refresh(byPrice, refreshed),
+                refresh(byName, refreshed), Collections.unmodifiableMap(perCategory));
+    }
+
+    CatalogSnapshot withoutCategory(Long id) {
+        Map<Long, Category> cats = new HashMap<>(categoriesById);
+        cats.remove(id);
+        // Suppression en cascade des produits (CascadeType.ALL sur Category.products)
+        Map<Long, List<Product>> perCategory = new HashMap<>(productsByCategory);
+        perCategory.remove(id);
+        return new CatalogSnapshot(indexCategories(cats.values()), withoutCategory(byId, id), withoutCategory(byPrice, id),
+                withoutCategory(byName, id), Collections.unmodifiableMap(perCategory));
+    }
+
+    private static Product[] refresh(Product[] sorted, Map<Long, Product> refreshed) {
+        if (refreshed.isEmpty()) {
+            return sorted;
+        }
+        Product[] copy = sorted.clone();
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = refreshed.getOrDefault(copy[i].getId(), copy[i]);
+        }
+        return copy;
+    }
+
+    private static Product[] withoutCategory(Product[] sorted, Long categoryId) {
+        return Arrays.stream(sorted)
+                .filter(p -> p.getCategory() == null || !categoryId.equals(p.getCategory().getId()))
+                .toArray(Product[]::new);
+    }
+
+    // --- Copies détachées ---
+
+    private static Category copyOf(Category source) {
+        Category copy = new Category();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        return copy;
+    }
+
+    private static Product copyOf(Product source, Category category) {
+        Product copy = new Product();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setBrandName(source.getBrandName());
+        copy.setPrice(source.getPrice());
+        copy.setImageUrl(source.getImageUrl());
+        copy.setCategory(category);
+        return copy;
+    }
+}
@@ -0,0 +1,66 @@
+package projetitecommerce.service;
+
+import org.springframework.stereotype.Component;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version monotone du catalogue, incrémentée à chaque écriture validée sur un produit ou une catégorie.
+ *
+ * Sert d'ETag fort pour toutes les lectures du catalogue : tant que la version ne change pas,
+ * les représentations servies sont identiques. L'ETag inclut l'instant de démarrage afin qu'une
+ * version ne soit jamais réutilisée après un redémarrage.
+ */
+@Component
+public class CatalogVersion implements CatalogChangeListener {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = epoch;
+
+    /** Numéro de version courant. */
+    public long current() {
+        return version.get();
+    }
+
+    /** ETag fort (avec guillemets) de la version courante. */
+    public String etag() {
+        return "\"" + Long.toString(epoch, 36) + "-" + version.get() + "\"";
+    }
+
+    /**
+     * ETag fort de la version courante pour un corps servi avec un {@code Content-Encoding} : les octets
+     * diffèrent de la représentation non compressée, l'ETag aussi (ex : {@code "kx3f-12-gzip"}).
+     */
+    public String etag(String contentCoding) {
+        return "\"" + Long.toString(epoch, 36) + "-" + version.get() + "-" + contentCoding + "\"";
+    }
+
+    /** Instant (ms) de la dernière modification du catalogue. */
+    public long lastModified() {
+        return lastModified;
+    }
+
+    private void bump() {
+        lastModified = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void onCatalogLoaded(List<Category> categories, List<Product> products) { bump(); }
+
+    @Override
+    public void onProductSaved(Product product) { bump(); }
+
+    @Override
+    public void onProductDeleted(Long id) { bump(); }
+
+    @Override
+    public void onCategorySaved(Category category) { bump(); }
+
+    @Override
+    public void onCategoryDeleted(Long id) { bump(); }
+}
@@ -0,0 +1,113 @@
+package projetitecommerce.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import projetitecommerce.dto.ReservationView;
+import projetitecommerce.dto.StockLevel;
+import projetitecommerce.exception.InsufficientStockException;
+
+/**
+ * Stock des produits et réservations des utilisateurs.
+ *
+ * Le stock et les réservations sont tenus par {@link InventoryStore} (compteurs atomiques en mémoire,
+ * écrits en base en différé) : réserver, confirmer ou annuler ne fait aucun accès à la base. Une
+ * réservation n'est visible que de l'utilisateur qui l'a faite.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryService {
+
+    private final InventoryStore inventoryStore;
+    private final CatalogReadModel catalogReadModel;
+
+    /**
+     * @throws IllegalArgumentException produit inconnu.
+     */
+    public StockLevel getStock(Long productId) {
+        checkProduct(productId);
+        return level(productId, inventoryStore.available(productId));
+    }
+
+    /**
+     * Fixe le stock d'un produit (administration) : quantité en main, réservations en attente comprises ;
+     * elles en restent déduites.
+     *
+     * @throws IllegalArgumentException produit inconnu, quantité négative ou inférieure aux réservations en attente.
+     */
+    public StockLevel setStock(Long productId, Integer quantity) {
+        if (quantity == null) {
+            throw new IllegalArgumentException("La quantité est obligatoire");
+        }
+        checkProduct(productId);
+        return level(productId, inventoryStore.setStock(productId, quantity));
+    }
+
+    /**
+     * Retient du stock jusqu'à confirmation ou expiration de la réservation.
+     *
+     * @param quantity quantité réservée, 1 par défaut.
+     * @throws InsufficientStockException stock disponible insuffisant.
+     * @throws IllegalArgumentException   produit inconnu ou quantité invalide.
+     */
+    public ReservationView reserve(Long userId, Long productId, Integer quantity) {
+        checkProduct(productId);
+        return view(inventoryStore.reserve(productId, quantity == null ? 1 : quantity, userId));
+    }
+
+    /**
+     * Confirme une réservation en attente ; sans effet si elle l'est déjà.
+     *
+     * @throws IllegalArgumentException   réservation inconnue, annulée ou expirée.
+     * @throws InsufficientStockException réservation refusée à l'écriture en base.
+     */
+    public ReservationView confirm(Long userId, String reservationId) {
+        InventoryStore.Reservation reservation = find(userId, reservationId);
+        inventoryStore.confirm(reservation);
+        switch (reservation.status()) {
+            case CONFIRMED -> {
+                return view(reservation);
+            }
+            case FAILED -> throw new InsufficientStockException(
+                    "Stock insuffisant pour le produit " + reservation.productId() + " : réservation refusée");
+            default -> throw new IllegalArgumentException(
+                    "Réservation " + reservationId + " déjà terminée : " + reservation.status());
+        }
+    }
+
+    /**
+     * Annule une réservation en attente et rend son stock ; sans effet si elle est déjà terminée.
+     *
+     * @throws IllegalArgumentException réservation inconnue ou déjà confirmée.
+     */
+    public ReservationView release(Long userId, String reservationId) {
+        InventoryStore.Reservation reservation = find(userId, reservationId);
+        inventoryStore.release(reservation);
+        if (reservation.status() == InventoryStore.Status.CONFIRMED) {
+            throw new IllegalArgumentException("Réservation " + reservationId + " déjà confirmée");
+        }
+        return view(reservation);
+    }
+
+    private InventoryStore.Reservation find(Long userId, String reservationId) {
+        InventoryStore.Reservation reservation = inventoryStore.find(reservationId);
+        if (reservation == null || reservation.userId() != userId) {
+            throw new IllegalArgumentException("Réservation introuvable : " + reservationId);
+        }
+        return reservation;
+    }
+
+    private void checkProduct(Long productId) {
+        if (productId == null || catalogReadModel.findProduct(productId).isEmpty()) {
+            throw new IllegalArgumentException("Produit introuvable : " + productId);
+        }
+    }
+
+    private static StockLevel level(Long productId, Integer available) {
+        return new StockLevel(productId, available != null, available);
+    }
+
+    private static ReservationView view(InventoryStore.Reservation reservation) {
+        return new ReservationView(reservation.id(), reservation.productId(), reservation.quantity(),
+                reservation.status().name(), reservation.expiresAt());
+    }
+}
@@ -0,0 +1,592 @@
+package projetitecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import projetitecommerce.exception.InsufficientStockException;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stock disponible et réservations en mémoire, écrits en base en différé.
+ *
+ * Le stock disponible de chaque produit suivi est un compteur atomique : une réservation le décrémente
+ * par compare-and-set, sans verrou ni accès à la base. Deux acheteurs du même produit ne s'attendent
+ * donc jamais ; celui qui perd la course recommence avec la nouvelle valeur, et la réservation est
+ * refusée dès que le stock ne suffit plus. Un produit sans ligne dans {@code product_stock} n'est pas
+ * suivi : ses réservations sont toujours acceptées.
+ *
+ * Toutes les {@code inventory.flush.interval}, un thread dédié écrit les réservations nouvelles ou
+ * terminées, par lots d'au plus {@code inventory.flush.batch-size} par transaction : une seule mise à
+ * jour conditionnelle {@code quantity = quantity - ? WHERE quantity >= ?} par produit et par lot, quel
+ * que soit le nombre d'acheteurs. La condition ne peut échouer que si le stock a été modifié en base
+ * hors de l'application : les réservations du produit sont alors reprises une à une, celles qui ne
+ * passent plus sont refusées, et le compteur est corrigé de l'écart entre le stock relu en base et celui
+ * que le store y attendait (les réservations faites depuis restent déduites).
+ *
+ * Une réservation non confirmée dans le délai {@code inventory.reservation.ttl} expire et son stock est
+ * rendu. Les réservations en attente écrites en base sont reprises au démarrage ; celles expirées
+ * pendant l'arrêt sont rendues au stock.
+ */
+@Slf4j
+@Component
+public class InventoryStore implements InitializingBean, DisposableBean {
+
+    private static final String SELECT_STOCK_SQL = "SELECT product_id, quantity FROM product_stock";
+    private static final String SELECT_QUANTITY_SQL = "SELECT quantity FROM product_stock WHERE product_id = ?";
+    private static final String LOCK_QUANTITY_SQL =
+            "SELECT quantity FROM product_stock WHERE product_id = ? FOR UPDATE";
+    private static final String INSERT_STOCK_SQL = "INSERT INTO product_stock (product_id, quantity) VALUES (?, ?)";
+    private static final String SET_STOCK_SQL = "UPDATE product_stock SET quantity = ? WHERE product_id = ?";
+    private static final String DECREMENT_SQL =
+            "UPDATE product_stock SET quantity = quantity - ? WHERE product_id = ? AND quantity >= ?";
+    private static final String INCREMENT_SQL =
+            "UPDATE product_stock SET quantity = quantity + ? WHERE product_id = ?";
+    private static final String SELECT_RESERVATIONS_SQL =
+            "SELECT id, product_id, user_id, quantity, expires_at FROM stock_reservations";
+    private static final String INSERT_RESERVATION_SQL =
+            "INSERT INTO stock_reservations (id, product_id, user_id, quantity, expires_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_RESERVATION_SQL = "DELETE FROM stock_reservations WHERE id = ?";
+
+    /** État d'une réservation ; seul {@link #PENDING} peut encore changer. */
+    public enum Status {
+        /** Stock retenu, en attente de confirmation. */
+        PENDING,
+        /** Confirmée : le stock est définitivement sorti. */
+        CONFIRMED,
+        /** Annulée : le stock a été rendu. */
+        RELEASED,
+        /** Non confirmée à temps : le stock a été rendu. */
+        EXPIRED,
+        /** Refusée à l'écriture en base : le stock en base ne suffisait plus. */
+        FAILED
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reservationTtl;
+    private final int batchSize;
+    private final Counter rejectedReservations;
+    private final Counter expiredReservations;
+    private final Counter failedReservations;
+    private final WriteBehind writeBehind;
+
+    /** Stock disponible des produits suivis : stock en base moins les réservations pas encore écrites. */
+    private final Map<Long, AtomicInteger> stock = new ConcurrentHashMap<>();
+    /** Stock que le store attend en base après ses propres écritures (lu et modifié sous le verrou du store). */
+    private final Map<Long, Integer> persistedStock = new HashMap<>();
+    /** Réservations dont l'effet n'est pas encore écrit en base, et réservations refusées jusqu'à leur échéance. */
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    /** Réservations en attente (et refusées) pas encore échues, par échéance. */
+    private final Set<Reservation> expiring = new ConcurrentSkipListSet<>(
+            Comparator.comparing((Reservation reservation) -> reservation.expiresAt).thenComparing(r -> r.id));
+    /** Réservations créées ou terminées depuis le passage précédent, chacune une seule fois. */
+    private final ConcurrentLinkedQueue<Reservation> changes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private static final AtomicIntegerFieldUpdater<Reservation> QUEUED =
+            AtomicIntegerFieldUpdater.newUpdater(Reservation.class, "queued");
+
+    public InventoryStore(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${inventory.reservation.ttl:15m}") Duration reservationTtl,
+                          @Value("${inventory.flush.interval:200ms}") Duration flushInterval,
+                          @Value("${inventory.flush.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.reservationTtl = reservationTtl;
+        this.batchSize = batchSize;
+
+        this.writeBehind = new WriteBehind("inventory", "réservations", "Écriture différée des réservations de stock",
+                flushInterval, meterRegistry);
+        this.rejectedReservations = Counter.builder("inventory.reservations.rejected")
+                .description("Réservations refusées faute de stock")
+                .register(meterRegistry);
+        this.expiredReservations = Counter.builder("inventory.reservations.expired")
+                .description("Réservations expirées sans confirmation")
+                .register(meterRegistry);
+        this.failedReservations = Counter.builder("inventory.reservations.failed")
+                .description("Réservations refusées à l'écriture (stock modifié en base hors application)")
+                .register(meterRegistry);
+        Gauge.builder("inventory.reservations.pending", pending, AtomicInteger::get)
+                .description("Réservations en attente de confirmation")
+                .register(meterRegistry);
+    }
+
+    // --- Stock et réservations ---
+
+    /** Stock disponible d'un produit, {@code null} s'il n'est pas suivi. */
+    public Integer available(long productId) {
+        AtomicInteger available = stock.get(productId);
+        return available == null ? null : available.get();
+    }
+
+    /**
+     * Retient du stock pour un utilisateur jusqu'à confirmation ou expiration.
+     *
+     * @throws InsufficientStockException stock disponible inférieur à la quantité demandée.
+     */
+    public Reservation reserve(long productId, int quantity, long userId) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("La quantité réservée doit être supérieure à 0");
+        }
+        AtomicInteger available = stock.get(productId);
+        if (available != null) {
+            int current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    rejectedReservations.increment();
+                    throw new InsufficientStockException("Stock insuffisant pour le produit " + productId
+                            + " : " + current + " disponible(s), " + quantity + " demandé(s)");
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+        }
+        // Identifiant aléatoire sans SecureRandom (synchronisé) : une réservation n'est accessible qu'à son auteur
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String id = new UUID(random.nextLong(), random.nextLong()).toString();
+        Reservation reservation = new Reservation(id, productId, userId, quantity,
+                Instant.now().plus(reservationTtl), available != null, Persisted.NONE);
+        reservations.put(reservation.id, reservation);
+        expiring.add(reservation);
+        pending.incrementAndGet();
+        enqueue(reservation);
+        return reservation;
+    }
+
+    /**
+     * Réservation en attente ou terminée depuis peu ; une réservation refusée reste visible jusqu'à son
+     * échéance, pour que l'utilisateur en connaisse l'issue.
+     */
+    public Reservation find(String id) {
+        return id == null ? null : reservations.get(id);
+    }
+
+    /**
+     * Confirme une réservation en attente : le stock ne sera pas rendu.
+     *
+     * @return {@code false} si la réservation n'était plus en attente (voir {@link Reservation#status()}).
+     */
+    public boolean confirm(Reservation reservation) {
+        return finish(reservation, Status.CONFIRMED);
+    }
+
+    /**
+     * Annule une réservation en attente et rend son stock.
+     *
+     * @return {@code false} si la réservation n'était plus en attente.
+     */
+    public boolean release(Reservation reservation) {
+        return finish(reservation, Status.RELEASED);
+    }
+
+    private boolean finish(Reservation reservation, Status status) {
+        if (!reservation.status.compareAndSet(Status.PENDING, status)) {
+            return false;
+        }
+        if (status != Status.CONFIRMED) {
+            giveBack(reservation);
+        }
+        expiring.remove(reservation);
+        pending.decrementAndGet();
+        enqueue(reservation);
+        return true;
+    }
+
+    /** Met la réservation dans la file d'écriture si elle n'y est pas déjà. */
+    private void enqueue(Reservation reservation) {
+        if (QUEUED.compareAndSet(reservation, 0, 1)) {
+            changes.add(reservation);
+        }
+    }
+
+    private void giveBack(Reservation reservation) {
+        AtomicInteger available = reservation.tracked ? stock.get(reservation.productId) : null;
+        if (available != null) {
+            available.addAndGet(reservation.quantity);
+        }
+    }
+
+    /**
+     * Fixe le stock d'un produit, qui devient suivi s'il ne l'était pas. La quantité donnée compte les
+     * unités retenues par les réservations en attente, écrites en base ou non : le stock disponible est
+     * la quantité moins toutes ces réservations, quel que soit l'avancement de l'écriture différée. Les
+     * réservations confirmées sont des ventes : elles ne sont plus comptées.
+     *
+     * @return le stock disponible.
+     * @throws IllegalArgumentException quantité négative ou inférieure aux réservations en attente.
+     */
+    public synchronized int setStock(long productId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Le stock doit être positif ou nul");
+        }
+        // Sous le verrou de l'écriture différée : ce qui est écrit de chaque réservation ne bouge pas
+        int pendingQuantity = 0;
+        int unwritten = 0;
+        for (Reservation reservation : reservations.values()) {
+            if (!reservation.tracked || reservation.productId != productId) {
+                continue;
+            }
+            Status status = reservation.status.get();
+            if (status == Status.PENDING) {
+                pendingQuantity += reservation.quantity;
+            }
+            // Écritures encore à faire : décrément d'une réservation nouvelle, stock rendu d'une réservation écrite
+            if (reservation.persisted == Persisted.NONE && (status == Status.PENDING || status == Status.CONFIRMED)) {
+                unwritten += reservation.quantity;
+            } else if (reservation.persisted == Persisted.RESERVED
+                    && (status == Status.RELEASED || status == Status.EXPIRED)) {
+                unwritten -= reservation.quantity;
+            }
+        }
+        if (quantity < pendingQuantity) {
+            throw new IllegalArgumentException("Le stock ne peut pas être inférieur aux réservations en attente ("
+                    + pendingQuantity + ")");
+        }
+        // Valeur en base qui, une fois les écritures en attente faites, donnera quantité - réservations en attente
+        int persisted = quantity - pendingQuantity + unwritten;
+        transactionTemplate.executeWithoutResult(status -> {
+            if (jdbcTemplate.queryForList(LOCK_QUANTITY_SQL, Integer.class, productId).isEmpty()) {
+                jdbcTemplate.update(INSERT_STOCK_SQL, productId, persisted);
+            } else {
+                jdbcTemplate.update(SET_STOCK_SQL, persisted, productId);
+            }
+        });
+        Integer expected = persistedStock.put(productId, persisted);
+        AtomicInteger available = stock.get(productId);
+        if (expected == null || available == null) {
+            stock.put(productId, new AtomicInteger(quantity - pendingQuantity));
+            return quantity - pendingQuantity;
+        }
+        // Décalé de l'écart avec la valeur attendue en base (et non relue) : les réservations faites
+        // pendant le calcul restent déduites, une modification externe de la base est absorbée
+        return available.addAndGet(persisted - expected);
+    }
+
+    // --- Écriture différée ---
+
+    /**
+     * Charge le stock et reprend les réservations en attente ; celles expirées pendant l'arrêt sont
+     * rendues au stock. Lance ensuite l'écriture différée.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.query(SELECT_STOCK_SQL, rs -> {
+            stock.put(rs.getLong(1), new AtomicInteger(rs.getInt(2)));
+            persistedStock.put(rs.getLong(1), rs.getInt(2));
+        });
+        Instant now = Instant.now();
+        int[] expired = {0};
+        jdbcTemplate.query(SELECT_RESERVATIONS_SQL, rs -> {
+            Reservation reservation = new Reservation(rs.getString(1), rs.getLong(2), rs.getLong(3), rs.getInt(4),
+                    rs.getTimestamp(5).toInstant(), true, Persisted.RESERVED);
+            reservations.put(reservation.id, reservation);
+            if (reservation.expiresAt.isAfter(now)) {
+                expiring.add(reservation);
+                pending.incrementAndGet();
+            } else {
+                // Rendu au compteur tout de suite, en base par la prochaine écriture
+                reservation.status.set(Status.EXPIRED);
+                giveBack(reservation);
+                enqueue(reservation);
+                expired[0]++;
+            }
+        });
+        if (!reservations.isEmpty()) {
+            log.info("📦 Réservations de stock reprises : {} en attente, {} expirées pendant l'arrêt",
+                    pending.get(), expired[0]);
+        }
+        flush();
+        writeBehind.start(this::flush);
+    }
+
+    /**
+     * Fait expirer les réservations échues, puis écrit en base les réservations créées ou terminées
+     * depuis le passage précédent.
+     */
+    synchronized void flush() {
+        expire(Instant.now());
+        if (changes.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Reservation> batch = new ArrayList<>(batchSize);
+        Set<Reservation> inBatch = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Reservation> failed = new ArrayList<>();
+        for (Reservation reservation; (reservation = changes.poll()) != null; ) {
+            // Retirée de la file avant de relever son état : un changement ultérieur l'y remettra, parfois
+            // avant l'écriture du lot où elle est déjà ; son état n'est relevé qu'à l'écriture, une fois suffit
+            QUEUED.set(reservation, 0);
+            if (reservation.persisted != Persisted.SETTLED && inBatch.add(reservation)) {
+                batch.add(reservation);
+            }
+            if (batch.size() == batchSize) {
+                writeOrKeep(batch, failed);
+                inBatch.clear();
+            }
+        }
+        writeOrKeep(batch, failed);
+        // Remises en file après le passage : nouvel essai au suivant
+        failed.forEach(this::enqueue);
+        writeBehind.recordPass(start);
+    }
+
+    private void writeOrKeep(List<Reservation> batch, List<Reservation> failed) {
+        if (!batch.isEmpty() && !write(batch)) {
+            failed.addAll(batch);
+        }
+        batch.clear();
+    }
+
+    /** Fait expirer les réservations échues encore en attente et oublie les réservations refusées échues. */
+    private void expire(Instant now) {
+        for (Iterator<Reservation> it = expiring.iterator(); it.hasNext(); ) {
+            Reservation reservation = it.next();
+            if (reservation.expiresAt.isAfter(now)) {
+                break;
+            }
+            it.remove();
+            if (finish(reservation, Status.EXPIRED)) {
+                expiredReservations.increment();
+            }
+            if (reservation.persisted == Persisted.SETTLED) {
+                reservations.remove(reservation.id);
+            }
+        }
+    }
+
+    /**
+     * Écrit un lot en une transaction : décrément agrégé par produit pour les nouvelles réservations,
+     * stock rendu pour les réservations annulées ou expirées déjà écrites.
+     *
+     * @return {@code false} si la transaction a échoué : le lot reste à écrire.
+     */
+    private boolean write(List<Reservation> batch) {
+        // Etats relevés une fois : un changement ultérieur repasse par la file et sera écrit au passage suivant
+        Status[] statuses = new Status[batch.size()];
+        Map<Long, List<Reservation>> reserved = new LinkedHashMap<>();
+        Map<Long, Integer> restored = new HashMap<>();
+        List<Object[]> deletes = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Reservation reservation = batch.get(i);
+            Status status = statuses[i] = reservation.status.get();
+            if (!reservation.tracked) {
+                continue;
+            }
+            boolean returned = status == Status.RELEASED || status == Status.EXPIRED;
+            if (reservation.persisted == Persisted.NONE && !returned) {
+                reserved.computeIfAbsent(reservation.productId, id -> new ArrayList<>()).add(reservation);
+            } else if (reservation.persisted == Persisted.RESERVED && status != Status.PENDING) {
+                if (returned) {
+                    restored.merge(reservation.productId, reservation.quantity, Integer::sum);
+                }
+                deletes.add(new Object[]{reservation.id});
+            }
+        }
+
+        Set<Reservation> rejected = new LinkedHashSet<>();
+        try {
+            // Rien à écrire quand les réservations ont été annulées avant d'atteindre la base
+            if (!reserved.isEmpty() || !deletes.isEmpty()) {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    rejected.clear();
+                    decrement(reserved, rejected);
+                    List<Object[]> inserts = new ArrayList<>();
+                    for (int i = 0; i < batch.size(); i++) {
+                        Reservation reservation = batch.get(i);
+                        if (reservation.tracked && reservation.persisted == Persisted.NONE
+                                && statuses[i] == Status.PENDING && !rejected.contains(reservation)) {
+                            inserts.add(new Object[]{reservation.id, reservation.productId, reservation.userId,
+                                    reservation.quantity, Timestamp.from(reservation.expiresAt)});
+                        }
+                    }
+                    jdbcTemplate.batchUpdate(INSERT_RESERVATION_SQL, inserts);
+                    List<Object[]> increments = new ArrayList<>(restored.size());
+                    restored.forEach((productId, quantity) -> increments.add(new Object[]{quantity, productId}));
+                    jdbcTemplate.batchUpdate(INCREMENT_SQL, increments);
+                    jdbcTemplate.batchUpdate(DELETE_RESERVATION_SQL, deletes);
+                });
+            }
+        } catch (RuntimeException e) {
+            writeBehind.batchFailed();
+            log.warn("Écriture de {} réservations reportée : {}", batch.size(), e.getMessage());
+            return false;
+        }
+
+        Instant now = Instant.now();
+        Map<Long, Integer> returned = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Reservation reservation = batch.get(i);
+            if (rejected.contains(reservation)) {
+                reject(reservation);
+                returned.merge(reservation.productId, reservation.quantity, Integer::sum);
+            } else {
+                reservation.persisted = statuses[i] == Status.PENDING ? Persisted.RESERVED : Persisted.SETTLED;
+            }
+            if (reservation.persisted == Persisted.SETTLED
+                    && (reservation.status() != Status.FAILED || !reservation.expiresAt.isAfter(now))) {
+                reservations.remove(reservation.id);
+            }
+        }
+        reserved.forEach((productId, list) -> persistedStock.computeIfPresent(productId, (id, quantity) -> quantity
+                - list.stream().filter(reservation -> !rejected.contains(reservation)).mapToInt(r -> r.quantity).sum()));
+        restored.forEach((productId, quantity) -> persistedStock.computeIfPresent(productId, (id, q) -> q + quantity));
+        returned.forEach(this::reconcile);
+        return true;
+    }
+
+    /**
+     * Décrémente le stock en base de la somme des réservations de chaque produit ; si la condition échoue
+     * pour un produit, reprend ses réservations une à une et relève celles qui ne passent plus.
+     */
+    private void decrement(Map<Long, List<Reservation>> reserved, Set<Reservation> rejected) {
+        List<Long> products = new ArrayList<>(reserved.keySet());
+        List<Object[]> args = new ArrayList<>(products.size());
+        for (Long productId : products) {
+            int total = reserved.get(productId).stream().mapToInt(reservation -> reservation.quantity).sum();
+            args.add(new Object[]{total, productId, total});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, args);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                for (Reservation reservation : reserved.get(products.get(i))) {
+                    if (jdbcTemplate.update(DECREMENT_SQL,
+                            reservation.quantity, reservation.productId, reservation.quantity) == 0) {
+                        rejected.add(reservation);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Réservation dont le stock n'existe plus en base. */
+    private void reject(Reservation reservation) {
+        reservation.persisted = Persisted.SETTLED;
+        failedReservations.increment();
+        if (reservation.status.compareAndSet(Status.PENDING, Status.FAILED)) {
+            pending.decrementAndGet();
+            log.warn("Réservation {} refusée : stock du produit {} insuffisant en base",
+                    reservation.id, reservation.productId);
+        } else if (reservation.status.get() == Status.CONFIRMED) {
+            log.error("Réservation confirmée {} sans stock en base pour le produit {} ({} unité(s) survendue(s))",
+                    reservation.id, reservation.productId, reservation.quantity);
+        }
+    }
+
+    /**
+     * Corrige le compteur d'un produit dont des réservations ont été refusées en base : leur quantité,
+     * qui n'y sera jamais déduite, lui est rendue, et l'écart entre le stock relu en base et celui que le
+     * store y attendait est reporté. Le compteur reste ainsi le stock en base moins les réservations pas
+     * encore écrites, y compris celles faites pendant ce passage. Produit retiré s'il n'a plus de stock en base.
+     */
+    private void reconcile(long productId, int returned) {
+        List<Integer> quantity = jdbcTemplate.queryForList(SELECT_QUANTITY_SQL, Integer.class, productId);
+        if (quantity.isEmpty()) {
+            stock.remove(productId);
+            persistedStock.remove(productId);
+            log.warn("Stock du produit {} supprimé en base : produit non suivi", productId);
+            return;
+        }
+        int actual = quantity.get(0);
+        Integer expected = persistedStock.put(productId, actual);
+        int drift = expected == null ? 0 : actual - expected;
+        stock.computeIfAbsent(productId, id -> new AtomicInteger()).addAndGet(returned + drift);
+        log.warn("Stock du produit {} relu en base : {} ({} attendu(s))", productId, actual, expected);
+    }
+
+    /** Dernière écriture avant l'arrêt ; les réservations en attente sont reprises au prochain démarrage. */
+    @Override
+    public void destroy() throws Exception {
+        writeBehind.stop();
+        flush();
+    }
+
+    /** Ce qui est déjà écrit en base pour une réservation (modifié par le seul thread d'écriture). */
+    private enum Persisted {
+        /** Rien : le stock en base n'est pas encore décrémenté. */
+        NONE,
+        /** Stock décrémenté et réservation enregistrée. */
+        RESERVED,
+        /** Effet définitif écrit : plus rien à faire. */
+        SETTLED
+    }
+
+    /** Réservation de stock ; seul son état change, de {@link Status#PENDING} vers un état final. */
+    public static final class Reservation {
+
+        private final String id;
+        private final long productId;
+        private final long userId;
+        private final int quantity;
+        private final Instant expiresAt;
+        private final boolean tracked;
+        private final AtomicReference<Status> status = new AtomicReference<>(Status.PENDING);
+        private Persisted persisted;
+        /** 1 tant que la réservation est dans la file d'écriture. */
+        private volatile int queued;
+
+        private Reservation(String id, long productId, long userId, int quantity, Instant expiresAt,
+                            boolean tracked, Persisted persisted) {
+            this.id = id;
+            this.productId = productId;
+            this.userId = userId;
+            this.quantity = quantity;
+            this.expiresAt = expiresAt;
+            this.tracked = tracked;
+            this.persisted = persisted;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public long productId() {
+            return productId;
+        }
+
+        public long userId() {
+            return userId;
+        }
+
+        public int quantity() {
+            return quantity;
+        }
+
+        public Instant expiresAt() {
+            return expiresAt;
+        }
+
+        public Status status() {
+            return status.get();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package projetitecommerce.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import projetitecommerce.dto.OrderItem;
+import projetitecommerce.dto.OrderItemRequest;
+import projetitecommerce.dto.OrderRequest;
+import projetitecommerce.dto.OrderView;
+import projetitecommerce.exception.InsufficientStockException;
+import projetitecommerce.exception.OrderQueueFullException;
+import projetitecommerce.model.Order;
+import projetitecommerce.model.OrderLine;
+import projetitecommerce.model.Product;
+import projetitecommerce.repo.OrderRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Passage et suivi des commandes de l'utilisateur connecté.
+ *
+ * Une commande passe par trois étapes : validation (produits et prix lus dans le
+ * {@link CatalogReadModel}), réservation du stock ({@link InventoryStore}), puis écriture en base par
+ * {@link OrderWriter}, qui regroupe les commandes simultanées dans une même transaction. Les deux
+ * premières étapes se font en mémoire dans la requête : une commande refusée (produit inconnu, prix
+ * changé, stock insuffisant, file d'écriture pleine) l'est immédiatement, sans accès à la base.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderService {
+
+    /** Nombre maximal de produits différents par commande (comme le panier). */
+    public static final int MAX_LINES = CartService.MAX_LINES;
+    /** Quantité maximale par ligne (comme le panier). */
+    public static final int MAX_QUANTITY = CartService.MAX_QUANTITY;
+
+    private final CatalogReadModel catalogReadModel;
+    private final InventoryStore inventoryStore;
+    private final OrderWriter orderWriter;
+    private final OrderRepository orderRepository;
+
+    /**
+     * Valide la commande, réserve son stock une fois sa place prise dans la file d'écriture, et l'y met.
+     *
+     * @return la commande soumise ; {@link OrderWriter.PendingOrder#written()} se termine à son écriture.
+     * @throws IllegalArgumentException   commande vide, produit inconnu, quantité invalide ou prix changé.
+     * @throws InsufficientStockException stock insuffisant pour l'un des produits (rien n'est réservé).
+     * @throws OrderQueueFullException    trop de commandes en attente d'écriture (rien n'est réservé).
+     */
+    public OrderWriter.PendingOrder place(Long userId, OrderRequest request) {
+        List<OrderWriter.Line> lines = validate(request);
+        return orderWriter.submit(userId, lines, total(lines), () -> reserve(userId, lines));
+    }
+
+    /**
+     * Commande de l'utilisateur : en cours d'écriture, en échec ou écrite.
+     *
+     * @throws IllegalArgumentException commande inconnue ou d'un autre utilisateur.
+     */
+    public OrderView getOrder(Long userId, String orderId) {
+        OrderWriter.PendingOrder pending = orderWriter.find(orderId);
+        if (pending != null && pending.userId() == userId) {
+            return view(pending);
+        }
+        return orderRepository.findByIdAndUserIdWithLines(orderId, userId)
+                .map(OrderService::view)
+                .orElseThrow(() -> new IllegalArgumentException("Commande introuvable : " + orderId));
+    }
+
+    /** Lignes de la commande (produits regroupés) au prix actuel du catalogue. */
+    private List<OrderWriter.Line> validate(OrderRequest request) {
+        if (request == null || request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("La commande doit contenir au moins un produit");
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        Map<Long, Double> expectedPrices = new LinkedHashMap<>();
+        for (OrderItemRequest item : request.getItems()) {
+            int quantity = item.getQuantity() == null ? 1 : item.getQuantity();
+            if (item.getProductId() == null || quantity < 1) {
+                throw new IllegalArgumentException("Chaque ligne doit indiquer un produit et une quantité supérieure à 0");
+            }
+            int merged = quantities.merge(item.getProductId(), quantity, Integer::sum);
+            if (merged > MAX_QUANTITY) {
+                throw new IllegalArgumentException("La quantité par produit ne peut pas dépasser " + MAX_QUANTITY);
+            }
+            if (item.getPrice() != null) {
+                expectedPrices.put(item.getProductId(), item.getPrice());
+            }
+        }
+        if (quantities.size() > MAX_LINES) {
+            throw new IllegalArgumentException("La commande ne peut pas contenir plus de " + MAX_LINES + " produits");
+        }
+
+        List<Product> products = catalogReadModel.findProducts(quantities.keySet());
+        if (products.size() < quantities.size()) {
+            List<Long> missing = new ArrayList<>(quantities.keySet());
+            products.forEach(product -> missing.remove(product.getId()));
+            throw new IllegalArgumentException("Produit introuvable : " + missing.get(0));
+        }
+        List<OrderWriter.Line> lines = new ArrayList<>(products.size());
+        for (Product product : products) {
+            Double expected = expectedPrices.get(product.getId());
+            if (expected != null && Math.abs(expected - product.getPrice()) >= 0.005) {
+                throw new IllegalArgumentException("Le prix de " + product.getName() + " a changé : "
+                        + product.getPrice() + " au lieu de " + expected);
+            }
+            lines.add(new OrderWriter.Line(product.getId(), product.getName(), product.getBrandName(),
+                    product.getPrice(), quantities.get(product.getId())));
+        }
+        return lines;
+    }
+
+    /** Réserve le stock de chaque ligne ; si une ligne échoue, les réservations déjà faites sont rendues. */
+    private List<InventoryStore.Reservation> reserve(Long userId, List<OrderWriter.Line> lines) {
+        List<InventoryStore.Reservation> reservations = new ArrayList<>(lines.size());
+        try {
+            for (OrderWriter.Line line : lines) {
+                reservations.add(inventoryStore.reserve(line.productId(), line.quantity(), userId));
+            }
+        } catch (RuntimeException e) {
+            reservations.forEach(inventoryStore::release);
+            throw e;
+        }
+        return reservations;
+    }
+
+    private static double total(List<OrderWriter.Line> lines) {
+        double total = 0;
+        for (OrderWriter.Line line : lines) {
+            total += cents(line.unitPrice() * line.quantity());
+        }
+        return cents(total);
+    }
+
+    public static OrderView view(OrderWriter.PendingOrder order) {
+        List<OrderItem> items = new ArrayList<>(order.lines().size());
+        int totalQuantity = 0;
+        for (OrderWriter.Line line : order.lines()) {
+            items.add(new OrderItem(line.productId(), line.name(), line.brandName(), line.unitPrice(),
+                    line.quantity(), cents(line.unitPrice() * line.quantity())));
+            totalQuantity += line.quantity();
+        }
+        return new OrderView(order.id(), order.status().name(), items, totalQuantity, order.total(),
+                order.createdAt(), order.failure());
+    }
+
+    private static OrderView view(Order order) {
+        List<OrderItem> items = new ArrayList<>(order.getLines().size());
+        int totalQuantity = 0;
+        for (OrderLine line : order.getLines()) {
+            items.add(new OrderItem(line.getProductId(), line.getProductName(), line.getBrandName(),
+                    line.getUnitPrice(), line.getQuantity(), cents(line.getUnitPrice() * line.getQuantity())));
+            totalQuantity += line.getQuantity();
+        }
+        return new OrderView(order.getId(), OrderWriter.Status.CONFIRMED.name(), items, totalQuantity,
+                order.getTotal(), order.getCreatedAt(), null);
+    }
+
+    private static double cents(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
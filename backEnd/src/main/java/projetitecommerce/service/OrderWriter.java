@@ -0,0 +1,413 @@
+package projetitecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import projetitecommerce.exception.InsufficientStockException;
+import projetitecommerce.exception.OrderQueueFullException;
+
+import java.sql.SQLTransientException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Dernière étape du passage de commande : écriture en base, plusieurs commandes par transaction.
+ *
+ * Les commandes validées et dont le stock est réservé ({@link OrderService}) sont mises en file ;
+ * un thread dédié les écrit par lots JDBC d'au plus {@code order.write.batch-size} commandes par
+ * transaction. Pas d'attente pour former un lot : pendant qu'une transaction s'exécute, les commandes
+ * suivantes s'accumulent et partent ensemble dans la suivante. Le nombre de transactions suit donc la
+ * capacité de la base, plus le nombre de commandes.
+ *
+ * Avant chaque tentative d'écriture, une commande dont une réservation n'est plus en attente (expirée,
+ * ou refusée par l'écriture du stock en base) échoue sans être écrite et ses autres réservations sont
+ * rendues : une commande n'est jamais confirmée sans son stock.
+ *
+ * Une fois le lot validé, les réservations de stock sont confirmées et chaque appelant est prévenu
+ * par son {@link CompletableFuture}. Une erreur passagère (pool saturé, verrou, délai dépassé) ne fait
+ * échouer aucune commande : le lot est réécrit après une attente qui double à chaque essai, jusqu'à
+ * {@value #MAX_RETRY_DELAY_MILLIS} ms, et les commandes restent en attente. Toute autre erreur vient
+ * d'une commande du lot : il est repris commande par commande, seule la commande en cause échoue et
+ * son stock est rendu.
+ *
+ * La place dans la file ({@code order.write.queue-capacity}) est prise avant la réservation du stock :
+ * file pleine, la commande est refusée (503) sans que son stock ait été retenu, même brièvement.
+ */
+@Slf4j
+@Component
+public class OrderWriter implements InitializingBean, DisposableBean {
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (id, user_id, total, created_at) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_LINE_SQL =
+            "INSERT INTO order_lines (order_id, line_no, product_id, product_name, brand_name, unit_price, quantity) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    /** Attente avant de réécrire un lot après une erreur passagère, doublée à chaque essai. */
+    private static final long MIN_RETRY_DELAY_MILLIS = 50;
+    private static final long MAX_RETRY_DELAY_MILLIS = 5_000;
+
+    /** État d'une commande soumise. */
+    public enum Status {
+        /** Stock réservé, en attente d'écriture. */
+        PENDING,
+        /** Écrite en base, réservations confirmées. */
+        CONFIRMED,
+        /** Écriture impossible : stock rendu. */
+        FAILED
+    }
+
+    /** Ligne validée : prix et libellés du catalogue au moment de la commande. */
+    public record Line(long productId, String name, String brandName, double unitPrice, int quantity) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryStore inventoryStore;
+    private final BlockingQueue<PendingOrder> queue;
+    /** Places libres dans la file : prises à la soumission, rendues quand le thread d'écriture retire la commande. */
+    private final Semaphore slots;
+    private final int batchSize;
+    private final long failedRetentionMillis;
+    private final Timer writeTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter failures;
+    private final Counter retries;
+
+    /** Commandes soumises pas encore écrites, et commandes en échec (jusqu'à {@code order.failed-retention}). */
+    private final Map<String, PendingOrder> orders = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    public OrderWriter(JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       InventoryStore inventoryStore,
+                       MeterRegistry meterRegistry,
+                       @Value("${order.write.queue-capacity:10000}") int queueCapacity,
+                       @Value("${order.write.batch-size:200}") int batchSize,
+                       @Value("${order.failed-retention:10m}") Duration failedRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.inventoryStore = inventoryStore;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.slots = new Semaphore(queueCapacity);
+        this.batchSize = batchSize;
+        this.failedRetentionMillis = failedRetention.toMillis();
+
+        this.writeTimer = Timer.builder("order.write")
+                .description("Transaction d'écriture d'un lot de commandes")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("order.write.batch")
+                .description("Commandes écrites par transaction")
+                .register(meterRegistry);
+        this.failures = Counter.builder("order.write.failures")
+                .description("Commandes non écrites (stock rendu)")
+                .register(meterRegistry);
+        this.retries = Counter.builder("order.write.retries")
+                .description("Lots réécrits après une erreur passagère")
+                .register(meterRegistry);
+        Gauge.builder("order.write.queue", queue, BlockingQueue::size)
+                .description("Commandes en attente d'écriture")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Prend une place dans la file, réserve le stock de la commande validée puis la met en file.
+     *
+     * @param reserve réservation du stock, appelée seulement si la commande a sa place dans la file ;
+     *                ses exceptions sont propagées et la place est rendue.
+     * @throws OrderQueueFullException file pleine ou écriture arrêtée : rien n'est réservé.
+     */
+    public PendingOrder submit(long userId, List<Line> lines, double total,
+                               Supplier<List<InventoryStore.Reservation>> reserve) {
+        if (!running || !slots.tryAcquire()) {
+            throw new OrderQueueFullException("Trop de commandes en attente d'écriture, veuillez réessayer");
+        }
+        List<InventoryStore.Reservation> reservations;
+        try {
+            reservations = List.copyOf(reserve.get());
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        PendingOrder order = new PendingOrder(new UUID(random.nextLong(), random.nextLong()).toString(), userId,
+                List.copyOf(lines), total, LocalDateTime.now(), reservations);
+        orders.put(order.id, order);
+        // Toujours de la place : chaque commande en file détient une place
+        queue.add(order);
+        return order;
+    }
+
+    /** Commande soumise pas encore écrite, ou en échec depuis peu ; {@code null} sinon (voir la base). */
+    public PendingOrder find(String id) {
+        return id == null ? null : orders.get(id);
+    }
+
+    // --- Écriture ---
+
+    @Override
+    public void afterPropertiesSet() {
+        executor.execute(this::run);
+    }
+
+    /**
+     * Boucle d'écriture : à l'arrêt, la file est vidée avant de sortir. Interrompue (arrêt forcé pendant
+     * que la base est indisponible), elle fait échouer les commandes qu'elle n'a pas pu écrire.
+     */
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    slots.release(batch.size());
+                    write(batch);
+                }
+                purgeFailed(System.currentTimeMillis() - failedRetentionMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                slots.release(queue.drainTo(batch));
+                RuntimeException stopped = new IllegalStateException("Commande non écrite : arrêt de l'application");
+                batch.stream().filter(order -> order.status == Status.PENDING).forEach(order -> fail(order, stopped));
+                return;
+            } catch (RuntimeException e) {
+                log.error("Erreur lors de l'écriture des commandes", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Écrit un lot en une transaction, réécrit après une erreur passagère ; en cas d'autre échec,
+     * reprend ses commandes une à une.
+     */
+    private void write(List<PendingOrder> batch) throws InterruptedException {
+        List<PendingOrder> written;
+        try {
+            long start = System.nanoTime();
+            written = insertRetryingTransient(batch);
+            if (written.isEmpty()) {
+                return;
+            }
+            writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(written.size());
+        } catch (RuntimeException e) {
+            List<PendingOrder> remaining = batch.stream().filter(order -> order.status == Status.PENDING).toList();
+            if (remaining.size() > 1) {
+                log.warn("Lot de {} commandes refusé ({}) : reprise commande par commande", remaining.size(), e.getMessage());
+                for (PendingOrder order : remaining) {
+                    write(List.of(order));
+                }
+            } else if (!remaining.isEmpty()) {
+                fail(remaining.get(0), e);
+            }
+            return;
+        }
+        for (PendingOrder order : written) {
+            confirm(order);
+        }
+    }
+
+    /**
+     * Écrit les commandes du lot dont le stock est toujours réservé, en recommençant après une erreur
+     * passagère ; les réservations sont revérifiées avant chaque tentative.
+     *
+     * @return les commandes écrites.
+     */
+    private List<PendingOrder> insertRetryingTransient(List<PendingOrder> batch) throws InterruptedException {
+        for (long delay = MIN_RETRY_DELAY_MILLIS; ; delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS)) {
+            List<PendingOrder> reserved = withReservedStock(batch);
+            if (reserved.isEmpty()) {
+                return reserved;
+            }
+            try {
+                insert(reserved);
+                return reserved;
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    throw e;
+                }
+                retries.increment();
+                log.warn("Écriture de {} commandes reportée de {} ms : {}", reserved.size(), delay, e.getMessage());
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Commandes dont toutes les réservations sont encore en attente ; les autres échouent et leur
+     * stock restant est rendu.
+     */
+    private List<PendingOrder> withReservedStock(List<PendingOrder> batch) {
+        List<PendingOrder> reserved = new ArrayList<>(batch.size());
+        for (PendingOrder order : batch) {
+            InventoryStore.Reservation lost = order.reservations.stream()
+                    .filter(reservation -> reservation.status() != InventoryStore.Status.PENDING)
+                    .findFirst()
+                    .orElse(null);
+            if (lost == null) {
+                reserved.add(order);
+            } else if (order.status == Status.PENDING) {
+                fail(order, lost.status() == InventoryStore.Status.FAILED
+                        ? new InsufficientStockException("Stock du produit " + lost.productId() + " épuisé avant l'écriture de la commande")
+                        : new IllegalStateException("Réservation du produit " + lost.productId() + " expirée avant l'écriture de la commande"));
+            }
+        }
+        return reserved;
+    }
+
+    /** Erreur due à l'état de la base et non aux commandes : le même lot peut passer plus tard. */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLTransientException;
+    }
+
+    private void insert(List<PendingOrder> batch) {
+        List<Object[]> orderArgs = new ArrayList<>(batch.size());
+        List<Object[]> lineArgs = new ArrayList<>();
+        for (PendingOrder order : batch) {
+            orderArgs.add(new Object[]{order.id, order.userId, order.total, Timestamp.valueOf(order.createdAt)});
+            for (int i = 0; i < order.lines.size(); i++) {
+                Line line = order.lines.get(i);
+                lineArgs.add(new Object[]{order.id, i, line.productId(), line.name(), line.brandName(),
+                        line.unitPrice(), line.quantity()});
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orderArgs);
+            jdbcTemplate.batchUpdate(INSERT_LINE_SQL, lineArgs);
+        });
+    }
+
+    /** Commande écrite : son stock est définitivement sorti. */
+    private void confirm(PendingOrder order) {
+        for (InventoryStore.Reservation reservation : order.reservations) {
+            if (!inventoryStore.confirm(reservation) && reservation.status() != InventoryStore.Status.CONFIRMED) {
+                // Vérifiée juste avant l'écriture : perdue pendant la transaction, le stock est à vérifier
+                log.error("Commande {} écrite mais réservation {} du produit {} {}", order.id, reservation.id(),
+                        reservation.productId(), reservation.status());
+            }
+        }
+        order.status = Status.CONFIRMED;
+        orders.remove(order.id);
+        order.written.complete(order);
+    }
+
+    /** Commande impossible à écrire : son stock est rendu, l'appelant reçoit l'erreur. */
+    private void fail(PendingOrder order, RuntimeException e) {
+        order.reservations.forEach(inventoryStore::release);
+        order.failure = e.getMessage();
+        order.failedAt = System.currentTimeMillis();
+        order.status = Status.FAILED;
+        failures.increment();
+        log.warn("Commande {} non écrite : {}", order.id, e.getMessage());
+        order.written.completeExceptionally(e);
+    }
+
+    private void purgeFailed(long failedBefore) {
+        orders.values().removeIf(order -> order.status == Status.FAILED && order.failedAt < failedBefore);
+    }
+
+    /** Écrit les commandes encore en file avant l'arrêt. */
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.error("Commandes encore en attente d'écriture à l'arrêt : {}", queue.size());
+            executor.shutdownNow();
+        }
+    }
+
+    /** Commande soumise, suivie jusqu'à son écriture. */
+    public static final class PendingOrder {
+
+        private final String id;
+        private final long userId;
+        private final List<Line> lines;
+        private final double total;
+        private final LocalDateTime createdAt;
+        private final List<InventoryStore.Reservation> reservations;
+        private final CompletableFuture<PendingOrder> written = new CompletableFuture<>();
+        private volatile Status status = Status.PENDING;
+        private volatile String failure;
+        private volatile long failedAt;
+
+        private PendingOrder(String id, long userId, List<Line> lines, double total, LocalDateTime createdAt,
+                             List<InventoryStore.Reservation> reservations) {
+            this.id = id;
+            this.userId = userId;
+            this.lines = lines;
+            this.total = total;
+            this.createdAt = createdAt;
+            this.reservations = reservations;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public long userId() {
+            return userId;
+        }
+
+        public List<Line> lines() {
+            return lines;
+        }
+
+        public double total() {
+            return total;
+        }
+
+        public LocalDateTime createdAt() {
+            return createdAt;
+        }
+
+        public Status status() {
+            return status;
+        }
+
+        /** Cause de l'échec, {@code null} sauf en {@link Status#FAILED}. */
+        public String failure() {
+            return failure;
+        }
+
+        /** Terminé à l'écriture de la commande, en erreur si elle a échoué. */
+        public CompletableFuture<PendingOrder> written() {
+            return written;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package projetitecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import projetitecommerce.model.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export du catalogue complet en flux (NDJSON ou CSV), à mémoire constante.
+ *
+ * Les produits sont lus par un curseur en avant seulement ({@code Stream<Product>}) et écrits
+ * directement dans la réponse ; le contexte de persistance est vidé régulièrement pour que les
+ * entités déjà écrites puissent être libérées.
+ */
+@Service
+public class ProductExportService {
+
+    private static final String EXPORT_QUERY = "SELECT p FROM Product p LEFT JOIN FETCH p.category ORDER BY p.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int clearInterval;
+
+    /**
+     * @param fetchSize taille de fetch JDBC ; {@code Integer.MIN_VALUE} active la lecture ligne par ligne
+     *                  du driver MySQL (valeur par défaut).
+     */
+    public ProductExportService(ObjectMapper objectMapper,
+                                @Value("${catalog.export.fetch-size:-2147483648}") int fetchSize,
+                                @Value("${catalog.export.clear-interval:1000}") int clearInterval) {
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.clearInterval = clearInterval;
+    }
+
+    /**
+     * Écrit tous les produits dans le flux, triés par ID.
+     *
+     * @return le nombre de produits exportés.
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream target, CatalogFileFormat format) throws IOException {
+        OutputStream out = new BufferedOutputStream(target, 64 * 1024);
+        if (format == CatalogFileFormat.CSV) {
+            out.write(("id," + String.join(",", ProductImportService.COLUMNS) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        long count = 0;
+        try (Stream<Product> products = entityManager.createQuery(EXPORT_QUERY, Product.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                // Ne pas remplir le cache de second niveau avec tout le catalogue
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                if (format == CatalogFileFormat.CSV) {
+                    out.write(csvLine(product).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(objectMapper.writeValueAsBytes(product));
+                    out.write('\n');
+                }
+                if (++count % clearInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        return count;
+    }
+
+    private static String csvLine(Product product) {
+        String category = product.getCategory() != null ? product.getCategory().getName() : "";
+        return product.getId() + ","
+                + csv(product.getName()) + ","
+                + csv(product.getBrandName()) + ","
+                + product.getPrice() + ","
+                + csv(product.getImageUrl()) + ","
+                + csv(category) + "\n";
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,274 @@
+package projetitecommerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import projetitecommerce.dto.FacetCounts;
+import projetitecommerce.dto.FacetCounts.FacetValue;
+import projetitecommerce.dto.PriceBucket;
+import projetitecommerce.dto.PriceOrder;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Navigation à facettes du catalogue : nombre de produits par catégorie, par marque et par tranche de prix.
+ *
+ * Sans aucun filtre, les comptes viennent d'agrégats maintenus incrémentalement (notifications du
+ * {@link CatalogReadModel}). Avec des filtres, résultats et comptes de toutes les facettes sont
+ * calculés en un seul passage sur les produits candidats, sans requête COUNT.
+ * Une fourchette de prix restreint les candidats via le {@link ProductPriceIndex}, déjà triés par prix.
+ */
+@Component
+@Slf4j
+public class ProductFacetIndex implements CatalogChangeListener {
+
+    /** Nombre maximal de marques proposées (les plus fréquentes). */
+    public static final int MAX_BRANDS = 20;
+
+    private final CatalogReadModel catalogReadModel;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductPriceIndex productPriceIndex;
+
+    /** Facettes de chaque produit, pour retirer son ancienne contribution lors d'une modification. */
+    private final Map<Long, FacetKey> keys = new HashMap<>();
+    private final Map<Long, Long> categoryCounts = new HashMap<>();
+    private final Map<String, Long> brandCounts = new HashMap<>();
+    private final Map<PriceBucket, Long> priceCounts = new EnumMap<>(PriceBucket.class);
+
+    private record FacetKey(Long categoryId, String brand, PriceBucket price) {
+        static FacetKey of(Product product) {
+            return new FacetKey(categoryIdOf(product), product.getBrandName(), PriceBucket.of(product.getPrice()));
+        }
+    }
+
+    /** Produits correspondant à tous les filtres et comptes des facettes. */
+    public record Result(List<Product> products, FacetCounts facets) {}
+
+    public ProductFacetIndex(CatalogReadModel catalogReadModel, ProductSearchIndex productSearchIndex,
+                             ProductPriceIndex productPriceIndex) {
+        this.catalogReadModel = catalogReadModel;
+        this.productSearchIndex = productSearchIndex;
+        this.productPriceIndex = productPriceIndex;
+    }
+
+    /**
+     * Filtre le catalogue et compte les facettes.
+     *
+     * @param search     mot-clé (recherche plein texte), optionnel.
+     * @param categoryId catégorie, optionnelle.
+     * @param brand      marque exacte, optionnelle.
+     * @param price      tranche de prix, optionnelle.
+     * @return les produits (par pertinence si recherche, sinon dans l'ordre du catalogue) et les facettes.
+     */
+    public Result query(String search, Long categoryId, String brand, PriceBucket price) {
+        return query(search, categoryId, brand, price, null, null, null);
+    }
+
+    /**
+     * Filtre le catalogue sur une fourchette de prix, trie par prix et compte les facettes.
+     * La fourchette s'applique à toutes les facettes, comme la recherche.
+     *
+     * @param minPrice prix minimum inclus, optionnel.
+     * @param maxPrice prix maximum inclus, optionnel.
+     * @param order    tri par prix, optionnel. Sans tri, une recherche reste classée par pertinence ;
+     *                 sans recherche, une fourchette renvoie les produits par prix croissant.
+     * @throws IllegalArgumentException fourchette de prix invalide.
+     */
+    public Result query(String search, Long categoryId, String brand, PriceBucket price,
+                        Double minPrice, Double maxPrice, PriceOrder order) {
+        ProductPriceIndex.checkRange(minPrice, maxPrice);
+        boolean hasSearch = search != null && !search.isBlank();
+        boolean hasRange = minPrice != null || maxPrice != null;
+        String brandFilter = brand == null || brand.isBlank() ? null : brand.trim();
+        Map<Long, String> categoryNames = categoryNames();
+
+        if (!hasSearch && !hasRange && categoryId == null && brandFilter == null && price == null) {
+            List<Product> all = order == null
+                    ? catalogReadModel.findAllProducts()
+                    : productPriceIndex.find(null, null, null, order, Integer.MAX_VALUE);
+            synchronized (this) {
+                return new Result(all, facets(all.size(), categoryNames, categoryCounts, brandCounts, priceCounts,
+                        null, null, null));
+            }
+        }
+
+        // Sans recherche, l'index des prix fournit directement les candidats de la fourchette, triés par prix
+        boolean byPrice = !hasSearch && (hasRange || order != null);
+        List<Product> candidates;
+        if (hasSearch) {
+            candidates = productSearchIndex.search(search, Integer.MAX_VALUE);
+        } else if (byPrice) {
+            candidates = productPriceIndex.find(null, minPrice, maxPrice, PriceOrder.ASC, Integer.MAX_VALUE);
+        } else {
+            candidates = catalogReadModel.findAllProducts();
+        }
+
+        Map<Long, Long> categories = new HashMap<>();
+        Map<String, Long> brands = new HashMap<>();
+        Map<PriceBucket, Long> prices = new EnumMap<>(PriceBucket.class);
+        List<Product> matches = new ArrayList<>();
+        for (Product product : candidates) {
+            if (hasSearch && hasRange && !inRange(product.getPrice(), minPrice, maxPrice)) {
+                continue;
+            }
+            Long productCategory = categoryIdOf(product);
+            PriceBucket productPrice = PriceBucket.of(product.getPrice());
+            boolean categoryOk = categoryId == null || categoryId.equals(productCategory);
+            boolean brandOk = brandFilter == null || brandFilter.equals(product.getBrandName());
+            boolean priceOk = price == null || price == productPrice;
+
+            // Chaque facette ignore son propre filtre
+            if (brandOk && priceOk && productCategory != null) {
+                categories.merge(productCategory, 1L, Long::sum);
+            }
+            if (categoryOk && priceOk && product.getBrandName() != null) {
+                brands.merge(product.getBrandName(), 1L, Long::sum);
+            }
+            if (categoryOk && brandOk) {
+                prices.merge(productPrice, 1L, Long::sum);
+            }
+            if (categoryOk && brandOk && priceOk) {
+                matches.add(product);
+            }
+        }
+        if (byPrice) {
+            if (order == PriceOrder.DESC) {
+                Collections.reverse(matches);
+            }
+        } else if (order != null) {
+            matches.sort(order == PriceOrder.DESC ? CatalogSnapshot.BY_PRICE.reversed() : CatalogSnapshot.BY_PRICE);
+        }
+        return new Result(matches, facets(matches.size(), categoryNames, categories, brands, prices,
+                categoryId, brandFilter, price));
+    }
+
+    private static boolean inRange(double value, Double minPrice, Double maxPrice) {
+        return (minPrice == null || value >= minPrice) && (maxPrice == null || value <= maxPrice);
+    }
+
+    private Map<Long, String> categoryNames() {
+        Map<Long, String> names = new HashMap<>();
+        for (Category category : catalogReadModel.findAllCategories()) {
+            names.put(category.getId(), category.getName());
+        }
+        return names;
+    }
+
+    private static FacetCounts facets(long total, Map<Long, String> categoryNames,
+                                      Map<Long, Long> categories, Map<String, Long> brands, Map<PriceBucket, Long> prices,
+                                      Long selectedCategory, String selectedBrand, PriceBucket selectedPrice) {
+        List<FacetValue> categoryValues = new ArrayList<>();
+        categoryNames.forEach((id, name) -> {
+            long count = categories.getOrDefault(id, 0L);
+            if (count > 0 || id.equals(selectedCategory)) {
+                categoryValues.add(new FacetValue(String.valueOf(id), name, count, id.equals(selectedCategory)));
+            }
+        });
+        categoryValues.sort(Comparator.comparing(FacetValue::getLabel, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        List<FacetValue> brandValues = new ArrayList<>();
+        brands.forEach((brand, count) -> brandValues.add(new FacetValue(brand, brand, count, brand.equals(selectedBrand))));
+        brandValues.sort(Comparator.comparingLong(FacetValue::getCount).reversed()
+                .thenComparing(FacetValue::getLabel, String.CASE_INSENSITIVE_ORDER));
+        List<FacetValue> topBrands = new ArrayList<>(brandValues.subList(0, Math.min(MAX_BRANDS, brandValues.size())));
+        if (selectedBrand != null && topBrands.stream().noneMatch(FacetValue::isSelected)) {
+            topBrands.add(new FacetValue(selectedBrand, selectedBrand, brands.getOrDefault(selectedBrand, 0L), true));
+        }
+
+        List<FacetValue> priceValues = new ArrayList<>();
+        for (PriceBucket bucket : PriceBucket.values()) {
+            long count = prices.getOrDefault(bucket, 0L);
+            if (count > 0 || bucket == selectedPrice) {
+                priceValues.add(new FacetValue(bucket.key(), bucket.label(), count, bucket == selectedPrice));
+            }
+        }
+
+        return FacetCounts.builder()
+                .total(total)
+                .categories(categoryValues)
+                .brands(topBrands)
+                .prices(priceValues)
+                .build();
+    }
+
+    private static Long categoryIdOf(Product product) {
+        return product.getCategory() != null ? product.getCategory().getId() : null;
+    }
+
+    // --- Maintenance incrémentale des agrégats globaux ---
+
+    @Override
+    public synchronized void onCatalogLoaded(List<Category> categories, List<Product> products) {
+        keys.clear();
+        categoryCounts.clear();
+        brandCounts.clear();
+        priceCounts.clear();
+        for (Product product : products) {
+            add(product.getId(), FacetKey.of(product));
+        }
+        log.info("Facettes du catalogue calculées : {} produits, {} marques", keys.size(), brandCounts.size());
+    }
+
+    @Override
+    public synchronized void onProductSaved(Product product) {
+        FacetKey key = FacetKey.of(product);
+        FacetKey previous = keys.get(product.getId());
+        if (Objects.equals(previous, key)) {
+            return;
+        }
+        remove(product.getId());
+        add(product.getId(), key);
+    }
+
+    @Override
+    public synchronized void onProductDeleted(Long id) {
+        remove(id);
+    }
+
+    @Override
+    public synchronized void onCategoryDeleted(Long id) {
+        // Suppression en cascade des produits de la catégorie
+        List<Long> removed = keys.entrySet().stream()
+                .filter(entry -> id.equals(entry.getValue().categoryId()))
+                .map(Map.Entry::getKey)
+                .toList();
+        removed.forEach(this::remove);
+    }
+
+    private void add(Long id, FacetKey key) {
+        keys.put(id, key);
+        if (key.categoryId() != null) {
+            categoryCounts.merge(key.categoryId(), 1L, Long::sum);
+        }
+        if (key.brand() != null) {
+            brandCounts.merge(key.brand(), 1L, Long::sum);
+        }
+        priceCounts.merge(key.price(), 1L, Long::sum);
+    }
+
+    private void remove(Long id) {
+        FacetKey key = keys.remove(id);
+        if (key == null) {
+            return;
+        }
+        if (key.categoryId() != null) {
+            decrement(categoryCounts, key.categoryId());
+        }
+        if (key.brand() != null) {
+            decrement(brandCounts, key.brand());
+        }
+        decrement(priceCounts, key.price());
+    }
+
+    private static <K> void decrement(Map<K, Long> counts, K key) {
+        counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -0,0 +1,381 @@
+package projetitecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import projetitecommerce.dto.ImportReport;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+import projetitecommerce.repo.CategoryRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Import de produits en masse depuis un flux CSV ou NDJSON.
+ *
+ * Le flux est lu enregistrement par enregistrement : seules les lignes du lot courant sont en mémoire. Chaque ligne est
+ * validée avec les contraintes de {@link Product}, la catégorie est résolue par son nom (avec un cache
+ * local à l'import), puis les lignes valides sont insérées par lots JDBC, un lot par transaction.
+ * Un lot en échec n'annule pas les lots déjà validés.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    /** Nombre maximal d'erreurs détaillées dans le rapport. */
+    public static final int MAX_ERRORS = 1000;
+
+    /** Colonnes attendues (en-tête CSV ou champs NDJSON). */
+    static final List<String> COLUMNS = List.of("name", "brandName", "price", "imageUrl", "category");
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, brand_name, price, image_url, category_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRepository categoryRepository;
+    private final CatalogReadModel catalogReadModel;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                CategoryRepository categoryRepository,
+                                CatalogReadModel catalogReadModel,
+                                EntityManagerFactory entityManagerFactory,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${catalog.import.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.categoryRepository = categoryRepository;
+        this.catalogReadModel = catalogReadModel;
+        this.entityManagerFactory = entityManagerFactory;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Importe les produits lus dans le flux.
+     *
+     * @param input  corps de la requête, lu en flux.
+     * @param format format des lignes.
+     * @return le rapport d'import.
+     */
+    public ImportReport importProducts(InputStream input, CatalogFileFormat format) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportState state = new ImportState();
+        Map<String, Optional<Long>> categoryIds = new HashMap<>();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            // En CSV, un champ entre guillemets peut contenir des retours à la ligne (écrits tels quels par l'export)
+            RecordReader records = new RecordReader(reader, format == CatalogFileFormat.CSV);
+            Map<String, Integer> header = null;
+            String line;
+            while ((line = records.next()) != null) {
+                long lineNumber = records.line();
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == CatalogFileFormat.CSV && header == null) {
+                    header = parseHeader(line);
+                    continue;
+                }
+                state.received++;
+                try {
+                    Map<String, String> fields = format == CatalogFileFormat.CSV ? csvFields(line, header) : jsonFields(line);
+                    batch.add(toRow(fields, categoryIds));
+                    batchLines.add(lineNumber);
+                } catch (IllegalArgumentException e) {
+                    state.reject(lineNumber, e.getMessage());
+                }
+                if (batch.size() == batchSize) {
+                    flush(batch, batchLines, state);
+                }
+            }
+        } finally {
+            flush(batch, batchLines, state);
+            if (state.imported > 0) {
+                // Les insertions JDBC contournent Hibernate et les contrôleurs : résultats de requêtes
+                // en cache périmés, modèle de lecture à recharger
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+                catalogReadModel.reload();
+            }
+        }
+
+        log.info("Import de produits terminé : {} reçus, {} importés, {} rejetés", state.received, state.imported, state.rejected);
+        return ImportReport.builder()
+                .received(state.received)
+                .imported(state.imported)
+                .rejected(state.rejected)
+                .durationMs(System.currentTimeMillis() - start)
+                .errors(state.errors)
+                .errorsTruncated(state.rejected > state.errors.size())
+                .build();
+    }
+
+    /**
+     * Insère le lot courant dans sa propre transaction, puis vide le lot.
+     */
+    private void flush(List<Object[]> batch, List<Long> batchLines, ImportState state) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch));
+            state.imported += batch.size();
+        } catch (RuntimeException e) {
+            log.warn("Lot d'import rejeté ({} lignes) : {}", batch.size(), e.getMessage());
+            for (Long line : batchLines) {
+                state.reject(line, "Insertion refusée par la base : " + e.getMessage());
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    /**
+     * Valide une ligne et la convertit en paramètres d'insertion.
+     */
+    private Object[] toRow(Map<String, String> fields, Map<String, Optional<Long>> categoryIds) {
+        Product product = new Product();
+        product.setName(fields.get("name"));
+        product.setBrandName(fields.get("brandName"));
+        product.setImageUrl(fields.get("imageUrl"));
+
+        String rawPrice = fields.get("price");
+        if (rawPrice == null || rawPrice.isBlank()) {
+            throw new IllegalArgumentException("Le prix est obligatoire");
+        }
+        try {
+            product.setPrice(Double.parseDouble(rawPrice.trim().replace(',', '.')));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Prix invalide : " + rawPrice);
+        }
+
+        String categoryName = fields.get("category");
+        if (categoryName == null || categoryName.isBlank()) {
+            throw new IllegalArgumentException("La catégorie est obligatoire");
+        }
+        Long categoryId = categoryIds
+                .computeIfAbsent(categoryName.trim(), name -> categoryRepository.findByName(name).map(Category::getId))
+                .orElseThrow(() -> new IllegalArgumentException("Catégorie inconnue : " + categoryName));
+        Category category = new Category();
+        category.setId(categoryId);
+        product.setCategory(category);
+
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return new Object[]{product.getName(), product.getBrandName(), product.getPrice(), product.getImageUrl(), categoryId};
+    }
+
+    // --- Lecture des formats ---
+
+    private static Map<String, Integer> parseHeader(String line) {
+        List<String> names = splitCsv(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim(), i);
+        }
+        for (String column : COLUMNS) {
+            if (!header.containsKey(column)) {
+                throw new IllegalArgumentException("En-tête CSV incomplet, colonnes attendues : " + String.join(",", COLUMNS));
+            }
+        }
+        return header;
+    }
+
+    private static Map<String, String> csvFields(String line, Map<String, Integer> header) {
+        List<String> values = splitCsv(line);
+        Map<String, String> fields = new HashMap<>();
+        for (String column : COLUMNS) {
+            int index = header.get(column);
+            fields.put(column, index < values.size() ? values.get(index) : null);
+        }
+        return fields;
+    }
+
+    private Map<String, String> jsonFields(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON invalide : " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Chaque ligne doit être un objet JSON");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (String column : COLUMNS) {
+            JsonNode value = node.get(column);
+            // La catégorie peut être donnée par son nom ou sous la forme {"name": "..."}
+            if (value != null && value.isObject()) {
+                value = value.get("name");
+            }
+            fields.put(column, value == null || value.isNull() ? null : value.asText());
+        }
+        return fields;
+    }
+
+    /**
+     * Découpe une ligne CSV (séparateur virgule, champs entre guillemets, guillemets doublés).
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Guillemet non fermé");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * Découpe le flux en enregistrements : une ligne, ou en CSV plusieurs lignes physiques lorsqu'un
+     * champ entre guillemets contient un retour à la ligne ({@code \n}, {@code \r\n} ou {@code \r},
+     * conservé tel quel). Le numéro de ligne d'un enregistrement est celui de sa première ligne.
+     */
+    static final class RecordReader {
+
+        private final Reader reader;
+        private final boolean quotedLineBreaks;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        /** Lignes physiques entièrement lues. */
+        private long lines;
+        private long recordLine;
+
+        RecordReader(Reader reader, boolean quotedLineBreaks) {
+            this.reader = reader;
+            this.quotedLineBreaks = quotedLineBreaks;
+        }
+
+        /** Enregistrement suivant, sans son retour à la ligne final, ou {@code null} en fin de flux. */
+        String next() throws IOException {
+            StringBuilder record = new StringBuilder();
+            boolean quoted = false;
+            recordLine = lines + 1;
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+            for (; c >= 0; c = read()) {
+                if (c == '\n' || c == '\r') {
+                    boolean crlf = c == '\r' && peek() == '\n';
+                    if (!quoted) {
+                        if (crlf) {
+                            read();
+                        }
+                        lines++;
+                        return record.toString();
+                    }
+                    if (!crlf) {
+                        lines++;
+                    }
+                } else if (c == '"' && quotedLineBreaks) {
+                    // Un guillemet doublé ("") ferme puis rouvre le champ : l'état reste correct
+                    quoted = !quoted;
+                }
+                record.append((char) c);
+            }
+            lines++;
+            return record.toString();
+        }
+
+        /** Numéro (à partir de 1) de la première ligne du dernier enregistrement lu. */
+        long line() {
+            return recordLine;
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        private boolean fill() throws IOException {
+            int read = reader.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+    }
+
+    /** Compteurs et erreurs accumulés pendant un import. */
+    private static final class ImportState {
+        long received;
+        long imported;
+        long rejected;
+        final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package projetitecommerce.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import projetitecommerce.dto.ProductCursor;
+import projetitecommerce.dto.ProductPage;
+import projetitecommerce.dto.ProductRow;
+import projetitecommerce.dto.ProductSort;
+import projetitecommerce.model.Product;
+import projetitecommerce.repo.ProductRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listing paginé des produits par curseur (keyset pagination).
+ * Chaque page est une recherche dichotomique dans le {@link CatalogReadModel} ou, lorsqu'il est
+ * désactivé, une requête bornée par index : la latence et la mémoire par requête ne dépendent
+ * que de la taille de page. En base, une page est une seule requête de projection
+ * ({@link ProductRow}, catégorie jointe) en transaction de lecture seule.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductListingService {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private final ProductRepository productRepository;
+    private final CatalogReadModel catalogReadModel;
+
+    /**
+     * Récupère une page de produits.
+     *
+     * @param sort  critère de tri (id, price, name).
+     * @param after curseur renvoyé par la page précédente, ou {@code null} pour la première page.
+     * @param limit taille de page demandée, bornée à {@link #MAX_LIMIT}.
+     * @return la page et le curseur de la page suivante.
+     */
+    public ProductPage findPage(String sort, String after, Integer limit) {
+        ProductSort productSort = ProductSort.from(sort);
+        int size = normalizeLimit(limit);
+        ProductCursor cursor = (after == null || after.isBlank()) ? null : ProductCursor.decode(after);
+        if (cursor != null && cursor.getSort() != productSort) {
+            throw new IllegalArgumentException("Le curseur ne correspond pas au tri demandé");
+        }
+
+        // Une ligne de plus que demandé pour savoir s'il existe une page suivante
+        List<Product> rows = catalogReadModel.isEnabled()
+                ? catalogReadModel.findPage(productSort, cursor, size + 1)
+                : findPageInDatabase(productSort, cursor, size + 1);
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = ProductCursor.after(productSort, rows.get(size - 1)).encode();
+        }
+        return new ProductPage(new ArrayList<>(rows), nextCursor);
+    }
+
+    private List<Product> findPageInDatabase(ProductSort productSort, ProductCursor cursor, int count) {
+        Limit fetch = Limit.of(count);
+        List<ProductRow> rows = switch (productSort) {
+            case ID -> productRepository.findPageOrderById(cursor == null ? 0L : cursor.getLastId(), fetch);
+            case PRICE -> cursor == null
+                    ? productRepository.findFirstPageOrderByPrice(fetch)
+                    : productRepository.findPageOrderByPrice(cursor.lastPrice(), cursor.getLastId(), fetch);
+            case NAME -> cursor == null
+                    ? productRepository.findFirstPageOrderByName(fetch)
+                    : productRepository.findPageOrderByName(cursor.getLastValue(), cursor.getLastId(), fetch);
+        };
+        return ProductRow.toProducts(rows);
+    }
+
+    /**
+     * Taille de page : {@link #DEFAULT_LIMIT} par défaut, bornée à {@link #MAX_LIMIT}.
+     *
+     * @throws IllegalArgumentException taille inférieure à 1.
+     */
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("La taille de page doit être supérieure à 0");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,276 @@
+package projetitecommerce.service;
+
+import org.springframework.stereotype.Component;
+import projetitecommerce.dto.PriceOrder;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index des produits par prix, global et par catégorie : tableaux triés par (prix, ID) avec les prix et
+ * les identifiants en tableaux primitifs.
+ *
+ * Une fourchette de prix se résout par deux recherches dichotomiques, le top N ("les moins chers",
+ * "les plus chers") est une tranche du tableau : coût O(log n + N), sans parcourir le catalogue.
+ * Maintenu via {@link CatalogChangeListener} ; chaque écriture remplace les listes concernées
+ * (copie O(n)) et les lectures ne prennent aucun verrou.
+ */
+@Component
+public class ProductPriceIndex implements CatalogChangeListener {
+
+    private volatile PriceList all = PriceList.EMPTY;
+    private volatile Map<Long, PriceList> byCategory = Map.of();
+    /** ID produit → produit indexé, pour retrouver son ancienne position lors d'une modification. */
+    private final Map<Long, Product> indexed = new HashMap<>();
+
+    /**
+     * Produits dont le prix est dans la fourchette, triés par prix.
+     *
+     * @param categoryId catégorie, ou {@code null} pour tout le catalogue.
+     * @param minPrice   prix minimum inclus, optionnel.
+     * @param maxPrice   prix maximum inclus, optionnel.
+     * @param order      ordre croissant ou décroissant.
+     * @param limit      nombre maximal de produits renvoyés.
+     */
+    public List<Product> find(Long categoryId, Double minPrice, Double maxPrice, PriceOrder order, int limit) {
+        checkRange(minPrice, maxPrice);
+        PriceList list = listOf(categoryId);
+        int from = list.from(minPrice);
+        int to = list.to(maxPrice);
+        int count = Math.min(Math.max(0, to - from), Math.max(0, limit));
+        if (count == 0) {
+            return List.of();
+        }
+        if (order == PriceOrder.DESC) {
+            Product[] slice = new Product[count];
+            for (int i = 0; i < count; i++) {
+                slice[i] = list.products[to - 1 - i];
+            }
+            return List.of(slice);
+        }
+        return List.of(Arrays.copyOfRange(list.products, from, from + count));
+    }
+
+    /** Nombre de produits dont le prix est dans la fourchette (deux recherches dichotomiques). */
+    public int count(Long categoryId, Double minPrice, Double maxPrice) {
+        checkRange(minPrice, maxPrice);
+        PriceList list = listOf(categoryId);
+        return Math.max(0, list.to(maxPrice) - list.from(minPrice));
+    }
+
+    /**
+     * Vérifie une fourchette de prix reçue en paramètre.
+     *
+     * @throws IllegalArgumentException prix négatif, non numérique ou minimum supérieur au maximum.
+     */
+    public static void checkRange(Double minPrice, Double maxPrice) {
+        if ((minPrice != null && !(minPrice >= 0)) || (maxPrice != null && !(maxPrice >= 0))) {
+            throw new IllegalArgumentException("Le prix doit être un nombre positif");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("Le prix minimum doit être inférieur ou égal au prix maximum");
+        }
+    }
+
+    private PriceList listOf(Long categoryId) {
+        return categoryId == null ? all : byCategory.getOrDefault(categoryId, PriceList.EMPTY);
+    }
+
+    // --- Maintenance incrémentale ---
+
+    @Override
+    public synchronized void onCatalogLoaded(List<Category> categories, List<Product> products) {
+        indexed.clear();
+        Map<Long, List<Product>> perCategory = new HashMap<>();
+        for (Product product : products) {
+            indexed.put(product.getId(), product);
+            Long categoryId = categoryIdOf(product);
+            if (categoryId != null) {
+                perCategory.computeIfAbsent(categoryId, k -> new ArrayList<>()).add(product);
+            }
+        }
+        Map<Long, PriceList> lists = new HashMap<>();
+        perCategory.forEach((categoryId, list) -> lists.put(categoryId, PriceList.of(list)));
+        byCategory = Map.copyOf(lists);
+        all = PriceList.of(products);
+    }
+
+    @Override
+    public synchronized void onProductSaved(Product product) {
+        Map<Long, PriceList> lists = new HashMap<>(byCategory);
+        Product previous = indexed.put(product.getId(), product);
+        if (previous != null) {
+            all = all.without(previous);
+            lists.computeIfPresent(categoryIdOf(previous), (id, list) -> list.without(previous));
+        }
+        all = all.with(product);
+        Long categoryId = categoryIdOf(product);
+        if (categoryId != null) {
+            lists.put(categoryId, lists.getOrDefault(categoryId, PriceList.EMPTY).with(product));
+        }
+        lists.values().removeIf(list -> list.products.length == 0);
+        byCategory = Map.copyOf(lists);
+    }
+
+    @Override
+    public synchronized void onProductDeleted(Long id) {
+        Product previous = indexed.remove(id);
+        if (previous == null) {
+            return;
+        }
+        all = all.without(previous);
+        Map<Long, PriceList> lists = new HashMap<>(byCategory);
+        lists.computeIfPresent(categoryIdOf(previous), (k, list) -> list.without(previous));
+        lists.values().removeIf(list -> list.products.length == 0);
+        byCategory = Map.copyOf(lists);
+    }
+
+    @Override
+    public synchronized void onCategorySaved(Category category) {
+        // Les produits de la catégorie ont été republiés par le modèle de lecture : on rafraîchit les références
+        PriceList list = byCategory.get(category.getId());
+        if (list == null) {
+            return;
+        }
+        Product[] refreshed = new Product[list.products.length];
+        for (int i = 0; i < refreshed.length; i++) {
+            Product product = list.products[i];
+            refreshed[i] = product.getCategory() == category ? product : copyWithCategory(product, category);
+            indexed.put(product.getId(), refreshed[i]);
+        }
+        PriceList updated = new PriceList(list.prices, list.ids, refreshed);
+        Map<Long, PriceList> lists = new HashMap<>(byCategory);
+        lists.put(category.getId(), updated);
+        byCategory = Map.copyOf(lists);
+        all = PriceList.of(indexed.values());
+    }
+
+    @Override
+    public synchronized void onCategoryDeleted(Long id) {
+        // Suppression en cascade des produits de la catégorie
+        PriceList list = byCategory.get(id);
+        if (list == null) {
+            return;
+        }
+        for (Product product : list.products) {
+            indexed.remove(product.getId());
+        }
+        Map<Long, PriceList> lists = new HashMap<>(byCategory);
+        lists.remove(id);
+        byCategory = Map.copyOf(lists);
+        all = PriceList.of(indexed.values());
+    }
+
+    private static Long categoryIdOf(Product product) {
+        return product.getCategory() != null ? product.getCategory().getId() : null;
+    }
+
+    private static Product copyWithCategory(Product source, Category category) {
+        Product copy = new Product();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setBrandName(source.getBrandName());
+        copy.setPrice(source.getPrice());
+        copy.setImageUrl(source.getImageUrl());
+        copy.setCategory(category);
+        return copy;
+    }
+
+    /**
+     * Liste immuable triée par (prix, ID) : prix et identifiants en tableaux primitifs pour la recherche,
+     * produits dans le même ordre pour la lecture.
+     */
+    static final class PriceList {
+
+        static final PriceList EMPTY = new PriceList(new double[0], new long[0], new Product[0]);
+
+        private final double[] prices;
+        private final long[] ids;
+        private final Product[] products;
+
+        private PriceList(double[] prices, long[] ids, Product[] products) {
+            this.prices = prices;
+            this.ids = ids;
+            this.products = products;
+        }
+
+        static PriceList of(java.util.Collection<Product> source) {
+            Product[] products = source.toArray(new Product[0]);
+            Arrays.sort(products, CatalogSnapshot.BY_PRICE);
+            double[] prices = new double[products.length];
+            long[] ids = new long[products.length];
+            for (int i = 0; i < products.length; i++) {
+                prices[i] = products[i].getPrice();
+                ids[i] = products[i].getId();
+            }
+            return new PriceList(prices, ids, products);
+        }
+
+        /** Premier indice dont le prix est supérieur ou égal au minimum. */
+        int from(Double minPrice) {
+            return minPrice == null ? 0 : lowerBound(minPrice, Long.MIN_VALUE);
+        }
+
+        /** Indice suivant le dernier prix inférieur ou égal au maximum. */
+        int to(Double maxPrice) {
+            return maxPrice == null ? prices.length : lowerBound(Math.nextUp(maxPrice), Long.MIN_VALUE);
+        }
+
+        /** Premier indice dont le couple (prix, ID) est supérieur ou égal à celui donné. */
+        private int lowerBound(double price, long id) {
+            int low = 0;
+            int high = prices.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = Double.compare(prices[mid], price);
+                if (cmp < 0 || (cmp == 0 && ids[mid] < id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        PriceList with(Product product) {
+            int at = lowerBound(product.getPrice(), product.getId());
+            int n = prices.length;
+            double[] newPrices = new double[n + 1];
+            long[] newIds = new long[n + 1];
+            Product[] newProducts = new Product[n + 1];
+            System.arraycopy(prices, 0, newPrices, 0, at);
+            System.arraycopy(ids, 0, newIds, 0, at);
+            System.arraycopy(products, 0, newProducts, 0, at);
+            newPrices[at] = product.getPrice();
+            newIds[at] = product.getId();
+            newProducts[at] = product;
+            System.arraycopy(prices, at, newPrices, at + 1, n - at);
+            System.arraycopy(ids, at, newIds, at + 1, n - at);
+            System.arraycopy(products, at, newProducts, at + 1, n - at);
+            return new PriceList(newPrices, newIds, newProducts);
+        }
+
+        PriceList without(Product product) {
+            int at = lowerBound(product.getPrice(), product.getId());
+            if (at == ids.length || ids[at] != product.getId()) {
+                return this;
+            }
+            int n = prices.length;
+            double[] newPrices = new double[n - 1];
+            long[] newIds = new long[n - 1];
+            Product[] newProducts = new Product[n - 1];
+            System.arraycopy(prices, 0, newPrices, 0, at);
+            System.arraycopy(ids, 0, newIds, 0, at);
+            System.arraycopy(products, 0, newProducts, 0, at);
+            System.arraycopy(prices, at + 1, newPrices, at, n - at - 1);
+            System.arraycopy(ids, at + 1, newIds, at, n - at - 1);
+            System.arraycopy(products, at + 1, newProducts, at, n - at - 1);
+            return new PriceList(newPrices, newIds, newProducts);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package projetitecommerce.service;
+
+import org.springframework.stereotype.Component;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index inversé en mémoire sur le nom et la marque des produits.
+ *
+ * Chaque mot (replié par {@link TextNormalizer}) pointe vers la liste des produits qui le contiennent,
+ * avec un poids dépendant du champ. Le dictionnaire est trié, ce qui permet la recherche par préfixe
+ * ("tee" trouve "tee-shirt"). Les résultats doivent contenir tous les mots de la requête et sont
+ * classés par pertinence (poids du champ × rareté du mot, correspondance exacte privilégiée).
+ *
+ * L'index est maintenu incrémentalement via {@link CatalogChangeListener}. Les listes de postings sont
+ * immuables et remplacées à chaque écriture : les recherches ne prennent aucun verrou. Un rechargement
+ * complet construit un nouvel index, publié d'un coup ; une recherche concurrente voit l'ancien ou le
+ * nouveau, jamais un index partiel.
+ */
+@Component
+public class ProductSearchIndex implements CatalogChangeListener {
+
+    public static final int DEFAULT_LIMIT = 50;
+
+    private static final float NAME_WEIGHT = 2.0f;
+    private static final float BRAND_WEIGHT = 1.5f;
+    private static final float PREFIX_FACTOR = 0.5f;
+    /**
+     * Nombre de mots du dictionnaire notés finement pour un préfixe ; au-delà, les produits des mots
+     * suivants correspondent toujours, avec un score plancher (rareté minimale), sans calcul par mot.
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    /** Rareté d'un mot présent dans tous les produits : plancher de {@code log(1 + total / n)}. */
+    private static final float MIN_IDF = (float) Math.log(2.0);
+
+    private volatile Index index = new Index(new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>());
+
+    private record IndexedProduct(Product product, Map<String, Float> terms) {}
+
+    /**
+     * @param postings  mot → (ID produit → poids).
+     * @param documents ID produit → document indexé.
+     */
+    private record Index(ConcurrentSkipListMap<String, Map<Long, Float>> postings, Map<Long, IndexedProduct> documents) {}
+
+    /**
+     * Recherche les produits dont le nom ou la marque contient tous les mots de la requête
+     * (mot complet ou préfixe).
+     *
+     * @param query texte saisi par l'utilisateur.
+     * @param limit nombre maximal de résultats.
+     * @return produits triés par pertinence décroissante.
+     */
+    public List<Product> search(String query, int limit) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Index current = index;
+        Map<Long, Float> scores = null;
+        for (String token : tokens) {
+            Map<Long, Float> tokenScores = match(current, token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                // Intersection : on parcourt la plus petite des deux maps
+                Map<Long, Float> small = scores.size() <= tokenScores.size() ? scores : tokenScores;
+                Map<Long, Float> large = small == scores ? tokenScores : scores;
+                Map<Long, Float> merged = new HashMap<>(small.size() * 2);
+                small.forEach((id, score) -> {
+                    Float other = large.get(id);
+                    if (other != null) {
+                        merged.put(id, score + other);
+                    }
+                });
+                scores = merged;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Product> results = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Map.Entry<Long, Float> entry : ranked) {
+            IndexedProduct doc = current.documents().get(entry.getKey());
+            if (doc != null) {
+                results.add(doc.product());
+                if (results.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    /** Nombre de produits indexés. */
+    public int size() {
+        return index.documents().size();
+    }
+
+    /**
+     * Score de chaque produit pour un mot de requête : correspondance exacte, sinon meilleur préfixe.
+     * Tous les mots commençant par le préfixe sont retenus, même un préfixe court ("s") : seuls les
+     * {@value #MAX_PREFIX_EXPANSIONS} premiers du dictionnaire sont notés selon leur rareté, les produits
+     * des suivants ne font que compléter l'ensemble avec le score plancher.
+     */
+    private static Map<Long, Float> match(Index index, String token) {
+        Map<Long, Float> scores = new HashMap<>();
+        int total = Math.max(1, index.documents().size());
+        NavigableMap<String, Map<Long, Float>> range = index.postings().subMap(token, true, token + Character.MAX_VALUE, false);
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Float>> term : range.entrySet()) {
+            Map<Long, Float> posting = term.getValue();
+            if (expansions++ < MAX_PREFIX_EXPANSIONS) {
+                float factor = term.getKey().equals(token) ? 1.0f : PREFIX_FACTOR;
+                float idf = (float) Math.log(1.0 + (double) total / posting.size());
+                posting.forEach((id, weight) -> scores.merge(id, weight * factor * idf, Math::max));
+            } else {
+                posting.forEach((id, weight) -> scores.putIfAbsent(id, weight * PREFIX_FACTOR * MIN_IDF));
+            }
+        }
+        return scores;
+    }
+
+    // --- Maintenance incrémentale ---
+
+    @Override
+    public synchronized void onCatalogLoaded(List<Category> categories, List<Product> products) {
+        Map<Long, IndexedProduct> documents = new ConcurrentHashMap<>();
+        Map<String, Map<Long, Float>> building = new HashMap<>();
+        for (Product product : products) {
+            Map<String, Float> terms = termsOf(product);
+            documents.put(product.getId(), new IndexedProduct(product, terms));
+            terms.forEach((term, weight) -> building.computeIfAbsent(term, t -> new HashMap<>()).put(product.getId(), weight));
+        }
+        ConcurrentSkipListMap<String, Map<Long, Float>> postings = new ConcurrentSkipListMap<>();
+        building.forEach((term, posting) -> postings.put(term, Collections.unmodifiableMap(posting)));
+        index = new Index(postings, documents);
+    }
+
+    /**
+     * Le produit reste trouvable pendant la mise à jour : le nouveau document et ses mots sont publiés
+     * avant de retirer les mots qu'il n'a plus.
+     */
+    @Override
+    public synchronized void onProductSaved(Product product) {
+        Map<String, Float> terms = termsOf(product);
+        IndexedProduct previous = index.documents().put(product.getId(), new IndexedProduct(product, terms));
+        terms.forEach((term, weight) -> {
+            Map<Long, Float> posting = new HashMap<>(index.postings().getOrDefault(term, Map.of()));
+            posting.put(product.getId(), weight);
+            index.postings().put(term, Collections.unmodifiableMap(posting));
+        });
+        if (previous != null) {
+            previous.terms().keySet().stream()
+                    .filter(term -> !terms.containsKey(term))
+                    .forEach(term -> removePosting(term, product.getId()));
+        }
+    }
+
+    @Override
+    public synchronized void onProductDeleted(Long id) {
+        remove(id);
+    }
+
+    @Override
+    public synchronized void onCategoryDeleted(Long id) {
+        List<Long> removed = index.documents().values().stream()
+                .filter(doc -> doc.product().getCategory() != null && id.equals(doc.product().getCategory().getId()))
+                .map(doc -> doc.product().getId())
+                .toList();
+        removed.forEach(this::remove);
+    }
+
+    @Override
+    public synchronized void onCategorySaved(Category category) {
+        // Les produits de la catégorie ont été republiés par le modèle de lecture : on rafraîchit les références
+        index.documents().replaceAll((id, doc) -> {
+            Category current = doc.product().getCategory();
+            if (current == null || !category.getId().equals(current.getId()) || current == category) {
+                return doc;
+            }
+            Product refreshed = copyWithCategory(doc.product(), category);
+            return new IndexedProduct(refreshed, doc.terms());
+        });
+    }
+
+    private void remove(Long id) {
+        IndexedProduct previous = index.documents().remove(id);
+        if (previous != null) {
+            previous.terms().keySet().forEach(term -> removePosting(term, id));
+        }
+    }
+
+    private void removePosting(String term, Long id) {
+        Map<Long, Float> posting = index.postings().get(term);
+        if (posting == null) {
+            return;
+        }
+        Map<Long, Float> updated = new HashMap<>(posting);
+        updated.remove(id);
+        if (updated.isEmpty()) {
+            index.postings().remove(term);
+        } else {
+            index.postings().put(term, Collections.unmodifiableMap(updated));
+        }
+    }
+
+    private static Map<String, Float> termsOf(Product product) {
+        Map<String, Float> terms = new HashMap<>();
+        for (String token : TextNormalizer.tokenize(product.getName())) {
+            terms.merge(token, NAME_WEIGHT, Math::max);
+        }
+        for (String token : TextNormalizer.tokenize(product.getBrandName())) {
+            terms.merge(token, BRAND_WEIGHT, Math::max);
+        }
+        return terms;
+    }
+
+    private static Product copyWithCategory(Product source, Category category) {
+        Product copy = new Product();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setBrandName(source.getBrandName());
+        copy.setPrice(source.getPrice());
+        copy.setImageUrl(source.getImageUrl());
+        copy.setCategory(category);
+        return copy;
+    }
+}
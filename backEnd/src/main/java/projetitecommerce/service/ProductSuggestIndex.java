@@ -0,0 +1,563 @@
+package projetitecommerce.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import projetitecommerce.dto.Suggestion;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Autocomplétion de la barre de recherche : arbre de préfixes compressé (radix) sur les noms de produits,
+ * les marques et les catégories, repliés par {@link TextNormalizer}.
+ *
+ * Chaque complétion est accessible par le début de chacun de ses mots ("basique" propose
+ * "T-shirt Homme Basique"). Chaque nœud porte ses {@value #MAX_LIMIT} meilleures complétions, calculées à
+ * l'écriture : une recherche descend l'arbre caractère par caractère (repliement compris) et renvoie la
+ * liste du nœud atteint, sans rien allouer ni parcourir le sous-arbre.
+ *
+ * Maintenu via {@link CatalogChangeListener} : une écriture recopie seulement les nœuds du chemin de
+ * chaque complétion modifiée puis publie la nouvelle racine. Les lectures ne prennent aucun verrou.
+ */
+@Component
+@Slf4j
+public class ProductSuggestIndex implements CatalogChangeListener {
+
+    /** Nombre de complétions précalculées par nœud, donc nombre maximal renvoyé. */
+    public static final int MAX_LIMIT = 10;
+    /** Par défaut, la liste précalculée est renvoyée telle quelle (sans vue ni copie). */
+    public static final int DEFAULT_LIMIT = MAX_LIMIT;
+
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingLong(Suggestion::getWeight).reversed()
+            .thenComparing(Suggestion::getText, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Suggestion::getType);
+
+    /** Repliement précalculé des caractères latins ("É" → "e", "œ" → "oe"), pour ne rien allouer à la saisie. */
+    private static final int FOLD_TABLE_SIZE = 0x250;
+    private static final char[][] FOLDED = new char[FOLD_TABLE_SIZE][];
+
+    static {
+        for (char c = 0; c < FOLD_TABLE_SIZE; c++) {
+            FOLDED[c] = TextNormalizer.fold(String.valueOf(c)).toCharArray();
+        }
+    }
+
+    private volatile Node root = Node.EMPTY;
+
+    // État des écritures, sous le verrou de l'instance
+    private final Map<String, Phrase> names = new HashMap<>();
+    private final Map<String, Phrase> brands = new HashMap<>();
+    private final Map<Long, Phrase> categories = new HashMap<>();
+    private final Map<Long, ProductKeys> products = new HashMap<>();
+
+    /**
+     * Meilleures complétions du texte saisi.
+     *
+     * @param query début de saisie (casse, accents et ponctuation indifférents).
+     * @param limit nombre maximal de complétions, borné à {@value #MAX_LIMIT}.
+     * @return les complétions par poids décroissant, vide si rien ne correspond.
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        if (query == null || limit <= 0) {
+            return List.of();
+        }
+        Node node = root;
+        int matched = 0;
+        boolean started = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            char[] folded = c < FOLD_TABLE_SIZE ? FOLDED[c] : null;
+            int count = folded != null ? folded.length : 1;
+            for (int j = 0; j < count; j++) {
+                char f = folded != null ? folded[j] : Character.toLowerCase(c);
+                if (!isWordChar(f)) {
+                    // Les séparateurs consécutifs valent une espace, comme dans les clés de l'index
+                    pendingSpace = started;
+                    continue;
+                }
+                for (int step = pendingSpace ? 0 : 1; step < 2; step++) {
+                    char expected = step == 0 ? ' ' : f;
+                    if (matched < node.label.length) {
+                        if (node.label[matched] != expected) {
+                            return List.of();
+                        }
+                        matched++;
+                    } else {
+                        int at = Arrays.binarySearch(node.firsts, expected);
+                        if (at < 0) {
+                            return List.of();
+                        }
+                        node = node.children[at];
+                        matched = 1;
+                    }
+                }
+                pendingSpace = false;
+                started = true;
+            }
+        }
+        if (!started) {
+            return List.of();
+        }
+        List<Suggestion> top = node.top;
+        return limit < top.size() ? top.subList(0, limit) : top;
+    }
+
+    // --- Maintenance incrémentale ---
+
+    @Override
+    public synchronized void onCatalogLoaded(List<Category> loadedCategories, List<Product> loadedProducts) {
+        names.clear();
+        brands.clear();
+        categories.clear();
+        products.clear();
+        for (Category category : loadedCategories) {
+            categories.put(category.getId(), new Phrase(Suggestion.CATEGORY, category.getName()));
+        }
+        for (Product product : loadedProducts) {
+            ProductKeys keys = ProductKeys.of(product);
+            products.put(product.getId(), keys);
+            count(names, keys.name(), product.getName(), Suggestion.PRODUCT, 1, false);
+            count(brands, keys.brand(), product.getBrandName(), Suggestion.BRAND, 1, false);
+            if (keys.categoryId() != null) {
+                categoryPhrase(product).count++;
+            }
+        }
+
+        // Construction en une passe sur les clés triées, plutôt qu'une insertion par complétion
+        List<Entry> entries = new ArrayList<>();
+        for (Collection<Phrase> phrases : List.of(names.values(), brands.values(), categories.values())) {
+            for (Phrase phrase : phrases) {
+                phrase.published = phrase.suggestion();
+                if (phrase.published != null) {
+                    for (int from = 0; from >= 0; from = nextWord(phrase.key, from)) {
+                        entries.add(new Entry(phrase.key.substring(from), phrase.published));
+                    }
+                }
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::key));
+        root = build(new char[0], entries, 0, entries.size(), 0);
+        log.info("Autocomplétion calculée : {} noms, {} marques, {} catégories, {} clés",
+                names.size(), brands.size(), categories.size(), entries.size());
+    }
+
+    @Override
+    public synchronized void onProductSaved(Product product) {
+        ProductKeys keys = ProductKeys.of(product);
+        ProductKeys previous = products.put(product.getId(), keys);
+        if (keys.equals(previous)) {
+            return;
+        }
+        // Seules les complétions dont le compte change sont republiées
+        if (previous == null || !previous.name().equals(keys.name())) {
+            if (previous != null) {
+                count(names, previous.name(), null, Suggestion.PRODUCT, -1, true);
+            }
+            count(names, keys.name(), product.getName(), Suggestion.PRODUCT, 1, true);
+        }
+        if (previous == null || !previous.brand().equals(keys.brand())) {
+            if (previous != null) {
+                count(brands, previous.brand(), null, Suggestion.BRAND, -1, true);
+            }
+            count(brands, keys.brand(), product.getBrandName(), Suggestion.BRAND, 1, true);
+        }
+        if (previous == null || !Objects.equals(previous.categoryId(), keys.categoryId())) {
+            if (previous != null) {
+                uncount(previous.categoryId());
+            }
+            if (keys.categoryId() != null) {
+                Phrase phrase = categoryPhrase(product);
+                phrase.count++;
+                publish(phrase);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onProductDeleted(Long id) {
+        ProductKeys previous = products.remove(id);
+        if (previous != null) {
+            withdraw(previous);
+        }
+    }
+
+    @Override
+    public synchronized void onCategorySaved(Category category) {
+        Phrase phrase = categories.get(category.getId());
+        if (phrase == null) {
+            categories.put(category.getId(), new Phrase(Suggestion.CATEGORY, category.getName()));
+            return;
+        }
+        if (Objects.equals(phrase.label, category.getName())) {
+            return;
+        }
+        // Renommage : la complétion change de clé
+        unpublish(phrase);
+        phrase.relabel(category.getName());
+        publish(phrase);
+    }
+
+    @Override
+    public synchronized void onCategoryDeleted(Long id) {
+        // Suppression en cascade des produits de la catégorie
+        List<Long> removed = products.entrySet().stream()
+                .filter(entry -> id.equals(entry.getValue().categoryId()))
+                .map(Map.Entry::getKey)
+                .toList();
+        removed.forEach(this::onProductDeleted);
+        Phrase phrase = categories.remove(id);
+        if (phrase != null) {
+            unpublish(phrase);
+        }
+    }
+
+    private void withdraw(ProductKeys keys) {
+        count(names, keys.name(), null, Suggestion.PRODUCT, -1, true);
+        count(brands, keys.brand(), null, Suggestion.BRAND, -1, true);
+        uncount(keys.categoryId());
+    }
+
+    private void uncount(Long categoryId) {
+        Phrase category = categoryId != null ? categories.get(categoryId) : null;
+        if (category != null) {
+            category.count--;
+            publish(category);
+        }
+    }
+
+    private void count(Map<String, Phrase> phrases, String key, String label, String type,
+                       int delta, boolean publish) {
+        if (key.isEmpty()) {
+            return;
+        }
+        Phrase phrase = phrases.get(key);
+        if (phrase == null) {
+            if (delta < 0) {
+                return;
+            }
+            phrase = new Phrase(type, label);
+            phrases.put(key, phrase);
+        }
+        phrase.count += delta;
+        if (publish) {
+            publish(phrase);
+        }
+        if (phrase.count <= 0) {
+            phrases.remove(key);
+        }
+    }
+
+    private Phrase categoryPhrase(Product product) {
+        Long id = product.getCategory().getId();
+        return categories.computeIfAbsent(id, k -> new Phrase(Suggestion.CATEGORY, product.getCategory().getName()));
+    }
+
+    /** Remplace la complétion publiée de la phrase par son poids actuel (ou la retire si elle n'a plus de produit). */
+    private void publish(Phrase phrase) {
+        replace(phrase, phrase.suggestion());
+    }
+
+    private void unpublish(Phrase phrase) {
+        replace(phrase, null);
+    }
+
+    private void replace(Phrase phrase, Suggestion replacement) {
+        Suggestion previous = phrase.published;
+        if (previous == null && replacement == null) {
+            return;
+        }
+        Node updated = root;
+        for (int from = 0; from >= 0; from = nextWord(phrase.key, from)) {
+            updated = update(updated, phrase.key, from, previous, replacement, false);
+        }
+        root = updated;
+        phrase.published = replacement;
+    }
+
+    /** Début du mot suivant de la clé, -1 s'il n'y en a plus. */
+    private static int nextWord(String key, int from) {
+        int space = key.indexOf(' ', from);
+        return space < 0 ? -1 : space + 1;
+    }
+
+    private static boolean isWordChar(char c) {
+        if (Character.isLetterOrDigit(c)) {
+            return true;
+        }
+        int type = Character.getType(c);
+        return type == Character.LETTER_NUMBER || type == Character.OTHER_NUMBER;
+    }
+
+    /** Clé d'une phrase : mots repliés séparés par une espace ("T-shirt Éco" → "t shirt eco"). */
+    static String key(String text) {
+        return String.join(" ", TextNormalizer.tokenize(text));
+    }
+
+    // --- Arbre ---
+
+    /**
+     * Recopie du chemin de {@code key} (à partir de {@code start}) en y remplaçant {@code previous}
+     * par {@code replacement} ; les nœuds hors du chemin sont partagés avec l'ancien arbre.
+     *
+     * @return le nouveau nœud, ou {@code null} s'il ne porte plus rien.
+     */
+    private static Node update(Node node, String key, int start, Suggestion previous, Suggestion replacement,
+                               boolean compact) {
+        char[] label = node.label;
+        int common = 0;
+        while (common < label.length && start + common < key.length() && label[common] == key.charAt(start + common)) {
+            common++;
+        }
+        int pos = start + common;
+
+        if (common < label.length) {
+            // La clé s'arrête ou diverge au milieu de l'arête : on la coupe
+            if (replacement == null) {
+                return node;
+            }
+            Node tail = node.withLabel(Arrays.copyOfRange(label, common, label.length));
+            char[] head = Arrays.copyOf(label, common);
+            if (pos == key.length()) {
+                return new Node(head, new Node[]{tail}, new Suggestion[]{replacement});
+            }
+            Node leaf = leaf(key, pos, replacement);
+            Node[] children = tail.label[0] < leaf.label[0] ? new Node[]{tail, leaf} : new Node[]{leaf, tail};
+            return new Node(head, children, Node.NO_SUGGESTIONS);
+        }
+
+        Suggestion[] terminals = node.terminals;
+        Node[] children = node.children;
+        if (pos == key.length()) {
+            terminals = replaceTerminal(terminals, previous, replacement);
+            if (terminals == node.terminals) {
+                return node;
+            }
+        } else {
+            int at = Arrays.binarySearch(node.firsts, key.charAt(pos));
+            if (at >= 0) {
+                Node child = update(children[at], key, pos, previous, replacement, true);
+                if (child == children[at]) {
+                    return node;
+                }
+                if (child == null) {
+                    Node[] shrunk = new Node[children.length - 1];
+                    System.arraycopy(children, 0, shrunk, 0, at);
+                    System.arraycopy(children, at + 1, shrunk, at, children.length - at - 1);
+                    children = shrunk;
+                } else {
+                    children = children.clone();
+                    children[at] = child;
+                }
+            } else {
+                if (replacement == null) {
+                    return node;
+                }
+                int insertAt = -(at + 1);
+                Node[] grown = new Node[children.length + 1];
+                System.arraycopy(children, 0, grown, 0, insertAt);
+                grown[insertAt] = leaf(key, pos, replacement);
+                System.arraycopy(children, insertAt, grown, insertAt + 1, children.length - insertAt);
+                children = grown;
+            }
+        }
+
+        if (compact && terminals.length == 0) {
+            if (children.length == 0) {
+                return null;
+            }
+            if (children.length == 1) {
+                // Nœud devenu simple passage : fusion avec son unique enfant
+                Node child = children[0];
+                char[] merged = Arrays.copyOf(label, label.length + child.label.length);
+                System.arraycopy(child.label, 0, merged, label.length, child.label.length);
+                return child.withLabel(merged);
+            }
+        }
+        return new Node(label, children, terminals);
+    }
+
+    private static Suggestion[] replaceTerminal(Suggestion[] terminals, Suggestion previous, Suggestion replacement) {
+        int at = -1;
+        for (int i = 0; i < terminals.length; i++) {
+            if (terminals[i] == previous) {
+                at = i;
+                break;
+            }
+        }
+        if (at >= 0) {
+            if (replacement != null) {
+                Suggestion[] copy = terminals.clone();
+                copy[at] = replacement;
+                return copy;
+            }
+            Suggestion[] shrunk = new Suggestion[terminals.length - 1];
+            System.arraycopy(terminals, 0, shrunk, 0, at);
+            System.arraycopy(terminals, at + 1, shrunk, at, terminals.length - at - 1);
+            return shrunk;
+        }
+        if (replacement == null) {
+            return terminals;
+        }
+        Suggestion[] grown = Arrays.copyOf(terminals, terminals.length + 1);
+        grown[terminals.length] = replacement;
+        return grown;
+    }
+
+    private static Node leaf(String key, int from, Suggestion suggestion) {
+        return new Node(key.substring(from).toCharArray(), Node.NO_CHILDREN, new Suggestion[]{suggestion});
+    }
+
+    /** Construit le sous-arbre des clés triées {@code [from, to)}, qui partagent leurs {@code depth} premiers caractères. */
+    private static Node build(char[] label, List<Entry> entries, int from, int to, int depth) {
+        int i = from;
+        List<Suggestion> terminals = new ArrayList<>();
+        while (i < to && entries.get(i).key().length() == depth) {
+            terminals.add(entries.get(i++).suggestion());
+        }
+        List<Node> children = new ArrayList<>();
+        while (i < to) {
+            char first = entries.get(i).key().charAt(depth);
+            int end = i + 1;
+            while (end < to && entries.get(end).key().charAt(depth) == first) {
+                end++;
+            }
+            // Clés triées : le préfixe commun du groupe est celui de sa première et de sa dernière clé
+            String low = entries.get(i).key();
+            String high = entries.get(end - 1).key();
+            int common = depth + 1;
+            while (common < low.length() && low.charAt(common) == high.charAt(common)) {
+                common++;
+            }
+            children.add(build(low.substring(depth, common).toCharArray(), entries, i, end, common));
+            i = end;
+        }
+        return new Node(label, children.toArray(Node.NO_CHILDREN), terminals.toArray(Node.NO_SUGGESTIONS));
+    }
+
+    private record Entry(String key, Suggestion suggestion) {}
+
+    /**
+     * Nœud immuable : arête depuis le parent, enfants triés par premier caractère, complétions se
+     * terminant ici et meilleures complétions du sous-arbre.
+     */
+    private static final class Node {
+
+        static final Node[] NO_CHILDREN = new Node[0];
+        static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+        static final Node EMPTY = new Node(new char[0], NO_CHILDREN, NO_SUGGESTIONS);
+
+        final char[] label;
+        final char[] firsts;
+        final Node[] children;
+        final Suggestion[] terminals;
+        final List<Suggestion> top;
+
+        Node(char[] label, Node[] children, Suggestion[] terminals) {
+            this(label, children, terminals, top(children, terminals));
+        }
+
+        private Node(char[] label, Node[] children, Suggestion[] terminals, List<Suggestion> top) {
+            this.label = label;
+            this.children = children;
+            this.terminals = terminals;
+            this.top = top;
+            this.firsts = new char[children.length];
+            for (int i = 0; i < children.length; i++) {
+                firsts[i] = children[i].label[0];
+            }
+        }
+
+        Node withLabel(char[] newLabel) {
+            return new Node(newLabel, children, terminals, top);
+        }
+
+        /** Fusion des listes (déjà triées) des enfants et des complétions du nœud, arrêtée aux {@value #MAX_LIMIT} premières. */
+        private static List<Suggestion> top(Node[] children, Suggestion[] terminals) {
+            if (children.length == 0 && terminals.length <= 1) {
+                return List.of(terminals);
+            }
+            Suggestion[] own = terminals.clone();
+            Arrays.sort(own, RANKING);
+            int ownCursor = 0;
+            int[] cursors = new int[children.length];
+            Suggestion[] top = new Suggestion[MAX_LIMIT];
+            int size = 0;
+            while (size < MAX_LIMIT) {
+                Suggestion best = ownCursor < own.length ? own[ownCursor] : null;
+                int from = -1;
+                for (int i = 0; i < children.length; i++) {
+                    List<Suggestion> list = children[i].top;
+                    if (cursors[i] < list.size()) {
+                        Suggestion candidate = list.get(cursors[i]);
+                        if (best == null || RANKING.compare(candidate, best) < 0) {
+                            best = candidate;
+                            from = i;
+                        }
+                    }
+                }
+                if (best == null) {
+                    break;
+                }
+                if (from < 0) {
+                    ownCursor++;
+                } else {
+                    cursors[from]++;
+                }
+                // Une même complétion peut remonter par plusieurs de ses mots : comparaison par identité
+                if (!contains(top, size, best)) {
+                    top[size++] = best;
+                }
+            }
+            return List.of(Arrays.copyOf(top, size));
+        }
+
+        private static boolean contains(Suggestion[] suggestions, int size, Suggestion suggestion) {
+            for (int i = 0; i < size; i++) {
+                if (suggestions[i] == suggestion) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** Complétion en cours de maintenance : libellé, clé repliée, nombre de produits et version publiée. */
+    private static final class Phrase {
+
+        final String type;
+        String label;
+        String key;
+        long count;
+        Suggestion published;
+
+        Phrase(String type, String label) {
+            this.type = type;
+            relabel(label);
+        }
+
+        void relabel(String newLabel) {
+            this.label = newLabel == null ? "" : newLabel.trim();
+            this.key = key(label);
+        }
+
+        Suggestion suggestion() {
+            return count > 0 && !key.isEmpty() ? new Suggestion(label, type, count) : null;
+        }
+    }
+
+    private record ProductKeys(String name, String brand, Long categoryId) {
+        static ProductKeys of(Product product) {
+            return new ProductKeys(key(product.getName()), key(product.getBrandName()),
+                    product.getCategory() != null ? product.getCategory().getId() : null);
+        }
+    }
+}
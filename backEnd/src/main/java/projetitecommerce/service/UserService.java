@@ -7,9 +7,12 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import projetitecommerce.model.Role;
 import projetitecommerce.model.User;
 import projetitecommerce.repo.UserRepository;
+import projetitecommerce.security.UserPrincipalCache;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +23,8 @@ public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache userPrincipalCache;
+    private final CartStore cartStore;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -80,13 +85,18 @@ public class UserService implements UserDetailsService {
             existingUser.setLastName(userDetails.getLastName());
         }
         
-        // Sauvegarder et retourner
-        return userRepository.save(existingUser);
+        // Sauvegarder, invalider le cache d'authentification et retourner
+        User saved = userRepository.save(existingUser);
+        userPrincipalCache.evict(saved.getUsername());
+        return saved;
     }
 
     @Transactional
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        userPrincipalCache.evict(id);
+        // Panier vidé une fois la suppression validée : après un rollback, l'utilisateur garde son panier
+        afterCommit(() -> cartStore.clear(id));
     }
 
     public boolean existsByUsername(String username) {
@@ -96,4 +106,20 @@ public class UserService implements UserDetailsService {
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
+
+    /**
+     * Exécute l'action après le commit de la transaction en cours, ou immédiatement hors transaction.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package projetitecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cadence de l'écriture différée d'un store en mémoire ({@link CartStore}, {@link InventoryStore}).
+ *
+ * Un thread dédié lance le passage d'écriture du store à intervalle fixe ; une erreur est journalisée
+ * sans arrêter les passages suivants. Expose les métriques communes {@code <nom>.flush} (durée des
+ * passages) et {@code <nom>.flush.failures} (lots non écrits). Ce qui est écrit, le découpage en lots
+ * et la reprise des lots en échec restent propres à chaque store.
+ */
+@Slf4j
+final class WriteBehind {
+
+    /** Passage d'écriture du store. */
+    @FunctionalInterface
+    interface Pass {
+        void run() throws Exception;
+    }
+
+    private final String items;
+    private final Duration interval;
+    private final Timer timer;
+    private final Counter failures;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * @param name        préfixe des métriques et nom du thread ({@code <nom>-write-behind})
+     * @param items       ce qui est écrit, au pluriel, pour les descriptions et les journaux
+     * @param description description de la métrique de durée des passages
+     */
+    WriteBehind(String name, String items, String description, Duration interval, MeterRegistry meterRegistry) {
+        this.items = items;
+        this.interval = interval;
+        this.timer = Timer.builder(name + ".flush")
+                .description(description)
+                .register(meterRegistry);
+        this.failures = Counter.builder(name + ".flush.failures")
+                .description("Lots de " + items + " non écrits (nouvel essai au passage suivant)")
+                .register(meterRegistry);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Lance les passages périodiques, le premier après un intervalle. */
+    void start(Pass pass) {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                pass.run();
+            } catch (Exception e) {
+                log.error("Erreur lors de l'écriture différée des {}", items, e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Durée d'un passage commencé à {@code startNanos} ({@link System#nanoTime()}). */
+    void recordPass(long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Lot non écrit, repris au passage suivant. */
+    void batchFailed() {
+        failures.increment();
+    }
+
+    /**
+     * Arrête les passages périodiques en laissant finir celui en cours ; la dernière écriture revient
+     * au store, après cet appel.
+     */
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(interval.toMillis() + 5_000, TimeUnit.MILLISECONDS);
+    }
+}
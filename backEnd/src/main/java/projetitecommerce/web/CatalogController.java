@@ -5,25 +5,41 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import projetitecommerce.repo.ProductRepository;
-import projetitecommerce.repo.CategoryRepository;
+import projetitecommerce.dto.PriceBucket;
+import projetitecommerce.dto.PriceOrder;
+import projetitecommerce.model.Product;
+import projetitecommerce.service.ProductFacetIndex;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Contrôleur Spring MVC pour le catalogue public (interface web avec Thymeleaf).
- * Il permet d’afficher les produits filtrés par recherche ou par catégorie.
+ * Il permet d’afficher les produits filtrés par recherche, catégorie, marque, tranche ou fourchette de prix,
+ * éventuellement triés par prix, avec le nombre de résultats de chaque filtre (facettes).
  */
 @Controller
 @RequiredArgsConstructor
 public class CatalogController {
 
-    private final ProductRepository productRepo;
-    private final CategoryRepository categoryRepo;
+    /** Nombre maximal de résultats affichés pour une recherche. */
+    private static final int SEARCH_LIMIT = 200;
+
+    static final String VIEW = "catalog/index";
+
+    private final ProductFacetIndex productFacetIndex;
 
     /**
      * Affiche la page principale du catalogue.
      *
      * @param categoryId Identifiant optionnel d'une catégorie à filtrer.
      * @param search     Mot-clé de recherche optionnel.
+     * @param brand      Marque optionnelle.
+     * @param price      Tranche de prix optionnelle (ex : "50-100").
+     * @param minPrice   Prix minimum inclus, optionnel.
+     * @param maxPrice   Prix maximum inclus, optionnel.
+     * @param sort       Tri par prix optionnel : price_asc ou price_desc.
      * @param model      Modèle de données pour Thymeleaf.
      * @return la vue du catalogue.
      */
@@ -31,26 +47,44 @@ public class CatalogController {
     public String showCatalog(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String price,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String sort,
             Model model) {
 
-        // 🔍 Cas 1 : recherche par mot-clé
-        if (search != null && !search.isBlank()) {
-            model.addAttribute("products", productRepo.findByNameContainingIgnoreCaseOrBrandNameContainingIgnoreCase(search));
-        }
-        // 🏷️ Cas 2 : filtrage par catégorie
-        else if (categoryId != null) {
-            model.addAttribute("products", productRepo.findByCategoryId(categoryId));
-        }
-        // 📦 Cas 3 : afficher tout
-        else {
-            model.addAttribute("products", productRepo.findAllWithCategory());
-        }
+        model.addAllAttributes(catalogModel(productFacetIndex, categoryId, search, brand, price,
+                minPrice, maxPrice, sort));
+        return VIEW;
+    }
 
-        // Ajouter les autres données nécessaires à la vue
-        model.addAttribute("categories", categoryRepo.findAll());
-        model.addAttribute("selectedCategoryId", categoryId);
-        model.addAttribute("search", search);
+    /**
+     * Modèle de la page du catalogue, partagé avec le pré-rendu ({@link CatalogRenditions}).
+     */
+    static Map<String, Object> catalogModel(ProductFacetIndex productFacetIndex, Long categoryId,
+                                            String search, String brand, String price,
+                                            Double minPrice, Double maxPrice, String sort) {
+        // 🔍 Filtres combinables (recherche, catégorie, marque, prix) et facettes en un seul passage
+        PriceBucket priceBucket = PriceBucket.from(price);
+        PriceOrder order = PriceOrder.from(sort);
+        ProductFacetIndex.Result result = productFacetIndex.query(search, categoryId, brand, priceBucket,
+                minPrice, maxPrice, order);
+        List<Product> products = result.products();
+        if (search != null && !search.isBlank() && products.size() > SEARCH_LIMIT) {
+            products = products.subList(0, SEARCH_LIMIT);
+        }
 
-        return "catalog/index";
+        Map<String, Object> model = new HashMap<>();
+        model.put("products", products);
+        model.put("facets", result.facets());
+        model.put("selectedCategoryId", categoryId);
+        model.put("search", search);
+        model.put("brand", brand == null || brand.isBlank() ? null : brand.trim());
+        model.put("price", priceBucket == null ? null : priceBucket.key());
+        model.put("minPrice", minPrice);
+        model.put("maxPrice", maxPrice);
+        model.put("sort", order == null ? null : order.key());
+        return model;
     }
 }
\ No newline at end of file
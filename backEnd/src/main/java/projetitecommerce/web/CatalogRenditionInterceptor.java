@@ -0,0 +1,87 @@
+package projetitecommerce.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Sert les lectures du catalogue depuis {@link CatalogRenditions} lorsqu'une représentation à jour
+ * existe : le corps gzip est copié tel quel (ou décompressé à la volée pour les clients qui
+ * n'acceptent pas gzip), sans appel au contrôleur.
+ *
+ * Placé après {@link CatalogVersionInterceptor}, qui a trouvé la représentation et posé l'ETag du
+ * codage servi ici (même test {@link #acceptsGzip}), {@code Last-Modified} et {@code Vary}.
+ */
+@Component
+public class CatalogRenditionInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) throws IOException {
+        boolean head = "HEAD".equals(request.getMethod());
+        if (!head && !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        var rendition = (CatalogRenditions.Rendition) request.getAttribute(CatalogVersionInterceptor.RENDITION);
+        if (rendition == null) {
+            return true;
+        }
+
+        response.setContentType(rendition.contentType());
+        rendition.headers().forEach(response::setHeader);
+        if (acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(rendition.gzip().length);
+            if (!head) {
+                response.getOutputStream().write(rendition.gzip());
+            }
+        } else {
+            response.setContentLengthLong(rendition.length());
+            if (!head) {
+                try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(rendition.gzip()), 64 * 1024)) {
+                    body.transferTo(response.getOutputStream());
+                }
+            }
+        }
+        return false;
+    }
+
+    /** {@code Accept-Encoding} contient gzip (ou *) avec une qualité non nulle. */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        var headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                if ((name.equals("gzip") || name.equals("*")) && !zeroQuality(parts)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean zeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim().replace(" ", "");
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
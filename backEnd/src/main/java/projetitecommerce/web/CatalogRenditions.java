@@ -0,0 +1,340 @@
+package projetitecommerce.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.linkbuilder.StandardLinkBuilder;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ITemplateResolver;
+import projetitecommerce.api.ProductRestController;
+import projetitecommerce.dto.ProductPage;
+import projetitecommerce.dto.ProductSort;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+import projetitecommerce.service.CatalogChangeListener;
+import projetitecommerce.service.CatalogReadModel;
+import projetitecommerce.service.CatalogVersion;
+import projetitecommerce.service.ProductFacetIndex;
+import projetitecommerce.service.ProductListingService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Représentations pré-rendues des lectures les plus fréquentes du catalogue.
+ *
+ * Pour la version courante du catalogue ({@link CatalogVersion}), garde prêts à écrire sur la socket
+ * les corps de {@code /api/categories}, de la première page de {@code /api/products} pour chaque tri
+ * et de la page {@code /catalog} sans filtre et filtrée par chaque catégorie. Ces réponses sont les
+ * mêmes pour tous les utilisateurs : elles sont servies par {@link CatalogRenditionInterceptor} sans
+ * sérialisation Jackson ni rendu Thymeleaf.
+ *
+ * Après une écriture, tout est reconstruit sur un thread dédié (écritures rapprochées regroupées
+ * par {@code catalog.prerender.delay}). Entre-temps, la version ne correspond plus et les requêtes
+ * passent par les contrôleurs. Les corps sont conservés compressés en gzip seulement : la page
+ * complète du catalogue peut peser plusieurs dizaines de Mo en clair.
+ */
+@Slf4j
+@Component
+public class CatalogRenditions implements CatalogChangeListener, DisposableBean {
+
+    private static final Set<String> CATALOG_PARAMETERS = Set.of(
+            "search", "categoryId", "brand", "price", "minPrice", "maxPrice", "sort");
+
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final CatalogReadModel catalogReadModel;
+    private final ProductListingService productListingService;
+    private final ProductFacetIndex productFacetIndex;
+    private final SpringTemplateEngine templateEngine;
+    private final boolean enabled;
+    private final Duration delay;
+    private final Timer buildTimer;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-prerender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean buildScheduled = new AtomicBoolean();
+
+    private volatile Snapshot snapshot = new Snapshot(-1, Map.of());
+
+    public CatalogRenditions(ObjectMapper objectMapper,
+                             CatalogVersion catalogVersion,
+                             CatalogReadModel catalogReadModel,
+                             ProductListingService productListingService,
+                             ProductFacetIndex productFacetIndex,
+                             ObjectProvider<ITemplateResolver> templateResolvers,
+                             ServletContext servletContext,
+                             MeterRegistry meterRegistry,
+                             @Value("${catalog.prerender.enabled:true}") boolean enabled,
+                             @Value("${catalog.prerender.delay:200ms}") Duration delay) {
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
+        this.catalogReadModel = catalogReadModel;
+        this.productListingService = productListingService;
+        this.productFacetIndex = productFacetIndex;
+        this.enabled = enabled;
+        this.delay = delay;
+
+        // Moteur dédié : mêmes templates, liens "@{/...}" résolus sans requête HTTP
+        String contextPath = servletContext.getContextPath();
+        this.templateEngine = new SpringTemplateEngine();
+        templateResolvers.orderedStream().forEach(templateEngine::addTemplateResolver);
+        templateEngine.setLinkBuilder(new StandardLinkBuilder() {
+            @Override
+            protected String computeContextPath(IExpressionContext context, String base, Map<String, Object> parameters) {
+                return contextPath;
+            }
+        });
+
+        this.buildTimer = Timer.builder("catalog.prerender.build")
+                .description("Reconstruction des représentations pré-rendues du catalogue")
+                .register(meterRegistry);
+        Gauge.builder("catalog.prerender.bytes", this, r -> r.snapshot.compressedBytes())
+                .description("Taille compressée des représentations pré-rendues")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Représentation pré-rendue correspondant à la requête GET, à jour avec le catalogue,
+     * ou {@code null} (requête non couverte, ou reconstruction en cours).
+     */
+    public Rendition find(HttpServletRequest request) {
+        String key = key(request);
+        if (key == null) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        if (current.version() != catalogVersion.current()) {
+            scheduleBuild();
+            return null;
+        }
+        return current.bodies().get(key);
+    }
+
+    /**
+     * Clé de la représentation, si la requête ne porte que des paramètres sans effet sur la réponse
+     * par défaut ; {@code null} sinon (curseur, taille de page, recherche, marque, prix…).
+     */
+    static String key(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Map<String, String[]> parameters = request.getParameterMap();
+        if (parameters.values().stream().anyMatch(values -> values.length != 1)) {
+            return null;
+        }
+        return switch (path) {
+            case "/api/categories" -> parameters.isEmpty() ? path : null;
+            case "/api/products" -> productsKey(parameters);
+            case "/catalog" -> catalogKey(parameters);
+            default -> null;
+        };
+    }
+
+    private static String productsKey(Map<String, String[]> parameters) {
+        if (!Set.of("sort").containsAll(parameters.keySet())) {
+            return null;
+        }
+        try {
+            String sort = parameters.containsKey("sort") ? parameters.get("sort")[0] : null;
+            return productsKey(ProductSort.from(sort));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String productsKey(ProductSort sort) {
+        return "/api/products?sort=" + sort.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String catalogKey(Map<String, String[]> parameters) {
+        if (!CATALOG_PARAMETERS.containsAll(parameters.keySet())) {
+            return null;
+        }
+        for (String filter : List.of("search", "brand", "price", "minPrice", "maxPrice", "sort")) {
+            if (parameters.containsKey(filter) && !parameters.get(filter)[0].isBlank()) {
+                return null;
+            }
+        }
+        String categoryId = parameters.containsKey("categoryId") ? parameters.get("categoryId")[0].trim() : "";
+        if (categoryId.isEmpty()) {
+            return catalogKey((Long) null);
+        }
+        try {
+            return catalogKey(Long.parseLong(categoryId));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String catalogKey(Long categoryId) {
+        return categoryId == null ? "/catalog" : "/catalog?categoryId=" + categoryId;
+    }
+
+    // --- Reconstruction ---
+
+    @Override
+    public void onCatalogLoaded(List<Category> categories, List<Product> products) { scheduleBuild(); }
+
+    @Override
+    public void onProductSaved(Product product) { scheduleBuild(); }
+
+    @Override
+    public void onProductDeleted(Long id) { scheduleBuild(); }
+
+    @Override
+    public void onCategorySaved(Category category) { scheduleBuild(); }
+
+    @Override
+    public void onCategoryDeleted(Long id) { scheduleBuild(); }
+
+    private void scheduleBuild() {
+        if (enabled && buildScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::build, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void build() {
+        // Les écritures arrivées pendant la construction programment la suivante
+        buildScheduled.set(false);
+        long version = catalogVersion.current();
+        long start = System.nanoTime();
+        try {
+            Map<String, Rendition> bodies = new HashMap<>();
+            List<Category> categories = catalogReadModel.findAllCategories();
+            bodies.put("/api/categories", json(categories, Map.of()));
+            for (ProductSort sort : ProductSort.values()) {
+                ProductPage page = productListingService.findPage(sort.name(), null, null);
+                Map<String, String> headers = page.getNextCursor() == null
+                        ? Map.of()
+                        : Map.of(ProductRestController.NEXT_CURSOR_HEADER, page.getNextCursor());
+                bodies.put(productsKey(sort), json(page.getItems(), headers));
+            }
+            bodies.put(catalogKey((Long) null), html(null));
+            for (Category category : categories) {
+                bodies.put(catalogKey(category.getId()), html(category.getId()));
+            }
+
+            if (catalogVersion.current() == version) {
+                snapshot = new Snapshot(version, Map.copyOf(bodies));
+                log.info("🧊 Catalogue pré-rendu (version {}) : {} représentations, {} Ko compressés en {} ms",
+                        version, bodies.size(), snapshot.compressedBytes() / 1024,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } else {
+                scheduleBuild();
+            }
+        } catch (Exception e) {
+            log.error("Erreur lors du pré-rendu du catalogue", e);
+        } finally {
+            buildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Rendition json(Object value, Map<String, String> headers) throws IOException {
+        return compress(MediaType.APPLICATION_JSON_VALUE, headers, out -> objectMapper.writeValue(out, value));
+    }
+
+    private Rendition html(Long categoryId) throws IOException {
+        Context context = new Context(Locale.getDefault(),
+                CatalogController.catalogModel(productFacetIndex, categoryId, null, null, null,
+                        null, null, null));
+        return compress(MediaType.TEXT_HTML_VALUE + ";charset=UTF-8", Map.of(), out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            templateEngine.process(CatalogController.VIEW, context, writer);
+            writer.flush();
+        });
+    }
+
+    private static Rendition compress(String contentType, Map<String, String> headers, BodyWriter body)
+            throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        CountingOutputStream counter;
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer, 64 * 1024) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            counter = new CountingOutputStream(gzip);
+            body.writeTo(counter);
+        }
+        return new Rendition(contentType, headers, buffer.toByteArray(), counter.count);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Corps prêt à écrire : compressé en gzip, avec sa taille décompressée.
+     */
+    public record Rendition(String contentType, Map<String, String> headers, byte[] gzip, long length) {}
+
+    private record Snapshot(long version, Map<String, Rendition> bodies) {
+
+        long compressedBytes() {
+            return bodies.values().stream().mapToLong(r -> r.gzip().length).sum();
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /** Compte les octets écrits en clair (Content-Length des réponses non compressées). */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            // Fermé par le flux gzip englobant (Jackson ferme la cible en fin d'écriture)
+        }
+    }
+}
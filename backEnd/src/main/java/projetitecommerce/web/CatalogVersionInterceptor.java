@@ -0,0 +1,57 @@
+package projetitecommerce.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import projetitecommerce.service.CatalogVersion;
+
+/**
+ * Requêtes conditionnelles sur les lectures du catalogue.
+ *
+ * Ajoute {@code ETag} et {@code Last-Modified} (dérivés de {@link CatalogVersion}) aux réponses GET
+ * et répond directement 304 lorsque le client possède déjà la version courante : ni repository ni
+ * sérialisation ne sont sollicités.
+ *
+ * Une lecture servie par {@link CatalogRenditionInterceptor} existe en gzip et en clair : la
+ * représentation choisie ici lui est transmise (attribut {@link #RENDITION}), l'ETag porte le suffixe
+ * du codage ({@code "…-gzip"}) et la réponse {@code Vary: Accept-Encoding}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogVersionInterceptor implements HandlerInterceptor {
+
+    /** Attribut de requête : représentation pré-rendue à servir, trouvée avant le calcul de l'ETag. */
+    static final String RENDITION = CatalogVersionInterceptor.class.getName() + ".rendition";
+
+    private final CatalogVersion catalogVersion;
+    private final CatalogRenditions catalogRenditions;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        // Le client doit revalider à chaque fois, mais peut réutiliser sa copie si elle est à jour
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // ETag lu avant la représentation : un corps plus récent que l'ETag est seulement revalidé une fois de trop
+        boolean gzip = CatalogRenditionInterceptor.acceptsGzip(request);
+        String etag = gzip ? catalogVersion.etag("gzip") : catalogVersion.etag();
+        CatalogRenditions.Rendition rendition = catalogRenditions.find(request);
+        if (rendition != null) {
+            request.setAttribute(RENDITION, rendition);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        } else if (gzip) {
+            // Réponse du contrôleur, jamais compressée
+            etag = catalogVersion.etag();
+        }
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        return !webRequest.checkNotModified(etag, catalogVersion.lastModified());
+    }
+}
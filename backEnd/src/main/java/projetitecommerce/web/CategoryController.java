@@ -9,16 +9,18 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import projetitecommerce.model.Category;
 import projetitecommerce.repo.CategoryRepository;
+import projetitecommerce.service.CatalogReadModel;
 
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("/categories")
 public class CategoryController {
     private final CategoryRepository categoryRepo;
+    private final CatalogReadModel catalogReadModel;
 
     @GetMapping
     public String list(Model model) {
-        model.addAttribute("categories", categoryRepo.findAll());
+        model.addAttribute("categories", catalogReadModel.findAllCategories());
         return "categories/list";
     }
 
@@ -32,7 +34,7 @@ public class CategoryController {
     public String create(@Valid @ModelAttribute("category") Category category,
                          BindingResult br, RedirectAttributes ra) {
         if (br.hasErrors()) return "categories/form";
-        categoryRepo.save(category);
+        catalogReadModel.categorySaved(categoryRepo.save(category));
         ra.addFlashAttribute("msg", "Catégorie créée !");
         return "redirect:/categories";
     }
@@ -49,7 +51,7 @@ public class CategoryController {
                          BindingResult br, RedirectAttributes ra) {
         if (br.hasErrors()) return "categories/form";
         category.setId(id);
-        categoryRepo.save(category);
+        catalogReadModel.categorySaved(categoryRepo.save(category));
         ra.addFlashAttribute("msg", "Catégorie mise à jour !");
         return "redirect:/categories";
     }
@@ -57,6 +59,7 @@ public class CategoryController {
     @PostMapping("/{id}/delete")
     public String delete(@PathVariable Long id, RedirectAttributes ra) {
         categoryRepo.deleteById(id);
+        catalogReadModel.categoryDeleted(id);
         ra.addFlashAttribute("msg", "Catégorie supprimée.");
         return "redirect:/categories";
     }
@@ -0,0 +1,58 @@
+package projetitecommerce.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Latence par méthode de contrôleur (timer {@value #METRIC}, tags {@code controller}, {@code method},
+ * {@code status}, {@code exception}).
+ *
+ * Complète {@code http.server.requests} (par URI) : plusieurs méthodes partagent parfois la même URI
+ * et les réponses 304 court-circuitées par {@link CatalogVersionInterceptor} restent mesurées.
+ */
+@Component
+@RequiredArgsConstructor
+public class ControllerMetricsInterceptor implements HandlerInterceptor {
+
+    static final String METRIC = "ecommerce.controller";
+
+    private static final String SAMPLE_ATTRIBUTE = ControllerMetricsInterceptor.class.getName() + ".sample";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request,
+                             @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(SAMPLE_ATTRIBUTE, Timer.start(meterRegistry));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request,
+                                @NonNull HttpServletResponse response,
+                                @NonNull Object handler,
+                                @Nullable Exception ex) {
+        if (!(request.getAttribute(SAMPLE_ATTRIBUTE) instanceof Timer.Sample sample)
+                || !(handler instanceof HandlerMethod method)) {
+            return;
+        }
+        sample.stop(Timer.builder(METRIC)
+                .description("Temps de traitement par méthode de contrôleur")
+                .tag("controller", method.getBeanType().getSimpleName())
+                .tag("method", method.getMethod().getName())
+                .tag("status", String.valueOf(response.getStatus()))
+                .tag("exception", ex == null ? "none" : ex.getClass().getSimpleName())
+                .register(meterRegistry));
+    }
+}
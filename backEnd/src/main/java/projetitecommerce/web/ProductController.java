@@ -7,9 +7,17 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import projetitecommerce.config.ParallelFetcher;
+import projetitecommerce.dto.ProductPage;
+import projetitecommerce.model.Category;
 import projetitecommerce.model.Product;
 import projetitecommerce.repo.CategoryRepository;
 import projetitecommerce.repo.ProductRepository;
+import projetitecommerce.service.CatalogReadModel;
+import projetitecommerce.service.ProductListingService;
+
+import java.util.List;
+import java.util.Optional;
 
 @Controller
 @RequiredArgsConstructor
@@ -17,17 +25,27 @@ import projetitecommerce.repo.ProductRepository;
 public class ProductController {
     private final ProductRepository productRepo;
     private final CategoryRepository categoryRepo;
+    private final ProductListingService productListingService;
+    private final CatalogReadModel catalogReadModel;
+    private final ParallelFetcher parallelFetcher;
 
     @GetMapping
-    public String list(Model model) {
-        model.addAttribute("products", productRepo.findAll());
+    public String list(@RequestParam(defaultValue = "id") String sort,
+                       @RequestParam(required = false) String after,
+                       @RequestParam(required = false) Integer limit,
+                       Model model) {
+        ProductPage page = productListingService.findPage(sort, after, limit);
+        model.addAttribute("products", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("sort", sort);
+        model.addAttribute("limit", limit);
         return "products/list";
     }
 
     @GetMapping("/new")
     public String createForm(Model model) {
         model.addAttribute("product", new Product());
-        model.addAttribute("categories", categoryRepo.findAll());
+        model.addAttribute("categories", catalogReadModel.findAllCategories());
         return "products/form";
     }
 
@@ -35,18 +53,29 @@ public class ProductController {
     public String create(@Valid @ModelAttribute("product") Product product,
                          BindingResult br, RedirectAttributes ra, Model model) {
         if (br.hasErrors()) {
-            model.addAttribute("categories", categoryRepo.findAll());
+            model.addAttribute("categories", catalogReadModel.findAllCategories());
             return "products/form";
         }
-        productRepo.save(product);
+        catalogReadModel.productSaved(productRepo.save(product));
         ra.addFlashAttribute("msg", "Produit créé !");
         return "redirect:/products";
     }
 
     @GetMapping("/{id}/edit")
     public String editForm(@PathVariable Long id, Model model) {
-        model.addAttribute("product", productRepo.findById(id).orElseThrow());
-        model.addAttribute("categories", categoryRepo.findAll());
+        if (catalogReadModel.isEnabled()) {
+            // Catégories lues en mémoire : seule la lecture du produit touche la base, rien à paralléliser
+            model.addAttribute("product", productRepo.findById(id).orElseThrow());
+            model.addAttribute("categories", catalogReadModel.findAllCategories());
+            return "products/form";
+        }
+        // Deux lectures en base, faites en parallèle ; sans catégories, le formulaire ne pourrait pas être
+        // enregistré (category_id obligatoire) : la page échoue plutôt que d'afficher une liste vide
+        ParallelFetcher.Scope scope = parallelFetcher.open();
+        ParallelFetcher.Branch<Optional<Product>> product = scope.fork("product", () -> productRepo.findById(id));
+        ParallelFetcher.Branch<List<Category>> categories = scope.fork("categories", catalogReadModel::findAllCategories);
+        model.addAttribute("product", product.join().orElseThrow());
+        model.addAttribute("categories", categories.join());
         return "products/form";
     }
 
@@ -55,11 +84,11 @@ public class ProductController {
                          @Valid @ModelAttribute("product") Product product,
                          BindingResult br, RedirectAttributes ra, Model model) {
         if (br.hasErrors()) {
-            model.addAttribute("categories", categoryRepo.findAll());
+            model.addAttribute("categories", catalogReadModel.findAllCategories());
             return "products/form";
         }
         product.setId(id);
-        productRepo.save(product);
+        catalogReadModel.productSaved(productRepo.save(product));
         ra.addFlashAttribute("msg", "Produit mis à jour !");
         return "redirect:/products";
     }
@@ -67,6 +96,7 @@ public class ProductController {
     @PostMapping("/{id}/delete")
     public String delete(@PathVariable Long id, RedirectAttributes ra) {
         productRepo.deleteById(id);
+        catalogReadModel.productDeleted(id);
         ra.addFlashAttribute("msg", "Produit supprimé.");
         return "redirect:/products";
     }
@@ -0,0 +1,43 @@
+-- Schéma de référence : reprend à l'identique le schéma généré jusqu'ici par Hibernate
+-- (ddl-auto=update). Une base existante est marquée à cette version sans l'exécuter
+-- (spring.flyway.baseline-on-migrate), une base vide la crée.
+
+-- Catégories
+CREATE TABLE categories
+(
+    id   BIGINT       NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- Produits
+CREATE TABLE products
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    brand_name  VARCHAR(255) NOT NULL,
+    price       FLOAT(53)    NOT NULL,
+    image_url   VARCHAR(500) NOT NULL,
+    category_id BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_products_category
+        FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE = InnoDB;
+
+-- Utilisateurs (les contraintes d'unicité servent aussi d'index aux recherches par login et email)
+CREATE TABLE users
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    username   VARCHAR(50)  NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255),
+    last_name  VARCHAR(255),
+    role       ENUM ('ADMIN','USER') NOT NULL,
+    enabled    BIT,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
@@ -0,0 +1,8 @@
+-- Index des parcours paginés par curseur (ProductRepository.findPageOrderByPrice / ByName) :
+-- la borne "(valeur, id) > curseur" devient un range scan déjà trié, arrêté à la taille de page.
+-- L'ID est explicite pour que le tri (valeur, id) soit couvert hors InnoDB (H2 des tests).
+-- Le filtre par catégorie utilise l'index de la clé étrangère ; la recherche par sous-chaîne
+-- (LIKE '%mot%') ne peut exploiter aucun index B-tree et reste servie par le modèle de lecture.
+
+CREATE INDEX idx_products_price ON products (price, id);
+CREATE INDEX idx_products_name ON products (name, id);
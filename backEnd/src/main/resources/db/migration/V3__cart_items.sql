@@ -0,0 +1,16 @@
+-- Paniers (CartStore) : une ligne par produit, réécrites par lots par l'écriture différée.
+-- La clé primaire (user_id, product_id) sert aussi au chargement d'un panier par utilisateur.
+-- sort_order conserve l'ordre d'ajout des lignes.
+-- Pas de clé étrangère : une écriture différée ne doit pas échouer parce qu'un produit ou un
+-- utilisateur a été supprimé entre-temps. Les lignes d'un produit supprimé sont ignorées à la
+-- lecture ; le panier d'un utilisateur supprimé est vidé par UserService.
+
+CREATE TABLE cart_items
+(
+    user_id    BIGINT      NOT NULL,
+    product_id BIGINT      NOT NULL,
+    quantity   INT         NOT NULL,
+    sort_order INT         NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (user_id, product_id)
+) ENGINE = InnoDB;
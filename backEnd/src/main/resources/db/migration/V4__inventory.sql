@@ -0,0 +1,27 @@
+-- Stock des produits (InventoryService). Un produit sans ligne n'est pas suivi : stock illimité.
+-- La quantité est le stock disponible, réservations déjà écrites déduites ; elle ne peut pas être négative.
+-- Une quantité fixée par l'administration compte les réservations en attente, écrites ou non : toutes en
+-- sont déduites (celles pas encore écrites le seront par l'écriture différée), les confirmées non.
+CREATE TABLE product_stock
+(
+    product_id BIGINT NOT NULL,
+    quantity   INT    NOT NULL,
+    PRIMARY KEY (product_id),
+    CONSTRAINT ck_product_stock_quantity CHECK (quantity >= 0),
+    CONSTRAINT fk_product_stock_product
+        FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- Réservations en attente de confirmation : déjà déduites du stock, rendues à leur expiration
+-- (au démarrage pour celles expirées pendant un arrêt). Supprimées à la confirmation ou à l'expiration.
+-- product_id et user_id sans clé étrangère : une réservation peut survivre à son produit. Une fois le
+-- produit supprimé (son stock l'est en cascade), elle ne rend plus rien et disparaît à son échéance.
+CREATE TABLE stock_reservations
+(
+    id         VARCHAR(36) NOT NULL,
+    product_id BIGINT      NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    quantity   INT         NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,31 @@
+-- Commandes (OrderWriter) : écrites par lots, plusieurs commandes par transaction.
+-- L'identifiant est attribué à la soumission, avant l'écriture : le client peut suivre sa commande
+-- aussitôt. Une commande n'est écrite qu'une fois son stock réservé : toute ligne est confirmée.
+-- user_id sans clé étrangère : une commande est une pièce comptable, gardée après la suppression du
+-- compte (UserService.deleteUser), comme ses lignes gardent le nom et le prix des produits.
+CREATE TABLE orders
+(
+    id         VARCHAR(36) NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    total      FLOAT(53)   NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_orders_user ON orders (user_id, created_at);
+
+-- Lignes de commande : nom, marque et prix du produit au moment de la commande (le produit peut
+-- ensuite changer ou disparaître), dans l'ordre de la commande.
+CREATE TABLE order_lines
+(
+    order_id     VARCHAR(36)  NOT NULL,
+    line_no      INT          NOT NULL,
+    product_id   BIGINT       NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    brand_name   VARCHAR(255) NOT NULL,
+    unit_price   FLOAT(53)    NOT NULL,
+    quantity     INT          NOT NULL,
+    PRIMARY KEY (order_id, line_no),
+    CONSTRAINT fk_order_lines_order
+        FOREIGN KEY (order_id) REFERENCES orders (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
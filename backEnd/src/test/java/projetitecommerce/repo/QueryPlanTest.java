@@ -0,0 +1,248 @@
+package projetitecommerce.repo;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de non-régression des plans d'exécution des requêtes chaudes.
+ *
+ * Le schéma est celui des migrations Flyway (H2 en mode MySQL, Hibernate en validate).
+ * Chaque requête est exécutée par son repository, le SQL généré est capturé puis passé à EXPLAIN :
+ * le test échoue si l'accès à la table redevient un parcours complet (table ou index sans borne).
+ * Restent hors périmètre : findAllWithCategory (lit tout par construction) et la recherche
+ * par sous-chaîne, que le modèle de lecture sert en mémoire.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=projetitecommerce.repo.QueryPlanTest$SqlCapture",
+        "spring.sql.init.mode=never",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final int CATEGORIES = 20;
+    private static final int PRODUCTS = 5_000;
+    private static final int USERS = 500;
+
+    /** Accès à une table dans le plan H2 : {@code FROM "public"."products" "p1_0" /* public.idx: borne *}{@code /}. */
+    private static final Pattern ACCESS = Pattern.compile(
+            "\"public\"\\.\"(\\w+)\" \"\\w+\"\\s*/\\* ([\\w.]+)(: [^*]+)?\\s*\\*/");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void populate() {
+        Random random = new Random(42);
+        List<Object[]> categories = new ArrayList<>();
+        for (int i = 1; i <= CATEGORIES; i++) {
+            categories.add(new Object[]{"Catégorie " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (name) VALUES (?)", categories);
+
+        List<Object[]> products = new ArrayList<>();
+        for (int i = 1; i <= PRODUCTS; i++) {
+            products.add(new Object[]{"Produit " + random.nextInt(PRODUCTS), "Marque " + random.nextInt(50),
+                    random.nextInt(200_000) / 100.0, "https://img.example/" + i + ".jpg", 1 + i % CATEGORIES});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (name, brand_name, price, image_url, category_id) VALUES (?, ?, ?, ?, ?)",
+                products);
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{"user" + i, "user" + i + "@example.com", "x", "USER", true});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (username, email, password, role, enabled) VALUES (?, ?, ?, ?, ?)", users);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @BeforeEach
+    void resetCapture() {
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    // --- Produits ---
+
+    @Test
+    void findByIdWithCategory_usesPrimaryKeys() {
+        productRepository.findByIdWithCategory(42L);
+
+        String plan = explainLast();
+        assertBoundedAccess(plan, "products");
+        assertBoundedAccess(plan, "categories");
+    }
+
+    @Test
+    void findAllByIdWithCategory_usesPrimaryKeys() {
+        productRepository.findAllByIdWithCategory(List.of(42L, 7L, 1_234L));
+
+        String plan = explainLast();
+        assertBoundedAccess(plan, "products");
+        assertBoundedAccess(plan, "categories");
+    }
+
+    @Test
+    void findByCategoryId_usesCategoryIndex() {
+        productRepository.findByCategoryId(3L);
+
+        assertBoundedAccess(explainLast(), "products");
+    }
+
+    @Test
+    void findPageOrderById_isPrimaryKeyRange() {
+        productRepository.findPageOrderById(2_500L, Limit.of(21));
+
+        assertBoundedAccess(explainLast(), "products");
+    }
+
+    @Test
+    void findFirstPageOrderByPrice_readsPriceIndexInOrder() {
+        productRepository.findFirstPageOrderByPrice(Limit.of(21));
+
+        assertSortedByIndex(explainLast(), "idx_products_price");
+    }
+
+    @Test
+    void findPageOrderByPrice_isPriceIndexRange() {
+        productRepository.findPageOrderByPrice(1_000.0, 2_500L, Limit.of(21));
+
+        String plan = explainLast();
+        assertThat(access(plan, "products")).startsWith("public.idx_products_price: ");
+        assertSortedByIndex(plan, "idx_products_price");
+    }
+
+    @Test
+    void findFirstPageOrderByName_readsNameIndexInOrder() {
+        productRepository.findFirstPageOrderByName(Limit.of(21));
+
+        assertSortedByIndex(explainLast(), "idx_products_name");
+    }
+
+    @Test
+    void findPageOrderByName_isNameIndexRange() {
+        productRepository.findPageOrderByName("Produit 2500", 2_500L, Limit.of(21));
+
+        String plan = explainLast();
+        assertThat(access(plan, "products")).startsWith("public.idx_products_name: ");
+        assertSortedByIndex(plan, "idx_products_name");
+    }
+
+    // --- Utilisateurs (authentification et inscription) ---
+
+    @Test
+    void findByUsername_usesUniqueIndex() {
+        userRepository.findByUsername("user250");
+
+        assertBoundedAccess(explainLast(), "users");
+    }
+
+    @Test
+    void findByEmail_usesUniqueIndex() {
+        userRepository.findByEmail("user250@example.com");
+
+        assertBoundedAccess(explainLast(), "users");
+    }
+
+    @Test
+    void existsByUsername_usesUniqueIndex() {
+        userRepository.existsByUsername("user250");
+
+        assertBoundedAccess(explainLast(), "users");
+    }
+
+    @Test
+    void existsByEmail_usesUniqueIndex() {
+        userRepository.existsByEmail("user250@example.com");
+
+        assertBoundedAccess(explainLast(), "users");
+    }
+
+    // --- Outils ---
+
+    /** Plan H2 de la dernière requête SQL émise (paramètres laissés en {@code ?}). */
+    private String explainLast() {
+        assertThat(SqlCapture.STATEMENTS).as("requête SQL capturée").isNotEmpty();
+        String sql = SqlCapture.STATEMENTS.get(SqlCapture.STATEMENTS.size() - 1);
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (var statement = connection.prepareStatement("EXPLAIN " + sql);
+                 var resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        });
+    }
+
+    /** Index utilisé pour la table et borne éventuelle, ex. {@code public.idx_products_price: price >= ?1}. */
+    private static String access(String plan, String table) {
+        Matcher matcher = ACCESS.matcher(plan);
+        while (matcher.find()) {
+            if (matcher.group(1).equals(table)) {
+                return (matcher.group(2) + (matcher.group(3) == null ? "" : matcher.group(3))).trim();
+            }
+        }
+        throw new AssertionError("Table " + table + " absente du plan :\n" + plan);
+    }
+
+    /** Accès par index avec une borne (égalité ou intervalle), jamais un parcours complet. */
+    private static void assertBoundedAccess(String plan, String table) {
+        assertThat(access(plan, table))
+                .as("accès à %s dans le plan :%n%s", table, plan)
+                .doesNotContain("tableScan")
+                .contains(": ");
+    }
+
+    /** Tri fourni par l'index (pas de tri en mémoire), la limite arrête le parcours. */
+    private static void assertSortedByIndex(String plan, String index) {
+        assertThat(access(plan, "products"))
+                .as("plan :%n%s", plan)
+                .startsWith("public." + index);
+        assertThat(plan).as("plan :%n%s", plan).contains("/* index sorted */");
+    }
+
+    /** Capture du SQL généré par Hibernate (instancié par Hibernate, d'où l'état statique). */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
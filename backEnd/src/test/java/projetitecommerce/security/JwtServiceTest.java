@@ -0,0 +1,130 @@
+package projetitecommerce.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import projetitecommerce.model.Role;
+import projetitecommerce.model.User;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Vérification des tokens ({@link JwtService}) et cache des tokens déjà vérifiés : un token n'est analysé
+ * qu'une fois, un token refusé n'est jamais mis en cache, une entrée expirée est refusée puis retirée
+ * et le cache reste borné.
+ */
+class JwtServiceTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void verifiedTokenIsServedFromCache() {
+        JwtService service = newJwtService(86_400_000L, 100);
+        User alice = user(1, "alice");
+        String token = service.generateToken(alice);
+
+        assertThat(service.verify(token)).map(Claims::getSubject).contains("alice");
+        assertThat(service.verify(token)).map(Claims::getSubject).contains("alice");
+        assertThat(service.isTokenValid(token, alice)).isTrue();
+        assertThat(service.isTokenValid(token, user(2, "bob"))).as("autre utilisateur").isFalse();
+
+        assertThat(count("verified")).isEqualTo(1);
+        assertThat(count("cached")).isEqualTo(3);
+        assertThat(cache(service)).hasSize(1);
+    }
+
+    @Test
+    void rejectedTokenIsNeverCached() {
+        JwtService service = newJwtService(86_400_000L, 100);
+        String token = service.generateToken(user(1, "alice"));
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + "c2lnbmF0dXJlLWZhdXNzZQ";
+        JwtService otherKey = newJwtService(86_400_000L, 100, "7A24432646294A404E635266556A586E3272357538782F413F4428472B4B6250");
+
+        assertThat(service.verify(forged)).isEmpty();
+        assertThat(service.verify(forged)).isEmpty();
+        assertThat(service.verify(otherKey.generateToken(user(1, "alice")))).isEmpty();
+        assertThat(service.verify("pas.un.token")).isEmpty();
+        assertThatThrownBy(() -> service.extractUsername(forged)).isInstanceOf(JwtException.class);
+
+        assertThat(cache(service)).isEmpty();
+        assertThat(count("rejected")).isEqualTo(5);
+    }
+
+    @Test
+    void expiredCachedTokenIsRejectedAndRemoved() throws Exception {
+        JwtService service = newJwtService(1_000L, 100);
+        String token = service.generateToken(user(1, "alice"));
+        assertThat(service.verify(token)).isPresent();
+        assertThat(cache(service)).hasSize(1);
+
+        Thread.sleep(1_100);
+
+        assertThat(service.verify(token)).as("expiré, servi par le cache").isEmpty();
+        assertThat(cache(service)).isEmpty();
+        assertThat(service.verify(token)).as("expiré, analysé de nouveau").isEmpty();
+        assertThat(cache(service)).isEmpty();
+    }
+
+    @Test
+    void cacheStaysBounded() {
+        JwtService service = newJwtService(86_400_000L, 8);
+        for (int i = 0; i < 50; i++) {
+            String token = service.generateToken(user(i, "user" + i));
+            assertThat(service.extractUsername(token)).isEqualTo("user" + i);
+            assertThat(cache(service).size()).isLessThanOrEqualTo(8);
+        }
+    }
+
+    @Test
+    void disabledCacheParsesEveryTime() {
+        JwtService service = newJwtService(86_400_000L, 0);
+        String token = service.generateToken(user(1, "alice"));
+
+        assertThat(service.verify(token)).isPresent();
+        assertThat(service.verify(token)).isPresent();
+
+        assertThat(count("verified")).isEqualTo(2);
+        assertThat(count("cached")).isZero();
+        assertThat(cache(service)).isEmpty();
+    }
+
+    private JwtService newJwtService(long expiration, int cacheSize) {
+        return newJwtService(expiration, cacheSize, SECRET);
+    }
+
+    private JwtService newJwtService(long expiration, int cacheSize, String secret) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", secret);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expiration);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", cacheSize);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        service.init();
+        return service;
+    }
+
+    private long count(String result) {
+        return meterRegistry.get("security.jwt.verify").tag("result", result).timer().count();
+    }
+
+    private static Map<?, ?> cache(JwtService service) {
+        return (Map<?, ?>) ReflectionTestUtils.getField(service, "verifiedTokens");
+    }
+
+    static User user(long id, String username) {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .email(username + "@ecommerce.com")
+                .password("{noop}secret")
+                .role(Role.USER)
+                .enabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+package projetitecommerce.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import projetitecommerce.model.Role;
+import projetitecommerce.model.User;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static projetitecommerce.security.JwtServiceTest.user;
+
+/**
+ * Cache des utilisateurs authentifiés ({@link UserPrincipalCache}) : un chargement par durée de vie,
+ * éviction par nom ou par identifiant, immédiate et répétée après le commit quand une transaction
+ * (modification ou suppression de l'utilisateur) est en cours.
+ */
+class UserPrincipalCacheTest {
+
+    /** Utilisateurs "en base", lus par le chargeur. */
+    private final Map<String, User> users = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, UserDetails> loader = username -> {
+        loads.incrementAndGet();
+        return users.get(username);
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadsOncePerTtl() throws Exception {
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofMillis(200), 100);
+        users.put("alice", user(1, "alice"));
+
+        assertThat(cache.get("alice", loader).getUsername()).isEqualTo("alice");
+        assertThat(cache.get("alice", loader).getUsername()).isEqualTo("alice");
+        assertThat(loads).hasValue(1);
+
+        Thread.sleep(250);
+        cache.get("alice", loader);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void zeroTtlDisablesCache() {
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ZERO, 100);
+        users.put("alice", user(1, "alice"));
+
+        cache.get("alice", loader);
+        cache.get("alice", loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictsByNameAndById() {
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofMinutes(1), 100);
+        users.put("alice", user(1, "alice"));
+        users.put("bob", user(2, "bob"));
+        cache.get("alice", loader);
+        cache.get("bob", loader);
+
+        cache.evict("alice");
+        cache.evict(2L);
+        cache.get("alice", loader);
+        cache.get("bob", loader);
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void updateInTransactionIsVisibleAfterCommit() {
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofMinutes(1), 100);
+        users.put("alice", user(1, "alice"));
+        cache.get("alice", loader);
+
+        TransactionSynchronizationManager.initSynchronization();
+        // UserService.updateUser : éviction dans la transaction, avant le commit
+        cache.evict("alice");
+        // Requête concurrente pendant la transaction : elle relit l'ancienne version encore en base
+        assertThat(((User) cache.get("alice", loader)).getRole()).isEqualTo(Role.USER);
+        users.put("alice", admin(1, "alice"));
+        commit();
+
+        assertThat(((User) cache.get("alice", loader)).getRole()).isEqualTo(Role.ADMIN);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void loadOverlappingEvictionIsNotCached() {
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofMinutes(1), 100);
+        users.put("alice", user(1, "alice"));
+        users.put("bob", user(2, "bob"));
+
+        // Modification validée pendant le chargement : l'utilisateur lu est l'ancien
+        User loaded = (User) cache.get("alice", username -> {
+            User stale = users.get(username);
+            users.put(username, admin(1, username));
+            cache.evict(username);
+            return stale;
+        });
+        assertThat(loaded.getRole()).isEqualTo(Role.USER);
+        assertThat(((User) cache.get("alice", loader)).getRole()).isEqualTo(Role.ADMIN);
+
+        // Même chose pour une suppression (éviction par identifiant)
+        cache.get("bob", username -> {
+            User stale = users.remove(username);
+            cache.evict(2L);
+            return stale;
+        });
+        assertThat(cache.get("bob", loader)).isNull();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void staysBounded() {
+        UserPrincipalCache cache = new UserPrincipalCache(Duration.ofMinutes(1), 10);
+        for (int i = 0; i < 100; i++) {
+            users.put("user" + i, user(i, "user" + i));
+            cache.get("user" + i, loader);
+        }
+        Map<?, ?> principals = (Map<?, ?>) ReflectionTestUtils.getField(cache, "principals");
+        assertThat(principals.size()).isLessThanOrEqualTo(10);
+    }
+
+    private static void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static User admin(long id, String username) {
+        User user = user(id, username);
+        user.setRole(Role.ADMIN);
+        return user;
+    }
+}
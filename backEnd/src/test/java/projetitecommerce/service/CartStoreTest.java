@@ -0,0 +1,153 @@
+package projetitecommerce.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Paniers en mémoire et écriture différée ({@link CartStore}, {@link CartJournal}) sur une base H2
+ * (mode MySQL) créée par les migrations Flyway. L'écriture différée automatique est désactivée
+ * (intervalle d'une heure) : chaque test déclenche lui-même les passages d'écriture.
+ */
+class CartStoreTest {
+
+    @TempDir
+    Path journalDirectory;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private final List<CartStore> started = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:cart-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (CartStore store : started) {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void linesWithAddsUpdatesAndRemovesInInsertionOrder() {
+        CartStore.Lines lines = CartStore.Lines.EMPTY.with(10, 1).with(11, 2).with(12, 3);
+        assertThat(lines.productIds()).containsExactly(10L, 11L, 12L);
+
+        CartStore.Lines updated = lines.with(11, 5);
+        assertThat(updated.productIds()).containsExactly(10L, 11L, 12L);
+        assertThat(updated.quantityOf(11)).isEqualTo(5);
+        assertThat(lines.quantityOf(11)).as("contenu précédent inchangé").isEqualTo(2);
+
+        CartStore.Lines removed = updated.with(11, 0);
+        assertThat(removed.productIds()).containsExactly(10L, 12L);
+        assertThat(removed.quantityOf(11)).isZero();
+        assertThat(removed.quantity(1)).isEqualTo(3);
+
+        assertThat(removed.with(99, 0)).as("retrait d'un produit absent").isSameAs(removed);
+        assertThat(removed.with(12, 0).with(10, 0).size()).isZero();
+    }
+
+    @Test
+    void replaysJournalLeftByCrash() throws Exception {
+        CartStore crashed = newStore(Duration.ofMinutes(30));
+        crashed.afterPropertiesSet();
+        crashed.update(1, 10, (lines, current) -> 2);
+        crashed.update(1, 11, (lines, current) -> 1);
+        crashed.update(1, 10, (lines, current) -> 5);
+        crashed.update(2, 20, (lines, current) -> 1);
+        crashed.clear(2);
+        assertThat(rows(1)).as("rien n'est encore écrit").isEmpty();
+        // Arrêt brutal : ni écriture finale ni fermeture du journal
+
+        CartStore restarted = start(newStore(Duration.ofMinutes(30)));
+
+        assertThat(rows(1)).containsExactly(Map.of("product_id", 10L, "quantity", 5), Map.of("product_id", 11L, "quantity", 1));
+        assertThat(rows(2)).isEmpty();
+        assertThat(restarted.get(1).productIds()).containsExactly(10L, 11L);
+        assertThat(journalSegments()).as("segments rejoués puis supprimés, seul le segment courant reste").hasSize(1);
+    }
+
+    @Test
+    void failedBatchStaysDirtyAndIsRewrittenNextPass() throws Exception {
+        CartStore store = start(newStore(Duration.ofMinutes(30)));
+        store.update(1, 10, (lines, current) -> 3);
+
+        jdbcTemplate.execute("ALTER TABLE cart_items RENAME TO cart_items_offline");
+        store.flush();
+        jdbcTemplate.execute("ALTER TABLE cart_items_offline RENAME TO cart_items");
+        assertThat(rows(1)).isEmpty();
+        assertThat(journalSegments()).as("journal gardé tant que le lot n'est pas écrit").hasSizeGreaterThan(1);
+
+        store.flush();
+        assertThat(rows(1)).containsExactly(Map.of("product_id", 10L, "quantity", 3));
+        assertThat(journalSegments()).hasSize(1);
+    }
+
+    @Test
+    void evictsIdleCartsOnlyOnceWritten() throws Exception {
+        CartStore store = start(newStore(Duration.ZERO));
+        store.update(1, 10, (lines, current) -> 1);
+
+        jdbcTemplate.execute("ALTER TABLE cart_items RENAME TO cart_items_offline");
+        Thread.sleep(5);
+        store.flush();
+        jdbcTemplate.execute("ALTER TABLE cart_items_offline RENAME TO cart_items");
+        // Une ligne écrite hors du store ne serait vue qu'après un rechargement depuis la base
+        jdbcTemplate.update("INSERT INTO cart_items (user_id, product_id, quantity, sort_order, updated_at) "
+                + "VALUES (1, 99, 1, 0, CURRENT_TIMESTAMP)");
+        assertThat(store.get(1).productIds()).as("panier non écrit gardé en mémoire").containsExactly(10L);
+
+        Thread.sleep(5);
+        store.flush();
+        assertThat(rows(1)).containsExactly(Map.of("product_id", 10L, "quantity", 1));
+        jdbcTemplate.update("UPDATE cart_items SET quantity = 7 WHERE user_id = 1 AND product_id = 10");
+        assertThat(store.get(1).quantityOf(10)).as("panier écrit puis retiré, relu en base").isEqualTo(7);
+    }
+
+    private CartStore newStore(Duration idleTimeout) {
+        return new CartStore(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry(), 4, journalDirectory,
+                DataSize.ofKilobytes(4), Duration.ofHours(1), 100, idleTimeout);
+    }
+
+    private CartStore start(CartStore store) throws Exception {
+        store.afterPropertiesSet();
+        started.add(store);
+        return store;
+    }
+
+    private List<Map<String, Object>> rows(long userId) {
+        return jdbcTemplate.queryForList(
+                "SELECT product_id, quantity FROM cart_items WHERE user_id = ? ORDER BY sort_order", userId);
+    }
+
+    private List<Path> journalSegments() throws Exception {
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package projetitecommerce.service;
+
+import org.junit.jupiter.api.Test;
+import projetitecommerce.dto.ProductSort;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static projetitecommerce.service.ProductSearchIndexTest.category;
+import static projetitecommerce.service.ProductSearchIndexTest.product;
+
+/**
+ * Photographie du catalogue ({@link CatalogSnapshot}) : après une suite d'ajouts, de modifications et
+ * de suppressions appliqués un par un, chaque ordre de tri et chaque catégorie doivent être identiques
+ * à ceux d'une photographie rechargée d'un coup.
+ */
+class CatalogSnapshotTest {
+
+    private static final List<Category> CATEGORIES = List.of(category(1, "Audio"), category(2, "Vidéo"), category(3, "Photo"));
+
+    @Test
+    void incrementalChangesMatchFullLoad() {
+        Random random = new Random(42);
+        Map<Long, Product> expected = new HashMap<>();
+        CatalogSnapshot snapshot = CatalogSnapshot.load(CATEGORIES, List.of());
+        for (int step = 0; step < 2_000; step++) {
+            long id = 1 + random.nextInt(150);
+            if (random.nextInt(4) == 0) {
+                expected.remove(id);
+                snapshot = snapshot.withoutProduct(id);
+            } else {
+                // Peu de prix et de noms distincts : beaucoup d'égalités départagées par l'ID
+                Product product = product(id, random.nextInt(5) == 0 ? null : "produit " + random.nextInt(20), "Marque",
+                        random.nextInt(10), CATEGORIES.get(random.nextInt(CATEGORIES.size())));
+                expected.put(id, product);
+                snapshot = snapshot.withProduct(product);
+            }
+        }
+
+        assertSameContent(snapshot, CatalogSnapshot.load(CATEGORIES, expected.values()));
+    }
+
+    @Test
+    void categoryChangesMatchFullLoad() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            products.add(product(i + 1, "produit " + (i % 7), "Marque", i % 4, CATEGORIES.get(i % 3)));
+        }
+        Category renamed = category(2, "Vidéo & TV");
+        CatalogSnapshot snapshot = CatalogSnapshot.load(CATEGORIES, products)
+                .withCategory(renamed)
+                .withoutCategory(3L);
+
+        List<Product> remaining = products.stream().filter(p -> p.getCategory().getId() != 3L).toList();
+        CatalogSnapshot reloaded = CatalogSnapshot.load(List.of(CATEGORIES.get(0), renamed), remaining);
+        assertSameContent(snapshot, reloaded);
+        assertThat(snapshot.productsOfCategory(2L)).allSatisfy(p -> assertThat(p.getCategory().getName()).isEqualTo("Vidéo & TV"));
+        assertThat(snapshot.product(3L)).isNull();
+    }
+
+    private static void assertSameContent(CatalogSnapshot actual, CatalogSnapshot expected) {
+        assertThat(actual.size()).isEqualTo(expected.size());
+        for (ProductSort sort : ProductSort.values()) {
+            assertThat(actual.page(sort, null, Integer.MAX_VALUE)).as("tri %s", sort)
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(expected.page(sort, null, Integer.MAX_VALUE));
+        }
+        assertThat(actual.categories()).extracting(Category::getId).containsExactlyElementsOf(
+                expected.categories().stream().map(Category::getId).toList());
+        for (Category category : expected.categories()) {
+            assertThat(actual.productsOfCategory(category.getId())).extracting(Product::getId)
+                    .containsExactlyElementsOf(expected.productsOfCategory(category.getId()).stream().map(Product::getId).toList());
+        }
+        for (Product product : expected.products()) {
+            assertThat(actual.product(product.getId())).usingRecursiveComparison().isEqualTo(product);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package projetitecommerce.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import projetitecommerce.exception.InsufficientStockException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Stock et réservations en mémoire ({@link InventoryStore}) sur une base H2 (mode MySQL) créée par les
+ * migrations Flyway. L'écriture différée automatique est désactivée (intervalle d'une heure) : chaque
+ * test déclenche lui-même les passages d'écriture et compare le compteur au stock écrit en base.
+ */
+class InventoryStoreTest {
+
+    private static final long PRODUCT = 1;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private final List<InventoryStore> started = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:inventory-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Audio')");
+        jdbcTemplate.update("INSERT INTO products (id, name, brand_name, price, image_url, category_id) "
+                + "VALUES (?, 'Casque', 'Marque', 99.9, 'casque.png', 1)", PRODUCT);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (InventoryStore store : started) {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void reservationsConfirmedAndReleasedMatchDatabase() {
+        InventoryStore store = start(newStore(Duration.ofMinutes(15), 100));
+        store.setStock(PRODUCT, 10);
+        InventoryStore.Reservation confirmed = store.reserve(PRODUCT, 3, 7);
+        InventoryStore.Reservation released = store.reserve(PRODUCT, 2, 7);
+        InventoryStore.Reservation pending = store.reserve(PRODUCT, 1, 8);
+        assertThatThrownBy(() -> store.reserve(PRODUCT, 5, 9)).isInstanceOf(InsufficientStockException.class);
+        assertThat(databaseStock()).as("rien n'est encore écrit").isEqualTo(10);
+
+        store.flush();
+        assertThat(databaseStock()).isEqualTo(4);
+        assertThat(reservationIds()).containsExactlyInAnyOrder(confirmed.id(), released.id(), pending.id());
+
+        assertThat(store.confirm(confirmed)).isTrue();
+        assertThat(store.release(released)).isTrue();
+        assertThat(store.release(confirmed)).as("réservation déjà confirmée").isFalse();
+        store.flush();
+
+        assertThat(store.available(PRODUCT)).isEqualTo(6);
+        assertThat(databaseStock()).isEqualTo(6);
+        assertThat(reservationIds()).containsExactly(pending.id());
+    }
+
+    @Test
+    void expiredReservationReturnsStock() throws Exception {
+        InventoryStore store = start(newStore(Duration.ofMillis(50), 100));
+        store.setStock(PRODUCT, 10);
+        InventoryStore.Reservation reservation = store.reserve(PRODUCT, 4, 7);
+        store.flush();
+        assertThat(databaseStock()).isEqualTo(6);
+
+        Thread.sleep(100);
+        store.flush();
+
+        assertThat(reservation.status()).isEqualTo(InventoryStore.Status.EXPIRED);
+        assertThat(store.confirm(reservation)).isFalse();
+        assertThat(store.available(PRODUCT)).isEqualTo(10);
+        assertThat(databaseStock()).isEqualTo(10);
+        assertThat(reservationIds()).isEmpty();
+    }
+
+    @Test
+    void reloadsPendingReservationsAfterRestart() throws Exception {
+        InventoryStore stopped = newStore(Duration.ofMillis(300), 100);
+        stopped.afterPropertiesSet();
+        stopped.setStock(PRODUCT, 10);
+        InventoryStore.Reservation reservation = stopped.reserve(PRODUCT, 2, 7);
+        stopped.flush();
+        // Arrêt brutal : pas d'écriture finale, la réservation est en base
+
+        InventoryStore restarted = newStore(Duration.ofMillis(300), 100);
+        restarted.afterPropertiesSet();
+        assertThat(restarted.available(PRODUCT)).isEqualTo(8);
+        assertThat(restarted.find(reservation.id()).status()).isEqualTo(InventoryStore.Status.PENDING);
+        assertThat(restarted.find(reservation.id()).quantity()).isEqualTo(2);
+
+        Thread.sleep(400);
+        InventoryStore afterExpiry = start(newStore(Duration.ofMillis(300), 100));
+        assertThat(afterExpiry.find(reservation.id())).as("expirée pendant l'arrêt puis écrite").isNull();
+        assertThat(afterExpiry.available(PRODUCT)).isEqualTo(10);
+        assertThat(databaseStock()).isEqualTo(10);
+        assertThat(reservationIds()).isEmpty();
+    }
+
+    @Test
+    void stockChangedOutsideFailsReservationsThatNoLongerFit() {
+        InventoryStore store = start(newStore(Duration.ofMinutes(15), 3));
+        store.setStock(PRODUCT, 20);
+        InventoryStore.Reservation first = store.reserve(PRODUCT, 5, 7);
+        InventoryStore.Reservation second = store.reserve(PRODUCT, 5, 7);
+        InventoryStore.Reservation third = store.reserve(PRODUCT, 5, 7);
+        // Hors du premier lot : déjà déduite du compteur quand le stock du produit est relu en base
+        InventoryStore.Reservation later = store.reserve(PRODUCT, 2, 8);
+        jdbcTemplate.update("UPDATE product_stock SET quantity = 12 WHERE product_id = ?", PRODUCT);
+
+        store.flush();
+
+        assertThat(first.status()).isEqualTo(InventoryStore.Status.PENDING);
+        assertThat(second.status()).isEqualTo(InventoryStore.Status.PENDING);
+        assertThat(third.status()).isEqualTo(InventoryStore.Status.FAILED);
+        assertThat(later.status()).isEqualTo(InventoryStore.Status.PENDING);
+        assertThat(reservationIds()).containsExactlyInAnyOrder(first.id(), second.id(), later.id());
+        assertThat(databaseStock()).isZero();
+        assertThat(store.available(PRODUCT)).isZero();
+
+        assertThat(store.release(later)).isTrue();
+        store.flush();
+        assertThat(store.available(PRODUCT)).isEqualTo(2);
+        assertThat(databaseStock()).isEqualTo(2);
+    }
+
+    @Test
+    void setStockDeductsEveryPendingReservationWhetherWrittenOrNot() {
+        InventoryStore store = start(newStore(Duration.ofMinutes(15), 100));
+        store.setStock(PRODUCT, 10);
+        InventoryStore.Reservation written = store.reserve(PRODUCT, 3, 7);
+        store.flush();
+        InventoryStore.Reservation unwritten = store.reserve(PRODUCT, 2, 8);
+        InventoryStore.Reservation sold = store.reserve(PRODUCT, 1, 9);
+        store.confirm(sold);
+
+        assertThat(store.setStock(PRODUCT, 20)).as("20 en main, 5 en attente").isEqualTo(15);
+        store.flush();
+        assertThat(store.available(PRODUCT)).isEqualTo(15);
+        assertThat(databaseStock()).isEqualTo(15);
+
+        store.release(written);
+        store.release(unwritten);
+        store.flush();
+        assertThat(store.available(PRODUCT)).isEqualTo(20);
+        assertThat(databaseStock()).isEqualTo(20);
+
+        store.reserve(PRODUCT, 4, 7);
+        assertThatThrownBy(() -> store.setStock(PRODUCT, 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.available(PRODUCT)).isEqualTo(16);
+    }
+
+    @Test
+    void reservationChangedWhileQueuedIsWrittenOnce() {
+        InventoryStore store = start(newStore(Duration.ofMinutes(15), 100));
+        store.setStock(PRODUCT, 10);
+        InventoryStore.Reservation reservation = store.reserve(PRODUCT, 3, 7);
+        // Confirmée après que le passage d'écriture l'a retirée de la file, avant l'écriture du lot
+        ReflectionTestUtils.setField(reservation, "queued", 0);
+        store.confirm(reservation);
+
+        store.flush();
+
+        assertThat(store.available(PRODUCT)).isEqualTo(7);
+        assertThat(databaseStock()).isEqualTo(7);
+        assertThat(reservationIds()).isEmpty();
+    }
+
+    private InventoryStore newStore(Duration reservationTtl, int batchSize) {
+        return new InventoryStore(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry(),
+                reservationTtl, Duration.ofHours(1), batchSize);
+    }
+
+    private InventoryStore start(InventoryStore store) {
+        store.afterPropertiesSet();
+        started.add(store);
+        return store;
+    }
+
+    private int databaseStock() {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM product_stock WHERE product_id = ?", Integer.class, PRODUCT);
+    }
+
+    private List<String> reservationIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM stock_reservations", String.class);
+    }
+}
@@ -0,0 +1,290 @@
+package projetitecommerce.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import projetitecommerce.dto.OrderItemRequest;
+import projetitecommerce.dto.OrderRequest;
+import projetitecommerce.exception.InsufficientStockException;
+import projetitecommerce.exception.OrderQueueFullException;
+import projetitecommerce.repo.CategoryRepository;
+import projetitecommerce.repo.OrderRepository;
+import projetitecommerce.repo.ProductRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Passage de commande ({@link OrderService}, {@link OrderWriter}) sur le schéma des migrations Flyway
+ * (H2 en mode MySQL), sans transaction de test : le thread d'écriture doit voir les données du test.
+ * Le thread d'écriture n'est lancé qu'une fois les commandes soumises, pour les écrire en un seul lot.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderServiceTest {
+
+    private static final long HEADPHONES = 1;
+    private static final long SPEAKER = 2;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<OrderWriter> writers = new ArrayList<>();
+    private InventoryStore inventoryStore;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Audio')");
+        jdbcTemplate.update("INSERT INTO products (id, name, brand_name, price, image_url, category_id) "
+                + "VALUES (?, 'Casque', 'Marque', 10.0, 'casque.png', 1)", HEADPHONES);
+        jdbcTemplate.update("INSERT INTO products (id, name, brand_name, price, image_url, category_id) "
+                + "VALUES (?, 'Enceinte', 'Marque', 25.5, 'enceinte.png', 1)", SPEAKER);
+        inventoryStore = new InventoryStore(jdbcTemplate, new TransactionTemplate(transactionManager), meterRegistry,
+                Duration.ofMinutes(15), Duration.ofHours(1), 100);
+        inventoryStore.afterPropertiesSet();
+        inventoryStore.setStock(HEADPHONES, 10);
+        inventoryStore.setStock(SPEAKER, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (OrderWriter writer : writers) {
+            writer.destroy();
+        }
+        inventoryStore.destroy();
+        for (String table : List.of("order_lines", "orders", "stock_reservations", "product_stock", "products", "categories")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void batchIsWrittenInOneTransactionThenReservationsConfirmed() throws Exception {
+        OrderWriter writer = newWriter(new TransactionTemplate(transactionManager), 100);
+        OrderService service = newService(writer);
+        OrderWriter.PendingOrder first = service.place(1L, request(item(HEADPHONES, 2, 10.0), item(SPEAKER, 1, null)));
+        OrderWriter.PendingOrder second = service.place(2L, request(item(HEADPHONES, 3, null)));
+        OrderWriter.PendingOrder third = service.place(3L, request(item(SPEAKER, 4, 25.5)));
+        assertThat(inventoryStore.available(HEADPHONES)).isEqualTo(5);
+        assertThat(inventoryStore.available(SPEAKER)).isEqualTo(5);
+
+        writer.afterPropertiesSet();
+
+        for (OrderWriter.PendingOrder order : List.of(first, second, third)) {
+            assertThat(order.written().get(5, TimeUnit.SECONDS).status()).isEqualTo(OrderWriter.Status.CONFIRMED);
+        }
+        assertThat(meterRegistry.get("order.write.batch").summary().count()).as("une seule transaction").isEqualTo(1);
+        assertThat(meterRegistry.get("order.write.batch").summary().totalAmount()).isEqualTo(3);
+        assertThat(orderRepository.findByIdAndUserIdWithLines(first.id(), 1L)).hasValueSatisfying(order -> {
+            assertThat(order.getTotal()).isEqualTo(45.5);
+            assertThat(order.getLines()).hasSize(2);
+        });
+
+        inventoryStore.flush();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_reservations", Integer.class))
+                .as("réservations confirmées, supprimées en base").isZero();
+        assertThat(databaseStock(HEADPHONES)).isEqualTo(5);
+        assertThat(databaseStock(SPEAKER)).isEqualTo(5);
+    }
+
+    @Test
+    void failingOrderFailsAloneAndReturnsItsStock() throws Exception {
+        OrderWriter writer = newWriter(new TransactionTemplate(transactionManager), 100);
+        OrderService service = newService(writer);
+        OrderWriter.PendingOrder written = service.place(1L, request(item(HEADPHONES, 2, null)));
+        OrderWriter.PendingOrder failing = service.place(2L, request(item(HEADPHONES, 3, null), item(SPEAKER, 1, null)));
+        // Identifiant déjà pris : le lot est refusé, puis repris commande par commande
+        jdbcTemplate.update("INSERT INTO orders (id, user_id, total, created_at) VALUES (?, 99, 0, CURRENT_TIMESTAMP)",
+                failing.id());
+
+        writer.afterPropertiesSet();
+
+        assertThat(written.written().get(5, TimeUnit.SECONDS).status()).isEqualTo(OrderWriter.Status.CONFIRMED);
+        assertThatThrownBy(() -> failing.written().get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(DuplicateKeyException.class);
+        assertThat(failing.status()).isEqualTo(OrderWriter.Status.FAILED);
+        assertThat(service.getOrder(2L, failing.id()).getStatus()).isEqualTo("FAILED");
+        assertThat(inventoryStore.available(HEADPHONES)).isEqualTo(8);
+        assertThat(inventoryStore.available(SPEAKER)).isEqualTo(10);
+        assertThat(meterRegistry.get("order.write.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void orderWithRejectedReservationFailsWithoutBeingWritten() throws Exception {
+        OrderWriter writer = newWriter(new TransactionTemplate(transactionManager), 100);
+        OrderService service = newService(writer);
+        OrderWriter.PendingOrder order = service.place(1L, request(item(HEADPHONES, 2, null), item(SPEAKER, 1, null)));
+        // Stock vidé hors de l'application : la réservation du casque est refusée à l'écriture du stock
+        jdbcTemplate.update("UPDATE product_stock SET quantity = 0 WHERE product_id = ?", HEADPHONES);
+        inventoryStore.flush();
+
+        writer.afterPropertiesSet();
+
+        assertThatThrownBy(() -> order.written().get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(InsufficientStockException.class);
+        assertThat(order.status()).isEqualTo(OrderWriter.Status.FAILED);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class)).isZero();
+        assertThat(inventoryStore.available(HEADPHONES)).isZero();
+        assertThat(inventoryStore.available(SPEAKER)).as("autre réservation rendue").isEqualTo(10);
+    }
+
+    @Test
+    void reservationLostDuringTransientRetryFailsOrder() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionTemplate flaky = new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                if (attempts.getAndIncrement() == 0) {
+                    jdbcTemplate.update("UPDATE product_stock SET quantity = 0 WHERE product_id = ?", SPEAKER);
+                    inventoryStore.flush();
+                    throw new QueryTimeoutException("Délai d'attente de connexion dépassé");
+                }
+                return super.execute(action);
+            }
+        };
+        OrderWriter writer = newWriter(flaky, 100);
+        OrderService service = newService(writer);
+        OrderWriter.PendingOrder kept = service.place(1L, request(item(HEADPHONES, 1, null)));
+        OrderWriter.PendingOrder lost = service.place(2L, request(item(SPEAKER, 3, null)));
+
+        writer.afterPropertiesSet();
+
+        assertThat(kept.written().get(5, TimeUnit.SECONDS).status()).isEqualTo(OrderWriter.Status.CONFIRMED);
+        assertThatThrownBy(() -> lost.written().get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(InsufficientStockException.class);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM orders", String.class)).containsExactly(kept.id());
+    }
+
+    @Test
+    void pollingSeesPendingThenConfirmedOrder() throws Exception {
+        OrderWriter writer = newWriter(new TransactionTemplate(transactionManager), 100);
+        OrderService service = newService(writer);
+        OrderWriter.PendingOrder order = service.place(1L, request(item(SPEAKER, 2, null)));
+
+        assertThat(service.getOrder(1L, order.id()).getStatus()).isEqualTo("PENDING");
+        assertThatThrownBy(() -> service.getOrder(2L, order.id()))
+                .as("commande d'un autre utilisateur").isInstanceOf(IllegalArgumentException.class);
+
+        writer.afterPropertiesSet();
+        order.written().get(5, TimeUnit.SECONDS);
+
+        assertThat(writer.find(order.id())).as("relue en base une fois écrite").isNull();
+        assertThat(service.getOrder(1L, order.id())).satisfies(view -> {
+            assertThat(view.getStatus()).isEqualTo("CONFIRMED");
+            assertThat(view.getTotalQuantity()).isEqualTo(2);
+            assertThat(view.getTotal()).isEqualTo(51.0);
+        });
+    }
+
+    @Test
+    void changedPriceRejectsOrderWithoutReserving() {
+        OrderWriter writer = newWriter(new TransactionTemplate(transactionManager), 100);
+        OrderService service = newService(writer);
+
+        assertThatThrownBy(() -> service.place(1L, request(item(HEADPHONES, 1, null), item(SPEAKER, 1, 19.9))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("a changé");
+        assertThat(inventoryStore.available(HEADPHONES)).isEqualTo(10);
+        assertThat(inventoryStore.available(SPEAKER)).isEqualTo(10);
+    }
+
+    @Test
+    void fullQueueRejectsOrderWithoutReserving() {
+        OrderService service = newService(newWriter(new TransactionTemplate(transactionManager), 1));
+        service.place(1L, request(item(HEADPHONES, 1, null)));
+
+        assertThatThrownBy(() -> service.place(2L, request(item(HEADPHONES, 4, null))))
+                .isInstanceOf(OrderQueueFullException.class);
+        assertThat(inventoryStore.available(HEADPHONES)).isEqualTo(9);
+    }
+
+    @Test
+    void transientErrorRewritesBatchWithoutFailingOrders() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionTemplate flaky = new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                if (attempts.getAndIncrement() == 0) {
+                    throw new QueryTimeoutException("Délai d'attente de connexion dépassé");
+                }
+                return super.execute(action);
+            }
+        };
+        OrderWriter writer = newWriter(flaky, 100);
+        OrderWriter.PendingOrder order = newService(writer).place(1L, request(item(HEADPHONES, 2, null)));
+
+        writer.afterPropertiesSet();
+
+        assertThat(order.written().get(5, TimeUnit.SECONDS).status()).isEqualTo(OrderWriter.Status.CONFIRMED);
+        assertThat(attempts).hasValue(2);
+        assertThat(meterRegistry.get("order.write.retries").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.write.failures").counter().count()).isZero();
+        assertThat(inventoryStore.available(HEADPHONES)).isEqualTo(8);
+    }
+
+    private OrderWriter newWriter(TransactionTemplate transactionTemplate, int queueCapacity) {
+        OrderWriter writer = new OrderWriter(jdbcTemplate, transactionTemplate, inventoryStore, meterRegistry,
+                queueCapacity, 200, Duration.ofMinutes(10));
+        writers.add(writer);
+        return writer;
+    }
+
+    private OrderService newService(OrderWriter writer) {
+        CatalogReadModel catalog = new CatalogReadModel(productRepository, categoryRepository,
+                new DefaultListableBeanFactory().getBeanProvider(CatalogChangeListener.class), false);
+        return new OrderService(catalog, inventoryStore, writer, orderRepository);
+    }
+
+    private int databaseStock(long productId) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM product_stock WHERE product_id = ?", Integer.class, productId);
+    }
+
+    private static OrderRequest request(OrderItemRequest... items) {
+        return new OrderRequest(List.of(items));
+    }
+
+    private static OrderItemRequest item(long productId, int quantity, Double price) {
+        return new OrderItemRequest(productId, quantity, price);
+    }
+}
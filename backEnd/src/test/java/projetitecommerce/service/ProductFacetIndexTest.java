@@ -0,0 +1,120 @@
+package projetitecommerce.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import projetitecommerce.dto.FacetCounts;
+import projetitecommerce.dto.FacetCounts.FacetValue;
+import projetitecommerce.dto.PriceBucket;
+import projetitecommerce.dto.ProductRow;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+import projetitecommerce.repo.CategoryRepository;
+import projetitecommerce.repo.ProductRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static projetitecommerce.service.ProductSearchIndexTest.category;
+import static projetitecommerce.service.ProductSearchIndexTest.product;
+
+/**
+ * Facettes du catalogue ({@link ProductFacetIndex}) branchées sur le vrai modèle de lecture et les index
+ * de recherche et de prix, les repositories ne servant qu'au chargement initial. Les agrégats maintenus
+ * incrémentalement (requête sans filtre) doivent égaler les comptes calculés en parcourant les produits.
+ */
+class ProductFacetIndexTest {
+
+    private static final List<Category> CATEGORIES = List.of(category(1, "Audio"), category(2, "Vidéo"), category(3, "Photo"));
+    private static final List<String> BRANDS = List.of("Sono", "Bose", "Canon", "Sony");
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private CatalogReadModel catalog;
+    private ProductFacetIndex facets;
+
+    @BeforeEach
+    void setUp() {
+        when(categoryRepository.findAll()).thenReturn(CATEGORIES);
+        when(productRepository.findAllWithCategory()).thenReturn(List.of(
+                row(1, "Casque", "Sono", 20.0, 1),
+                row(2, "Enceinte", "Sono", 80.0, 1),
+                row(3, "Écran", "Sony", 300.0, 2),
+                row(4, "Appareil photo", "Canon", 600.0, 3),
+                row(5, "Objectif", "Canon", 1200.0, 3)));
+
+        DefaultListableBeanFactory listeners = new DefaultListableBeanFactory();
+        catalog = new CatalogReadModel(productRepository, categoryRepository,
+                listeners.getBeanProvider(CatalogChangeListener.class), true);
+        ProductSearchIndex search = new ProductSearchIndex();
+        ProductPriceIndex prices = new ProductPriceIndex();
+        facets = new ProductFacetIndex(catalog, search, prices);
+        listeners.registerSingleton("productSearchIndex", search);
+        listeners.registerSingleton("productPriceIndex", prices);
+        listeners.registerSingleton("productFacetIndex", facets);
+        catalog.reload();
+    }
+
+    @Test
+    void eachFacetIgnoresItsOwnFilter() {
+        ProductFacetIndex.Result result = facets.query(null, 3L, null, PriceBucket.FROM_500_TO_1000);
+
+        assertThat(result.products()).extracting(Product::getId).containsExactly(4L);
+        assertThat(result.facets().getTotal()).isEqualTo(1);
+        // Catégories : filtre de prix seul ; prix : filtre de catégorie seul
+        assertThat(result.facets().getCategories()).extracting(FacetValue::getLabel, FacetValue::getCount, FacetValue::isSelected)
+                .containsExactly(tuple("Photo", 1L, true));
+        assertThat(result.facets().getPrices()).extracting(FacetValue::getValue, FacetValue::getCount, FacetValue::isSelected)
+                .containsExactly(tuple("500-1000", 1L, true), tuple("1000+", 1L, false));
+        assertThat(result.facets().getBrands()).extracting(FacetValue::getLabel, FacetValue::getCount)
+                .containsExactly(tuple("Canon", 1L));
+
+        ProductFacetIndex.Result searched = facets.query("sono", null, null, null, null, 50.0, null);
+        assertThat(searched.products()).extracting(Product::getId).containsExactly(1L);
+        assertThat(searched.facets().getBrands()).extracting(FacetValue::getLabel, FacetValue::getCount)
+                .containsExactly(tuple("Sono", 1L));
+    }
+
+    @Test
+    void incrementalCountsMatchScanAndRebuild() {
+        Random random = new Random(3);
+        for (int step = 0; step < 500; step++) {
+            long id = 1 + random.nextInt(60);
+            if (random.nextInt(4) == 0) {
+                catalog.productDeleted(id);
+            } else {
+                catalog.productSaved(product(id, "Produit " + id, BRANDS.get(random.nextInt(BRANDS.size())),
+                        random.nextInt(1500), CATEGORIES.get(random.nextInt(CATEGORIES.size()))));
+            }
+        }
+        assertConsistent();
+
+        catalog.categorySaved(category(2, "Vidéo & TV"));
+        catalog.categoryDeleted(3L);
+        assertConsistent();
+        assertThat(facets.query(null, null, null, null).facets().getCategories()).extracting(FacetValue::getLabel)
+                .containsExactly("Audio", "Vidéo & TV");
+    }
+
+    /** Comptes sans filtre (agrégats) = comptes d'un parcours (fourchette couvrant tout) = index reconstruit. */
+    private void assertConsistent() {
+        FacetCounts aggregated = facets.query(null, null, null, null).facets();
+        FacetCounts scanned = facets.query(null, null, null, null, 0.0, null, null).facets();
+        assertThat(aggregated).isEqualTo(scanned);
+
+        ProductFacetIndex rebuilt = new ProductFacetIndex(catalog, new ProductSearchIndex(), new ProductPriceIndex());
+        rebuilt.onCatalogLoaded(catalog.findAllCategories(), new ArrayList<>(catalog.findAllProducts()));
+        assertThat(aggregated).isEqualTo(rebuilt.query(null, null, null, null).facets());
+        assertThat(aggregated.getTotal()).isEqualTo(catalog.findAllProducts().size());
+    }
+
+    private static ProductRow row(long id, String name, String brand, double price, long categoryId) {
+        Category category = CATEGORIES.get((int) categoryId - 1);
+        return new ProductRow(id, name, brand, price, id + ".jpg", category.getId(), category.getName());
+    }
+}
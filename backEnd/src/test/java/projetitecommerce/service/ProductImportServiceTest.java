@@ -0,0 +1,159 @@
+package projetitecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import projetitecommerce.dto.ImportReport;
+import projetitecommerce.repo.CategoryRepository;
+import projetitecommerce.repo.ProductRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Import en masse ({@link ProductImportService}) sur le schéma des migrations Flyway (H2 en mode MySQL) :
+ * un export CSV ({@link ProductExportService}) réimporté redonne les mêmes produits, y compris les champs
+ * entre guillemets qui contiennent des virgules, des guillemets ou des retours à la ligne.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog-files;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductImportServiceTest {
+
+    private static final String PRODUCTS = "SELECT name, brand_name, price, image_url, category_id FROM products ORDER BY name";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Audio'), (2, 'Hi-fi, \"vintage\"')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+    }
+
+    @Test
+    void csvExportReimportsUnchanged() throws Exception {
+        jdbcTemplate.update("INSERT INTO products (name, brand_name, price, image_url, category_id) VALUES "
+                + "('Casque', 'Sono', 99.9, 'casque.png', 1), "
+                + "('Enceinte, bois', 'Marque \"Éco\"', 149.5, 'enceinte.png', 2), "
+                + "('Platine\nvinyle', 'Sono', 249.0, 'platine.png', 2), "
+                + "('Ampli\r\nà lampes\rrétro', 'Sono\n\"Pro\"', 599.99, 'ampli.png', 2)");
+        List<Map<String, Object>> exported = jdbcTemplate.queryForList(PRODUCTS);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        long count = transactionTemplate.execute(status -> {
+            try {
+                return exportService().export(csv, CatalogFileFormat.CSV);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(count).isEqualTo(4);
+        jdbcTemplate.update("DELETE FROM products");
+
+        ImportReport report = importService().importProducts(new ByteArrayInputStream(csv.toByteArray()), CatalogFileFormat.CSV);
+
+        assertThat(report.getErrors()).isEmpty();
+        assertThat(report.getReceived()).isEqualTo(4);
+        assertThat(report.getImported()).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForList(PRODUCTS)).isEqualTo(exported);
+    }
+
+    @Test
+    void multiLineRecordKeepsFollowingLineNumbers() throws Exception {
+        String csv = "name,brandName,price,imageUrl,category\r\n"
+                + "\"Câble\r\nlong\",Sono,9.9,cable.png,Audio\r\n"
+                + "Micro,Sono,abc,micro.png,Audio\r\n"
+                + "\r\n"
+                + "\"Pied\",Sono,19.9,pied.png,Inconnue\n"
+                + "\"Support\n\n mural\",Sono,29.9,support.png,Audio";
+
+        ImportReport report = importService().importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CatalogFileFormat.CSV);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getLine).containsExactly(4L, 6L);
+        assertThat(jdbcTemplate.queryForList("SELECT name FROM products ORDER BY name", String.class))
+                .containsExactly("Câble\r\nlong", "Support\n\n mural");
+    }
+
+    @Test
+    void unclosedQuoteRejectsRestOfFileAsOneRecord() throws Exception {
+        String csv = "name,brandName,price,imageUrl,category\n"
+                + "Casque,Sono,99.9,casque.png,Audio\n"
+                + "\"Enceinte,Sono,149.5,enceinte.png,Audio\n"
+                + "Micro,Sono,29.9,micro.png,Audio\n";
+
+        ImportReport report = importService().importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CatalogFileFormat.CSV);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getLine, ImportReport.RowError::getMessage)
+                .containsExactly(tuple(3L, "Guillemet non fermé"));
+    }
+
+    private ProductExportService exportService() {
+        ProductExportService service = new ProductExportService(objectMapper, 100, 2);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        return service;
+    }
+
+    private ProductImportService importService() {
+        CatalogReadModel catalog = new CatalogReadModel(productRepository, categoryRepository,
+                new DefaultListableBeanFactory().getBeanProvider(CatalogChangeListener.class), false);
+        return new ProductImportService(jdbcTemplate, transactionTemplate, categoryRepository, catalog,
+                entityManagerFactory, Validation.buildDefaultValidatorFactory().getValidator(), objectMapper, 2);
+    }
+}
@@ -0,0 +1,106 @@
+package projetitecommerce.service;
+
+import org.junit.jupiter.api.Test;
+import projetitecommerce.dto.PriceOrder;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static projetitecommerce.service.ProductSearchIndexTest.category;
+import static projetitecommerce.service.ProductSearchIndexTest.product;
+
+/**
+ * Index des prix ({@link ProductPriceIndex}) : fourchettes aux bornes incluses, top N dans les deux
+ * ordres et listes maintenues incrémentalement identiques à une reconstruction complète.
+ */
+class ProductPriceIndexTest {
+
+    private static final Category AUDIO = category(1, "Audio");
+    private static final Category VIDEO = category(2, "Vidéo");
+    private static final List<Double[]> RANGES = Arrays.asList(
+            new Double[]{null, null}, new Double[]{10.0, null}, new Double[]{null, 10.0},
+            new Double[]{10.0, 30.0}, new Double[]{15.5, 15.5}, new Double[]{0.0, 0.0}, new Double[]{1000.0, null});
+
+    @Test
+    void rangeBoundsAreInclusiveAndTopNIsASlice() {
+        ProductPriceIndex index = new ProductPriceIndex();
+        index.onCatalogLoaded(List.of(AUDIO, VIDEO), List.of(
+                product(1, "Câble", "Sono", 9.99, AUDIO),
+                product(2, "Casque", "Sono", 10.0, AUDIO),
+                product(3, "Enceinte", "Sono", 30.0, AUDIO),
+                product(4, "Écran", "Sono", 30.0, VIDEO),
+                product(5, "Projecteur", "Sono", 30.01, VIDEO)));
+
+        assertThat(ids(index.find(null, 10.0, 30.0, PriceOrder.ASC, 10))).containsExactly(2L, 3L, 4L);
+        assertThat(ids(index.find(null, 10.0, 30.0, PriceOrder.DESC, 10))).containsExactly(4L, 3L, 2L);
+        assertThat(ids(index.find(null, null, null, PriceOrder.DESC, 2))).containsExactly(5L, 4L);
+        assertThat(ids(index.find(2L, null, 30.0, PriceOrder.ASC, 10))).containsExactly(4L);
+        assertThat(index.count(null, 10.0, 30.0)).isEqualTo(3);
+        assertThat(index.count(3L, null, null)).isZero();
+        assertThat(index.find(null, 31.0, null, PriceOrder.ASC, 10)).isEmpty();
+        assertThat(index.find(null, null, null, PriceOrder.ASC, 0)).isEmpty();
+        assertThatThrownBy(() -> index.find(null, 30.0, 10.0, PriceOrder.ASC, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.count(null, -1.0, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.count(null, Double.NaN, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void incrementalChangesMatchFullRebuild() {
+        Random random = new Random(11);
+        Map<Long, Product> catalog = new HashMap<>();
+        ProductPriceIndex index = new ProductPriceIndex();
+        index.onCatalogLoaded(List.of(AUDIO, VIDEO), List.of());
+        for (int step = 0; step < 2_000; step++) {
+            long id = 1 + random.nextInt(120);
+            if (random.nextInt(4) == 0) {
+                catalog.remove(id);
+                index.onProductDeleted(id);
+            } else {
+                // Prix ronds, souvent égaux : l'ordre entre égaux dépend de l'ID ; changements de catégorie fréquents
+                Product product = product(id, "Produit " + id, "Sono", random.nextInt(40) / 2.0,
+                        random.nextBoolean() ? AUDIO : VIDEO);
+                catalog.put(id, product);
+                index.onProductSaved(product);
+            }
+        }
+        Category renamed = category(2, "Vidéo & TV");
+        index.onCategorySaved(renamed);
+        catalog.replaceAll((id, p) -> p.getCategory().getId() == 2L ? product(id, p.getName(), p.getBrandName(), p.getPrice(), renamed) : p);
+
+        assertSameAsRebuilt(index, catalog, List.of(AUDIO, renamed));
+        assertThat(index.find(2L, null, null, PriceOrder.ASC, Integer.MAX_VALUE))
+                .allSatisfy(p -> assertThat(p.getCategory()).isSameAs(renamed));
+
+        index.onCategoryDeleted(1L);
+        catalog.values().removeIf(p -> p.getCategory().getId() == 1L);
+        assertSameAsRebuilt(index, catalog, List.of(renamed));
+        assertThat(index.count(1L, null, null)).isZero();
+    }
+
+    private static void assertSameAsRebuilt(ProductPriceIndex index, Map<Long, Product> catalog, List<Category> categories) {
+        ProductPriceIndex rebuilt = new ProductPriceIndex();
+        rebuilt.onCatalogLoaded(categories, List.copyOf(catalog.values()));
+        for (Long categoryId : Arrays.asList(null, 1L, 2L)) {
+            for (Double[] range : RANGES) {
+                for (PriceOrder order : PriceOrder.values()) {
+                    assertThat(ids(index.find(categoryId, range[0], range[1], order, Integer.MAX_VALUE)))
+                            .as("catégorie %s, prix %s à %s, %s", categoryId, range[0], range[1], order)
+                            .containsExactlyElementsOf(ids(rebuilt.find(categoryId, range[0], range[1], order, Integer.MAX_VALUE)));
+                }
+                assertThat(index.count(categoryId, range[0], range[1]))
+                        .isEqualTo(rebuilt.count(categoryId, range[0], range[1]));
+            }
+        }
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
@@ -0,0 +1,110 @@
+package projetitecommerce.service;
+
+import org.junit.jupiter.api.Test;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Index de recherche en mémoire ({@link ProductSearchIndex}) : correspondance par préfixe, classement
+ * et maintenance incrémentale comparée à une reconstruction complète.
+ */
+class ProductSearchIndexTest {
+
+    private static final Category AUDIO = category(1, "Audio");
+    private static final List<String> WORDS = List.of("casque", "casquette", "enceinte", "câble", "écouteurs", "sans", "fil",
+            "bluetooth", "noir", "blanc");
+    private static final List<String> BRANDS = List.of("Sono", "Sonic", "Bose", "Marque Éco");
+    private static final List<String> QUERIES = List.of("c", "ca", "casque", "cable", "ecou", "sans fil", "so", "sono",
+            "bose casque", "noir b", "eco", "marque", "x");
+
+    @Test
+    void shortPrefixMatchesEveryTermNotOnlyTheFirstExpansions() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            // 100 mots distincts commençant par "s", tous dans la marque "Sono"
+            products.add(product(i + 1, String.format("s%03d", i), "Sono"));
+        }
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.onCatalogLoaded(List.of(AUDIO), products);
+
+        assertThat(index.search("s sono", 200)).hasSize(100);
+        assertThat(index.search("sono s", 200)).hasSize(100);
+        assertThat(index.search("s099", 200)).extracting(Product::getId).containsExactly(100L);
+        assertThat(index.search("s", 10)).hasSize(10);
+    }
+
+    @Test
+    void incrementalChangesMatchFullRebuild() {
+        Random random = new Random(7);
+        Category video = category(2, "Vidéo");
+        Map<Long, Product> catalog = new HashMap<>();
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.onCatalogLoaded(List.of(AUDIO, video), List.of());
+        for (int step = 0; step < 1_000; step++) {
+            long id = 1 + random.nextInt(80);
+            if (random.nextInt(4) == 0) {
+                catalog.remove(id);
+                index.onProductDeleted(id);
+            } else {
+                // Renommage fréquent : les mots que le produit n'a plus doivent quitter l'index
+                String name = WORDS.get(random.nextInt(WORDS.size())) + " " + WORDS.get(random.nextInt(WORDS.size()));
+                Product product = product(id, name, BRANDS.get(random.nextInt(BRANDS.size())), 10.0,
+                        random.nextBoolean() ? AUDIO : video);
+                catalog.put(id, product);
+                index.onProductSaved(product);
+            }
+        }
+        index.onCategoryDeleted(2L);
+        catalog.values().removeIf(p -> p.getCategory() == video);
+
+        ProductSearchIndex rebuilt = new ProductSearchIndex();
+        rebuilt.onCatalogLoaded(List.of(AUDIO), List.copyOf(catalog.values()));
+        assertThat(index.size()).isEqualTo(rebuilt.size()).isEqualTo(catalog.size());
+        for (String query : QUERIES) {
+            assertThat(index.search(query, ProductSearchIndex.DEFAULT_LIMIT)).as("requête \"%s\"", query)
+                    .containsExactlyElementsOf(rebuilt.search(query, ProductSearchIndex.DEFAULT_LIMIT));
+        }
+    }
+
+    @Test
+    void categoryRenameKeepsProductsFindableWithNewCategory() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.onCatalogLoaded(List.of(AUDIO), List.of(product(1, "Casque", "Sono"), product(2, "Câble", "Sono")));
+
+        Category renamed = category(1, "Hifi");
+        index.onCategorySaved(renamed);
+
+        assertThat(index.search("sono", 10)).extracting(Product::getId).containsExactly(1L, 2L);
+        assertThat(index.search("sono", 10)).allSatisfy(p -> assertThat(p.getCategory()).isSameAs(renamed));
+    }
+
+    static Product product(long id, String name, String brandName) {
+        return product(id, name, brandName, 10.0, AUDIO);
+    }
+
+    static Product product(long id, String name, String brandName, double price, Category category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setBrandName(brandName);
+        product.setPrice(price);
+        product.setImageUrl(id + ".jpg");
+        product.setCategory(category);
+        return product;
+    }
+
+    static Category category(long id, String name) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        return category;
+    }
+}
@@ -0,0 +1,168 @@
+package projetitecommerce.service;
+
+import org.junit.jupiter.api.Test;
+import projetitecommerce.dto.Suggestion;
+import projetitecommerce.model.Category;
+import projetitecommerce.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static projetitecommerce.service.ProductSearchIndexTest.category;
+import static projetitecommerce.service.ProductSearchIndexTest.product;
+
+/**
+ * Autocomplétion ({@link ProductSuggestIndex}) : insertion, renommage et suppression dans l'arbre
+ * compressé, repliement des accents et classement. Après chaque modification incrémentale, les
+ * complétions doivent être celles d'un index reconstruit d'un coup sur le même catalogue.
+ */
+class ProductSuggestIndexTest {
+
+    private static final Category AUDIO = category(1, "Audio");
+    private static final List<String> PREFIXES = List.of("c", "ca", "cas", "casq", "casque", "casquette", "cab", "cable",
+            "a", "au", "audio", "s", "so", "sono", "h", "hifi", "e", "ecouteurs", "sans", "sans fil", "x");
+
+    @Test
+    void insertSplitsSharedPrefix() {
+        List<Product> catalog = new ArrayList<>(List.of(product(1, "Casquette", "Sono")));
+        ProductSuggestIndex index = loaded(catalog);
+        assertThat(texts(index, "casq")).containsExactly("Casquette");
+
+        // "casque" coupe l'arête "casquette" ; "câble" la coupe plus haut, après "ca"
+        catalog.add(save(index, product(2, "Casque", "Sono")));
+        catalog.add(save(index, product(3, "Câble", "Sono")));
+
+        assertThat(texts(index, "casque")).containsExactlyInAnyOrder("Casque", "Casquette");
+        assertThat(texts(index, "casquet")).containsExactly("Casquette");
+        assertThat(texts(index, "ca")).containsExactlyInAnyOrder("Câble", "Casque", "Casquette");
+        assertThat(texts(index, "cab")).containsExactly("Câble");
+        assertSameAsRebuilt(index, catalog);
+    }
+
+    @Test
+    void renameRemovesOldKey() {
+        List<Product> catalog = new ArrayList<>(List.of(
+                product(1, "Casque Hifi", "Sono"),
+                product(2, "Câble", "Sono")));
+        ProductSuggestIndex index = loaded(catalog);
+
+        catalog.set(0, save(index, product(1, "Écouteurs sans fil", "Sono")));
+        assertThat(texts(index, "hifi")).isEmpty();
+        assertThat(texts(index, "casque")).isEmpty();
+        assertThat(texts(index, "fil")).containsExactly("Écouteurs sans fil");
+        assertSameAsRebuilt(index, catalog);
+
+        Category renamed = category(1, "Hifi");
+        index.onCategorySaved(renamed);
+        catalog.replaceAll(p -> product(p.getId(), p.getName(), p.getBrandName(), p.getPrice(), renamed));
+        assertThat(texts(index, "audio")).isEmpty();
+        assertThat(index.suggest("hifi", 10)).extracting(Suggestion::getText, Suggestion::getType)
+                .containsExactly(tuple("Hifi", Suggestion.CATEGORY));
+        assertSameAsRebuilt(index, catalog, renamed);
+    }
+
+    @Test
+    void deleteMergesNodesBack() {
+        List<Product> catalog = new ArrayList<>(List.of(
+                product(1, "Casque", "Sono"),
+                product(2, "Casquette", "Sono"),
+                product(3, "Câble", "Sono")));
+        ProductSuggestIndex index = loaded(catalog);
+
+        index.onProductDeleted(1L);
+        catalog.remove(0);
+        // Le nœud "casque" ne porte plus rien : fusionné avec "tte", la recherche traverse l'arête entière
+        assertThat(texts(index, "casque")).containsExactly("Casquette");
+        assertThat(texts(index, "casquette")).containsExactly("Casquette");
+        assertThat(texts(index, "casquettes")).isEmpty();
+        assertSameAsRebuilt(index, catalog);
+
+        index.onProductDeleted(2L);
+        catalog.remove(0);
+        assertThat(texts(index, "cas")).isEmpty();
+        assertThat(texts(index, "ca")).containsExactly("Câble");
+        assertSameAsRebuilt(index, catalog);
+
+        index.onProductDeleted(3L);
+        catalog.remove(0);
+        assertThat(texts(index, "c")).isEmpty();
+        assertThat(texts(index, "sono")).as("marque sans produit").isEmpty();
+        assertThat(texts(index, "audio")).as("catégorie sans produit").isEmpty();
+    }
+
+    @Test
+    void foldsAccentsCaseAndSeparators() {
+        ProductSuggestIndex index = loaded(List.of(
+                product(1, "Écouteurs Cœur", "Sono"),
+                product(2, "T-shirt Homme Basique", "Marque")));
+
+        assertThat(texts(index, "ecou")).containsExactly("Écouteurs Cœur");
+        assertThat(texts(index, "ÉCOU")).containsExactly("Écouteurs Cœur");
+        assertThat(texts(index, "Écouteurs  coeur")).containsExactly("Écouteurs Cœur");
+        assertThat(texts(index, "cœ")).containsExactly("Écouteurs Cœur");
+        assertThat(texts(index, "t shirt")).containsExactly("T-shirt Homme Basique");
+        assertThat(texts(index, "T-SHIRT h")).containsExactly("T-shirt Homme Basique");
+        assertThat(texts(index, "basique")).containsExactly("T-shirt Homme Basique");
+        assertThat(texts(index, "  -  ")).isEmpty();
+    }
+
+    @Test
+    void ranksByWeightThenTextAndAppliesLimit() {
+        List<Product> catalog = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            catalog.add(product(i, "Support " + i, "Sono"));
+        }
+        catalog.add(product(4, "Station", "Sennheiser"));
+        for (int i = 5; i <= 20; i++) {
+            catalog.add(product(i, "Son " + i, "Audio Pro"));
+        }
+        ProductSuggestIndex index = loaded(catalog);
+
+        List<Suggestion> all = index.suggest("s", 100);
+        assertThat(all).hasSize(ProductSuggestIndex.MAX_LIMIT);
+        assertThat(all).extracting(Suggestion::getWeight).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(all.subList(0, 3)).extracting(Suggestion::getText, Suggestion::getWeight).containsExactly(
+                tuple("Sono", 3L),
+                tuple("Sennheiser", 1L),
+                tuple("Son 10", 1L));
+        assertThat(index.suggest("s", 2)).containsExactlyElementsOf(all.subList(0, 2));
+        assertThat(index.suggest("s", 0)).isEmpty();
+
+        // Le poids suit les écritures : "Sennheiser" passe devant "Sono"
+        for (int i = 21; i <= 24; i++) {
+            catalog.add(save(index, product(i, "Station " + i, "Sennheiser")));
+        }
+        assertThat(index.suggest("s", 1)).extracting(Suggestion::getText).containsExactly("Sennheiser");
+        assertSameAsRebuilt(index, catalog);
+    }
+
+    private static ProductSuggestIndex loaded(List<Product> products) {
+        ProductSuggestIndex index = new ProductSuggestIndex();
+        index.onCatalogLoaded(List.of(AUDIO), List.copyOf(products));
+        return index;
+    }
+
+    private static Product save(ProductSuggestIndex index, Product product) {
+        index.onProductSaved(product);
+        return product;
+    }
+
+    private static List<String> texts(ProductSuggestIndex index, String query) {
+        return index.suggest(query, ProductSuggestIndex.MAX_LIMIT).stream().map(Suggestion::getText).toList();
+    }
+
+    private static void assertSameAsRebuilt(ProductSuggestIndex index, List<Product> catalog) {
+        assertSameAsRebuilt(index, catalog, AUDIO);
+    }
+
+    private static void assertSameAsRebuilt(ProductSuggestIndex index, List<Product> catalog, Category category) {
+        ProductSuggestIndex rebuilt = new ProductSuggestIndex();
+        rebuilt.onCatalogLoaded(List.of(category), List.copyOf(catalog));
+        for (String prefix : PREFIXES) {
+            assertThat(index.suggest(prefix, ProductSuggestIndex.MAX_LIMIT)).as("préfixe \"%s\"", prefix)
+                    .containsExactlyElementsOf(rebuilt.suggest(prefix, ProductSuggestIndex.MAX_LIMIT));
+        }
+    }
+}
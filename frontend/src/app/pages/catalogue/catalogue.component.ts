@@ -3,6 +3,7 @@ import { CommonModule } from '@angular/common'; // ✅ Pour *ngIf et *ngFor
 import { HttpClientModule, HttpClient } from '@angular/common/http'; // ✅ Pour HttpClient
 import { FormsModule } from '@angular/forms'; // ✅ Pour [(ngModel)]
 import { RouterModule } from '@angular/router'; // ✅ Pour routerLink
+import { getAllPages } from '../../services/product.service'; // ✅ Pour parcourir les pages de produits
 
 /**
  * Composant standalone gérant l’affichage du catalogue des produits.
@@ -28,6 +29,12 @@ export class CatalogueComponent implements OnInit {
   /** Champ de recherche libre (nom ou marque). */
   search: string = '';
 
+  /** Complétions proposées pour la saisie en cours (produits, marques, catégories). */
+  suggestions: { text: string; type: string; weight: number }[] = [];
+
+  /** Numéro de la dernière saisie : les réponses arrivées en retard sont ignorées. */
+  private suggestRequest = 0;
+
   /** ID de la catégorie sélectionnée. */
   selectedCategoryId: number | undefined;
 
@@ -63,14 +70,15 @@ export class CatalogueComponent implements OnInit {
   }
 
   /**
-   * Récupère tous les produits depuis le backend.
+   * Récupère tous les produits depuis le backend, page par page (curseur `X-Next-Cursor`) :
+   * la recherche et le filtre par catégorie portent ainsi sur tout le catalogue.
    * Exclut les produits sans catégorie définie.
    */
   loadProducts(): void {
     this.isLoading = true;
     this.errorMessage = '';
 
-    this.http.get<any[]>('http://localhost:8080/api/products').subscribe({
+    getAllPages<any>(this.http, 'http://localhost:8080/api/products').subscribe({
       next: (data) => {
         // ⚙️ On enlève les produits sans catégorie définie
         this.products = data.filter(p => p.category && p.category.name);
@@ -87,6 +95,29 @@ export class CatalogueComponent implements OnInit {
     });
   }
 
+  /**
+   * Autocomplétion : appelée à chaque frappe dans le champ de recherche.
+   * Le backend répond depuis un index en mémoire, sans requête en base.
+   */
+  onSearchInput(): void {
+    const query = this.search.trim();
+    const current = ++this.suggestRequest;
+    if (!query) {
+      this.suggestions = [];
+      return;
+    }
+    this.http.get<{ text: string; type: string; weight: number }[]>(
+      'http://localhost:8080/api/products/suggest', { params: { q: query } }
+    ).subscribe({
+      next: (data) => {
+        if (current === this.suggestRequest) {
+          this.suggestions = data;
+        }
+      },
+      error: () => this.suggestions = []
+    });
+  }
+
   /**
    * Méthode appelée lorsqu'un filtre de catégorie change.
    * Applique le filtrage sur les produits.
@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../environments/environment';  //
+import { getAllPages } from './product.service';
 
 export interface Product {
   id: number;
@@ -27,7 +28,7 @@ export class CatalogService {
 
   constructor(private http: HttpClient) {}
 
-  // 🔹 Récupère les produits, avec filtres optionnels
+  // 🔹 Récupère tous les produits (page par page), avec filtres optionnels
   getProducts(categoryId?: number, search?: string): Observable<Product[]> {
     let params = new HttpParams();
 
@@ -38,7 +39,7 @@ export class CatalogService {
       params = params.set('search', search.trim());
     }
 
-    return this.http.get<Product[]>(this.baseUrl, { params });
+    return getAllPages<Product>(this.http, this.baseUrl, params);
   }
 
   // 🔹 Récupère les catégories
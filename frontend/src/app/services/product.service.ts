@@ -1,6 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { HttpClient, HttpParams, HttpResponse } from '@angular/common/http';
+import { EMPTY, Observable } from 'rxjs';
+import { expand, reduce } from 'rxjs/operators';
 import { Category } from './category.service';
 import { environment } from '../../environments/environment';  //
 
@@ -27,6 +28,30 @@ export interface Product {
   category: Category | null;
 }
 
+/** Taille des pages demandées pour charger toute la liste (maximum accepté par le backend). */
+const PAGE_SIZE = 200;
+
+/**
+ * Charge toutes les pages d'une liste paginée par curseur : le backend renvoie une page à la fois
+ * et le curseur de la suivante dans l'en-tête `X-Next-Cursor` (absent sur la dernière page).
+ * @param http Client HTTP.
+ * @param url URL de la liste.
+ * @param params Paramètres de la requête, repris sur chaque page.
+ */
+export function getAllPages<T>(http: HttpClient, url: string, params: HttpParams = new HttpParams()): Observable<T[]> {
+  const page = (after: string | null) => http.get<T[]>(url, {
+    params: after ? params.set('limit', PAGE_SIZE).set('after', after) : params.set('limit', PAGE_SIZE),
+    observe: 'response'
+  });
+  return page(null).pipe(
+    expand((response: HttpResponse<T[]>) => {
+      const next = response.headers.get('X-Next-Cursor');
+      return next ? page(next) : EMPTY;
+    }),
+    reduce((all: T[], response: HttpResponse<T[]>) => all.concat(response.body ?? []), [] as T[])
+  );
+}
+
 /**
  * Service Angular responsable des opérations CRUD sur les produits.
  *
@@ -46,9 +71,9 @@ export class ProductService {
 
   constructor(private http: HttpClient) {}
 
-  /** Récupère la liste complète des produits. */
+  /** Récupère la liste complète des produits, page par page. */
   getProducts(): Observable<Product[]> {
-    return this.http.get<Product[]>(this.apiUrl);
+    return getAllPages<Product>(this.http, this.apiUrl);
   }
 
   /**